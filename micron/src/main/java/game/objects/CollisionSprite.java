@@ -6,6 +6,23 @@ import org.jrabbit.base.math.geom.Geometry;
  * CollisionSprite extends PhysSprite to add Geometry that can be used to check
  * for collision.
  * 
+ * Collision checks are done in stages. First, the bounding circles of the two
+ * shapes are compared, which rules out most pairs with a single multiplication.
+ * If both shapes are convex, a separating axis test is then run on vertices and
+ * edge normals that are cached whenever the Geometry is transformed. Only
+ * concave shapes fall back on Geometry's general intersection test.
+ * 
+ * A CollisionSprite that has moved further than its own bounding radius since
+ * its last snapshot could have skipped straight over a small shape. Its path
+ * is instead treated as a capsule - a segment from its previous location to 
+ * its current one, widened by its half-width across that path - and tested
+ * against the other shape's outline, along with the usual test at its current
+ * location.
+ * 
+ * The Geometry is only transformed when it is actually needed - that is, when 
+ * two bounding circles overlap, or when geometry() is called - and only if 
+ * the CollisionSprite has moved, turned or been scaled since the last time.
+ * 
  * @author Chris Molini
  *****************************************************************************/
 public abstract class CollisionSprite extends PhysSprite
@@ -15,6 +32,49 @@ public abstract class CollisionSprite extends PhysSprite
 	 **/
 	protected Geometry geometry;
 
+	/**
+	 * The base vertices of the Geometry, before any transformation.
+	 **/
+	protected float[][] vertices;
+
+	/**
+	 * Whether or not the base vertices outline a convex shape.
+	 **/
+	protected boolean convex;
+
+	/**
+	 * The distance from the origin to the furthest base vertex.
+	 **/
+	protected float baseRadius;
+
+	/**
+	 * The radius of a circle around the CollisionSprite's location that 
+	 * completely contains the Geometry at the current scale. This can be used
+	 * to quickly rule out collisions.
+	 **/
+	protected float boundsRadius;
+
+	/**
+	 * The scale the bounding radius was last calculated for.
+	 **/
+	private float boundsXScale, boundsYScale;
+
+	/**
+	 * The transform the Geometry was last applied with.
+	 **/
+	private TransformStamp geometryStamp = new TransformStamp();
+
+	/**
+	 * The transformed vertices, as of the last time the Geometry was applied.
+	 **/
+	private float[] worldX, worldY;
+
+	/**
+	 * The (unnormalized) normals of each transformed edge. Edge i runs from
+	 * vertex i to vertex i + 1.
+	 **/
+	private float[] normalX, normalY;
+
 	/*************************************************************************
 	 * Determines if this CollisionSprite collides with the other.
 	 * 
@@ -25,16 +85,323 @@ public abstract class CollisionSprite extends PhysSprite
 	 *************************************************************************/
 	public boolean collidesWith(CollisionSprite sprite)
 	{
-		return sprite.geometry().intersects(geometry);
+		if(isSwept())
+			return sweepsInto(sprite);
+		return overlaps(sprite);
 	}
 
 	/*************************************************************************
-	 * Accesses the Geometry object.
+	 * Determines if this CollisionSprite, at its current location, overlaps 
+	 * the other.
+	 * 
+	 * @param sprite
+	 * 			  The CollisionSprite to check for an overlap with.
 	 * 
-	 * @return The object that defines the geometric shape of this 
+	 * @return True if the two shapes overlap, false if not.
+	 *************************************************************************/
+	private boolean overlaps(CollisionSprite sprite)
+	{
+		float dx = sprite.location.x() - location.x();
+		float dy = sprite.location.y() - location.y();
+		float reach = sprite.boundsRadius() + boundsRadius();
+		if(dx * dx + dy * dy > reach * reach)
+			return false;
+		updateGeometry();
+		sprite.updateGeometry();
+		if(convex && sprite.convex)
+			return !separates(sprite) && !sprite.separates(this);
+		return sprite.geometry.intersects(geometry);
+	}
+
+	/*************************************************************************
+	 * Determines if the path this CollisionSprite has swept through since its
+	 * last snapshot touches the other.
+	 * 
+	 * @param sprite
+	 * 			  The CollisionSprite to check for a collision with.
+	 * 
+	 * @return True if this CollisionSprite passed through or ended up 
+	 * 		   overlapping the other, false if not.
+	 *************************************************************************/
+	private boolean sweepsInto(CollisionSprite sprite)
+	{
+		float ax = previousX, ay = previousY;
+		float bx = location.x(), by = location.y();
+		float reach = sprite.boundsRadius() + boundsRadius();
+		if(pointSegmentDistanceSquared(sprite.location.x(), 
+				sprite.location.y(), ax, ay, bx, by) > reach * reach)
+			return false;
+		if(overlaps(sprite))
+			return true;
+		updateGeometry();
+		sprite.updateGeometry();
+		float length = (float) Math.hypot(bx - ax, by - ay);
+		float nx = (ay - by) / length, ny = (bx - ax) / length;
+		float halfWidth = 0;
+		for(int i = 0; i < worldX.length; i++)
+			halfWidth = Math.max(halfWidth, Math.abs((worldX[i] - bx) * nx + 
+					(worldY[i] - by) * ny));
+		float[] px = sprite.worldX, py = sprite.worldY;
+		if(contains(px, py, ax, ay))
+			return true;
+		float widthSquared = halfWidth * halfWidth;
+		for(int i = 0; i < px.length; i++)
+		{
+			int next = (i + 1) % px.length;
+			if(segmentDistanceSquared(ax, ay, bx, by, px[i], py[i], px[next], 
+					py[next]) <= widthSquared)
+				return true;
+		}
+		return false;
+	}
+
+	/*************************************************************************
+	 * Learns whether this CollisionSprite has moved far enough since its last
+	 * snapshot that it needs to be checked along its path.
+	 * 
+	 * @return True if the CollisionSprite has moved further than its bounding
+	 * 		   radius.
+	 *************************************************************************/
+	public boolean isSwept()
+	{
+		float dx = location.x() - previousX;
+		float dy = location.y() - previousY;
+		float radius = boundsRadius();
+		return dx * dx + dy * dy > radius * radius;
+	}
+
+	/*************************************************************************
+	 * Learns the x coordinate of the center of a circle that contains the 
+	 * CollisionSprite along its whole path since its last snapshot.
+	 * 
+	 * @return The x coordinate of the middle of the path.
+	 *************************************************************************/
+	public float sweepX() { return (previousX + location.x()) / 2; }
+
+	/*************************************************************************
+	 * Learns the y coordinate of the center of a circle that contains the 
+	 * CollisionSprite along its whole path since its last snapshot.
+	 * 
+	 * @return The y coordinate of the middle of the path.
+	 *************************************************************************/
+	public float sweepY() { return (previousY + location.y()) / 2; }
+
+	/*************************************************************************
+	 * Learns the radius of a circle around (sweepX(), sweepY()) that contains
+	 * the CollisionSprite along its whole path since its last snapshot.
+	 * 
+	 * @return Half the length of the path, plus the bounding radius.
+	 *************************************************************************/
+	public float sweepRadius()
+	{
+		float dx = location.x() - previousX;
+		float dy = location.y() - previousY;
+		return (float) Math.sqrt(dx * dx + dy * dy) / 2 + boundsRadius();
+	}
+
+	/*************************************************************************
+	 * Determines if a point lies inside a polygon, by counting how many of its
+	 * edges a ray from the point crosses.
+	 * 
+	 * @param px
+	 * 			  The x coordinates of the polygon's vertices.
+	 * @param py
+	 * 			  The y coordinates of the polygon's vertices.
+	 * @param x
+	 * 			  The x coordinate of the point.
+	 * @param y
+	 * 			  The y coordinate of the point.
+	 * 
+	 * @return True if the point is inside the polygon.
+	 *************************************************************************/
+	private static boolean contains(float[] px, float[] py, float x, float y)
+	{
+		boolean inside = false;
+		for(int i = 0, j = px.length - 1; i < px.length; j = i++)
+			if((py[i] > y) != (py[j] > y) && x < px[i] + (y - py[i]) * 
+					(px[j] - px[i]) / (py[j] - py[i]))
+				inside = !inside;
+		return inside;
+	}
+
+	/*************************************************************************
+	 * Finds the squared distance from a point to a line segment.
+	 * 
+	 * @param x
+	 * 			  The x coordinate of the point.
+	 * @param y
+	 * 			  The y coordinate of the point.
+	 * @param ax
+	 * 			  The x coordinate of the start of the segment.
+	 * @param ay
+	 * 			  The y coordinate of the start of the segment.
+	 * @param bx
+	 * 			  The x coordinate of the end of the segment.
+	 * @param by
+	 * 			  The y coordinate of the end of the segment.
+	 * 
+	 * @return The squared distance to the nearest point on the segment.
+	 *************************************************************************/
+	private static float pointSegmentDistanceSquared(float x, float y, 
+			float ax, float ay, float bx, float by)
+	{
+		float dx = bx - ax, dy = by - ay;
+		float lengthSquared = dx * dx + dy * dy;
+		float t = lengthSquared == 0 ? 0 : 
+				((x - ax) * dx + (y - ay) * dy) / lengthSquared;
+		t = Math.max(0, Math.min(1, t));
+		float ox = ax + dx * t - x, oy = ay + dy * t - y;
+		return ox * ox + oy * oy;
+	}
+
+	/*************************************************************************
+	 * Finds the squared distance between two line segments, AB and CD.
+	 * 
+	 * @param ax
+	 * 			  The x coordinate of the start of AB.
+	 * @param ay
+	 * 			  The y coordinate of the start of AB.
+	 * @param bx
+	 * 			  The x coordinate of the end of AB.
+	 * @param by
+	 * 			  The y coordinate of the end of AB.
+	 * @param cx
+	 * 			  The x coordinate of the start of CD.
+	 * @param cy
+	 * 			  The y coordinate of the start of CD.
+	 * @param dx
+	 * 			  The x coordinate of the end of CD.
+	 * @param dy
+	 * 			  The y coordinate of the end of CD.
+	 * 
+	 * @return The squared distance between the nearest points of the two 
+	 * 		   segments; 0 if they cross.
+	 *************************************************************************/
+	private static float segmentDistanceSquared(float ax, float ay, float bx,
+			float by, float cx, float cy, float dx, float dy)
+	{
+		float abC = cross(ax, ay, bx, by, cx, cy);
+		float abD = cross(ax, ay, bx, by, dx, dy);
+		float cdA = cross(cx, cy, dx, dy, ax, ay);
+		float cdB = cross(cx, cy, dx, dy, bx, by);
+		if(((abC > 0 && abD < 0) || (abC < 0 && abD > 0)) &&
+				((cdA > 0 && cdB < 0) || (cdA < 0 && cdB > 0)))
+			return 0;
+		return Math.min(
+				Math.min(pointSegmentDistanceSquared(ax, ay, cx, cy, dx, dy),
+						pointSegmentDistanceSquared(bx, by, cx, cy, dx, dy)),
+				Math.min(pointSegmentDistanceSquared(cx, cy, ax, ay, bx, by),
+						pointSegmentDistanceSquared(dx, dy, ax, ay, bx, by)));
+	}
+
+	/*************************************************************************
+	 * Finds which side of the line AB the point P lies on.
+	 * 
+	 * @param ax
+	 * 			  The x coordinate of A.
+	 * @param ay
+	 * 			  The y coordinate of A.
+	 * @param bx
+	 * 			  The x coordinate of B.
+	 * @param by
+	 * 			  The y coordinate of B.
+	 * @param px
+	 * 			  The x coordinate of P.
+	 * @param py
+	 * 			  The y coordinate of P.
+	 * 
+	 * @return The cross product of AB and AP; positive on one side, negative
+	 * 		   on the other, and 0 on the line.
+	 *************************************************************************/
+	private static float cross(float ax, float ay, float bx, float by, 
+			float px, float py)
+	{
+		return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+	}
+
+	/*************************************************************************
+	 * Checks whether any of this CollisionSprite's edge normals is an axis
+	 * along which the two shapes do not overlap.
+	 * 
+	 * @param sprite
+	 * 			  The other CollisionSprite.
+	 * 
+	 * @return True if one of this shape's edges separates the two shapes.
+	 *************************************************************************/
+	private boolean separates(CollisionSprite sprite)
+	{
+		for(int i = 0; i < normalX.length; i++)
+		{
+			float nx = normalX[i], ny = normalY[i];
+			float minA = Float.POSITIVE_INFINITY;
+			float maxA = Float.NEGATIVE_INFINITY;
+			for(int j = 0; j < worldX.length; j++)
+			{
+				float p = worldX[j] * nx + worldY[j] * ny;
+				minA = Math.min(minA, p);
+				maxA = Math.max(maxA, p);
+			}
+			float minB = Float.POSITIVE_INFINITY;
+			float maxB = Float.NEGATIVE_INFINITY;
+			for(int j = 0; j < sprite.worldX.length; j++)
+			{
+				float p = sprite.worldX[j] * nx + sprite.worldY[j] * ny;
+				minB = Math.min(minB, p);
+				maxB = Math.max(maxB, p);
+			}
+			if(maxA < minB || maxB < minA)
+				return true;
+		}
+		return false;
+	}
+
+	/*************************************************************************
+	 * Accesses the Geometry object. It is brought up to date with the current
+	 * location, rotation and scaling first.
+	 * 
+	 * @return The object that defines the geometric shape of this
 	 * 		   CollisionSprite.
 	 *************************************************************************/
-	public Geometry geometry() { return geometry; }
+	public Geometry geometry()
+	{
+		updateGeometry();
+		return geometry;
+	}
+
+	/*************************************************************************
+	 * Learns the x coordinate of the center of the bounding circle.
+	 * 
+	 * @return The x coordinate of the CollisionSprite's location.
+	 *************************************************************************/
+	public float boundsX() { return location.x(); }
+
+	/*************************************************************************
+	 * Learns the y coordinate of the center of the bounding circle.
+	 * 
+	 * @return The y coordinate of the CollisionSprite's location.
+	 *************************************************************************/
+	public float boundsY() { return location.y(); }
+
+	/*************************************************************************
+	 * Learns the radius of the bounding circle. This is only recalculated if 
+	 * the scale has changed.
+	 * 
+	 * @return The radius of a circle around (boundsX(), boundsY()) that
+	 * 		   contains the entire Geometry.
+	 *************************************************************************/
+	public float boundsRadius()
+	{
+		float xScale = scalar.xScale();
+		float yScale = scalar.yScale();
+		if(xScale != boundsXScale || yScale != boundsYScale)
+		{
+			boundsXScale = xScale;
+			boundsYScale = yScale;
+			boundsRadius = baseRadius * Math.max(Math.abs(xScale),
+					Math.abs(yScale));
+		}
+		return boundsRadius;
+	}
 
 	/*************************************************************************
 	 * Defines the Geometry of this CollisionSprite to have the indicated base
@@ -49,27 +416,96 @@ public abstract class CollisionSprite extends PhysSprite
 			geometry = new Geometry(vertices);
 		else
 			geometry.set(vertices);
+		this.vertices = vertices;
+		float max = 0;
+		for(float[] vertex : vertices)
+			max = Math.max(max, vertex[0] * vertex[0] + vertex[1] * vertex[1]);
+		baseRadius = (float) Math.sqrt(max);
+		convex = isConvex(vertices);
+		if(worldX == null || worldX.length != vertices.length)
+		{
+			worldX = new float[vertices.length];
+			worldY = new float[vertices.length];
+			normalX = new float[vertices.length];
+			normalY = new float[vertices.length];
+		}
+		geometryStamp.invalidate();
+		boundsRadius = baseRadius;
+		boundsXScale = boundsYScale = 1;
+	}
+
+	/*************************************************************************
+	 * Determines if the indicated vertices outline a convex shape; that is, if
+	 * every corner turns in the same direction.
+	 * 
+	 * @param vertices
+	 * 			  The points that outline the shape.
+	 * 
+	 * @return True if the shape is convex, false if not.
+	 *************************************************************************/
+	private static boolean isConvex(float[][] vertices)
+	{
+		if(vertices.length < 3)
+			return false;
+		int sign = 0;
+		for(int i = 0; i < vertices.length; i++)
+		{
+			float[] a = vertices[i];
+			float[] b = vertices[(i + 1) % vertices.length];
+			float[] c = vertices[(i + 2) % vertices.length];
+			float cross = (b[0] - a[0]) * (c[1] - b[1]) -
+					(b[1] - a[1]) * (c[0] - b[0]);
+			if(cross != 0)
+			{
+				int turn = cross > 0 ? 1 : -1;
+				if(sign != 0 && turn != sign)
+					return false;
+				sign = turn;
+			}
+		}
+		return true;
 	}
 
 	/*************************************************************************
-	 * Updates the Geometry to reflect the current location, scaling and 
-	 * rotation of the CollisionSprite.
+	 * Updates the Geometry to reflect the current location, scaling and
+	 * rotation of the CollisionSprite, along with the cached vertices and edge
+	 * normals. Nothing is done if none of those have changed since the last 
+	 * time.
 	 *************************************************************************/
 	protected void updateGeometry()
 	{
-		if(geometry != null)
+		if(geometry != null && geometryStamp.refresh(this))
+		{
 			geometry.apply(location, rotation, scalar);
+			transformVertices(scalar.xScale(), scalar.yScale());
+		}
 	}
 
 	/*************************************************************************
-	 * Updates the CollisionSprite.
+	 * Recalculates the cached world-space vertices and edge normals.
 	 * 
-	 * @param delta
-	 * 			  The amount of time that has passed since the last update.
-	 ***************************************************************/ @Override
-	public void update(int delta)
+	 * @param xScale
+	 * 			  The current horizontal scale.
+	 * @param yScale
+	 * 			  The current vertical scale.
+	 *************************************************************************/
+	private void transformVertices(float xScale, float yScale)
 	{
-		super.update(delta);
-		updateGeometry();
+		float theta = rotation.theta();
+		float cos = (float) Math.cos(theta);
+		float sin = (float) Math.sin(theta);
+		for(int i = 0; i < vertices.length; i++)
+		{
+			float x = vertices[i][0] * xScale;
+			float y = vertices[i][1] * yScale;
+			worldX[i] = cos * x - sin * y + location.x();
+			worldY[i] = cos * y + sin * x + location.y();
+		}
+		for(int i = 0; i < vertices.length; i++)
+		{
+			int next = (i + 1) % vertices.length;
+			normalX[i] = worldY[i] - worldY[next];
+			normalY[i] = worldX[next] - worldX[i];
+		}
 	}
 }
\ No newline at end of file
@@ -18,4 +18,21 @@ public interface Cullable extends Located
 	 * 		   being removed from the Matrix.
 	 *************************************************************************/
 	public float cullDistance();
+	
+	/*************************************************************************
+	 * Learns how many more updates can pass before the Cullable's distance
+	 * needs to be checked again.
+	 * 
+	 * @return The number of updates to skip.
+	 *************************************************************************/
+	public int cullDelay();
+	
+	/*************************************************************************
+	 * Redefines how many updates can pass before the Cullable's distance needs
+	 * to be checked again.
+	 * 
+	 * @param delay
+	 * 			  The number of updates to skip.
+	 *************************************************************************/
+	public void setCullDelay(int delay);
 }
\ No newline at end of file
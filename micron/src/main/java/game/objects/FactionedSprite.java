@@ -12,6 +12,11 @@ package game.objects;
  *****************************************************************************/
 public abstract class FactionedSprite extends CollisionSprite
 {
+	/**
+	 * The number of factions that exist.
+	 **/
+	public static final int FACTIONS = 3;
+	
 	/**
 	 * The faction that this FactionedSprite belongs to. 
 	 * 
@@ -32,12 +37,19 @@ public abstract class FactionedSprite extends CollisionSprite
 	 **/
 	protected int[] factionRatings;
 	
+	/**
+	 * A bitmask of the factions this FactionedSprite is hostile to; bit n is
+	 * set if the rating of faction n is -1. This is kept up to date whenever
+	 * the faction ratings are redefined.
+	 **/
+	protected int hostileFactions;
+	
 	/*************************************************************************
 	 * Sets this FactionedSprite's faction ratings all to neutral.
 	 *************************************************************************/
 	public FactionedSprite()
 	{
-		factionRatings = new int[] {0, 0, 0};
+		setFactionRatings(0, 0, 0);
 	}
 
 	/*************************************************************************
@@ -76,8 +88,20 @@ public abstract class FactionedSprite extends CollisionSprite
 	public void setFactionRatings(int... factionRatings)
 	{
 		this.factionRatings = factionRatings.clone();
+		hostileFactions = 0;
+		for(int i = 0; i < factionRatings.length; i++)
+			if(factionRatings[i] == -1)
+				hostileFactions |= 1 << i;
 	}
 
+	/*************************************************************************
+	 * Learns which factions this FactionedSprite is hostile to.
+	 * 
+	 * @return A bitmask where bit n is set if this FactionedSprite is hostile
+	 * 		   to faction n.
+	 *************************************************************************/
+	public int hostileFactions() { return hostileFactions; }
+
 	/*************************************************************************
 	 * Determines this FactionedSprite's relationship with the indicated target.
 	 * 
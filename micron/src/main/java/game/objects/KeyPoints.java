@@ -0,0 +1,138 @@
+package game.objects;
+
+import org.jrabbit.base.graphics.transforms.Vector2f;
+import org.jrabbit.standard.game.objects.base.BaseSprite;
+
+/*****************************************************************************
+ * KeyPoints hold a set of points offset from a BaseSprite, along with where
+ * they lie in the world once the sprite's location, rotation and scale have
+ * been applied.
+ * 
+ * The world positions are only recalculated when refresh() is called, and
+ * only if the sprite has moved, turned or been scaled since the last time.
+ * Reading a point never recalculates anything, so as long as only the thread
+ * that moves the sprite refreshes its KeyPoints, any thread may read them.
+ *****************************************************************************/
+public class KeyPoints
+{
+	/**
+	 * The list of base points.
+	 **/
+	protected Vector2f[] basePoints;
+
+	/**
+	 * The calculated resulting points that take into account location, rotation
+	 * and scaling.
+	 **/
+	private Vector2f[] transformedPoints;
+
+	/**
+	 * The transform the points were last calculated with.
+	 **/
+	private TransformStamp stamp;
+
+	/*************************************************************************
+	 * Creates an empty set of KeyPoints.
+	 *************************************************************************/
+	public KeyPoints()
+	{
+		basePoints = transformedPoints = new Vector2f[0];
+		stamp = new TransformStamp();
+	}
+
+	/*************************************************************************
+	 * Redefines the base points. They are not placed in the world until the
+	 * next refresh.
+	 * 
+	 * @param coordinates
+	 * 			  The "vertices" that describe the base offsets for all points.
+	 *************************************************************************/
+	public void define(float[][] coordinates)
+	{
+		basePoints = new Vector2f[coordinates.length];
+		transformedPoints = new Vector2f[coordinates.length];
+		for(int i = 0; i < coordinates.length; i++)
+		{
+			basePoints[i] = new Vector2f(coordinates[i][0], coordinates[i][1]);
+			transformedPoints[i] = basePoints[i].copy();
+		}
+		stamp.invalidate();
+	}
+
+	/*************************************************************************
+	 * Recalculates the points based on the location, rotation and scaling of
+	 * a BaseSprite, if any of those have changed since the last time.
+	 * 
+	 * @param sprite
+	 * 			  The BaseSprite the points are attached to.
+	 * 
+	 * @return True if the points were recalculated, false if the sprite had
+	 * 		   not moved.
+	 *************************************************************************/
+	public boolean refresh(BaseSprite sprite)
+	{
+		if(!stamp.refresh(sprite))
+			return false;
+		float theta = sprite.rotation().theta();
+		transform(sprite, (float) Math.cos(theta), (float) Math.sin(theta));
+		return true;
+	}
+
+	/*************************************************************************
+	 * Recalculates the points, if the BaseSprite has moved, turned or been
+	 * scaled since the last time, using a direction that is already known
+	 * instead of finding it from the sprite's rotation.
+	 * 
+	 * @param sprite
+	 * 			  The BaseSprite the points are attached to.
+	 * @param cos
+	 * 			  The cosine of the sprite's rotation.
+	 * @param sin
+	 * 			  The sine of the sprite's rotation.
+	 * 
+	 * @return True if the points were recalculated, false if the sprite had
+	 * 		   not moved.
+	 *************************************************************************/
+	public boolean refresh(BaseSprite sprite, float cos, float sin)
+	{
+		if(!stamp.refresh(sprite))
+			return false;
+		transform(sprite, cos, sin);
+		return true;
+	}
+
+	/*************************************************************************
+	 * Places every base point by a BaseSprite's location and scaling, and a
+	 * rotation.
+	 * 
+	 * @param sprite
+	 * 			  The BaseSprite the points are attached to.
+	 * @param cos
+	 * 			  The cosine of the rotation.
+	 * @param sin
+	 * 			  The sine of the rotation.
+	 *************************************************************************/
+	private void transform(BaseSprite sprite, float cos, float sin)
+	{
+		float xScale = sprite.scalar().xScale();
+		float yScale = sprite.scalar().yScale();
+		Vector2f location = sprite.location();
+		for(int i = 0; i < basePoints.length; i++)
+		{
+			float x = basePoints[i].x() * xScale;
+			float y = basePoints[i].y() * yScale;
+			transformedPoints[i].set(cos * x - sin * y, cos * y + sin * x);
+			transformedPoints[i].add(location);
+		}
+	}
+
+	/*************************************************************************
+	 * Learns where a point was placed by the last refresh.
+	 * 
+	 * @param key
+	 * 			  The index of the point to use.
+	 * 
+	 * @return The transformed location of the point.
+	 *************************************************************************/
+	public Vector2f get(int key) { return transformedPoints[key]; }
+}
\ No newline at end of file
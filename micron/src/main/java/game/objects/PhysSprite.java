@@ -1,9 +1,16 @@
 package game.objects;
 
+import java.util.Arrays;
+
 import org.jrabbit.base.core.types.Updateable;
+import org.jrabbit.base.graphics.image.Image;
 import org.jrabbit.base.graphics.transforms.Vector2f;
+import org.jrabbit.base.managers.Resources;
 import org.jrabbit.standard.game.objects.base.BaseSprite;
 
+import game.world.Slotted;
+import game.world.SpriteBatch;
+
 /*****************************************************************************
  * PhysSprite extends BaseSprite to provide some simplistic "physics" 
  * functionality.
@@ -11,7 +18,7 @@ import org.jrabbit.standard.game.objects.base.BaseSprite;
  * @author Chris Molini
  *****************************************************************************/
 public abstract class PhysSprite extends BaseSprite implements Updateable, 
-		Cullable
+		Cullable, Slotted
 {
 	/**
 	 * The current velocity of the PhysSprite.
@@ -33,6 +40,12 @@ public abstract class PhysSprite extends BaseSprite implements Updateable,
 	 **/
 	protected float mass;
 
+	/**
+	 * The inverse of the mass, and of its square root, cached so that drifting
+	 * needs neither a division nor a square root.
+	 **/
+	protected float inverseMass, inverseSqrtMass;
+
 	/**
 	 * The rotation speed of the PhysSprite.
 	 **/
@@ -43,6 +56,36 @@ public abstract class PhysSprite extends BaseSprite implements Updateable,
 	 **/
 	protected float torque;
 	
+	/**
+	 * The number of updates that can pass before the Matrix needs to check if
+	 * the PhysSprite should be culled.
+	 **/
+	protected int cullDelay;
+	
+	/**
+	 * The handles this PhysSprite has been given by the Registries it belongs
+	 * to, indexed by Registry ID.
+	 **/
+	protected int[] handles;
+	
+	/**
+	 * The location and rotation of the PhysSprite as of the start of the last
+	 * simulation step, used to interpolate between steps when rendering.
+	 **/
+	protected float previousX, previousY, previousDegrees;
+	
+	/**
+	 * The actual location and rotation of the PhysSprite, held while it is 
+	 * being rendered at an interpolated position.
+	 **/
+	private float heldX, heldY, heldDegrees;
+	
+	/**
+	 * The Image the PhysSprite is drawn with when it is batched, or null if 
+	 * it can't be batched and has to render itself.
+	 **/
+	protected Image batchImage;
+	
 	/*************************************************************************
 	 * Initializes the default settings in PhysSprite - it has a velocity and 
 	 * force of [0, 0], it's maximum speed is 2000 pixels per second, and it
@@ -64,11 +107,11 @@ public abstract class PhysSprite extends BaseSprite implements Updateable,
 	 *************************************************************************/
 	protected void drift(int delta)
 	{
-		velocity.add(force, delta * 0.0001f / mass);
+		velocity.add(force, delta * 0.0001f * inverseMass);
 		force.reset();
 		velocity.cap(maxSpeed);
 		location.add(velocity, delta);
-		rotationSpeed += (torque / Math.sqrt(mass)) * delta;
+		rotationSpeed += torque * inverseSqrtMass * delta;
 		torque = 0;
 		rotation.rotate(rotationSpeed * delta);
 	}
@@ -121,6 +164,8 @@ public abstract class PhysSprite extends BaseSprite implements Updateable,
 	public void setMass(float mass)
 	{
 		this.mass = mass;
+		inverseMass = 1f / mass;
+		inverseSqrtMass = (float) (1 / Math.sqrt(mass));
 	}
 	
 	/*************************************************************************
@@ -135,6 +180,167 @@ public abstract class PhysSprite extends BaseSprite implements Updateable,
 		this.torque += torque;
 	}
 
+	/*************************************************************************
+	 * Learns how many more updates can pass before the PhysSprite's distance
+	 * needs to be checked again.
+	 * 
+	 * @return The number of updates to skip.
+	 ***************************************************************/ @Override
+	public int cullDelay() { return cullDelay; }
+
+	/*************************************************************************
+	 * Redefines how many updates can pass before the PhysSprite's distance 
+	 * needs to be checked again.
+	 * 
+	 * @param delay
+	 * 			  The number of updates to skip.
+	 ***************************************************************/ @Override
+	public void setCullDelay(int delay)
+	{
+		cullDelay = delay;
+	}
+
+	/*************************************************************************
+	 * Brings the PhysSprite to a standstill and clears any motion waiting to
+	 * be applied, so that it can be reused as if it were new.
+	 *************************************************************************/
+	public void recycle()
+	{
+		velocity.reset();
+		force.reset();
+		rotationSpeed = torque = 0;
+		cullDelay = 0;
+	}
+
+	/*************************************************************************
+	 * Learns the handle this PhysSprite was given by a Registry.
+	 * 
+	 * @param registry
+	 * 			  The ID of the Registry.
+	 * 
+	 * @return The handle, or -1 if the PhysSprite has none.
+	 ***************************************************************/ @Override
+	public int handle(int registry)
+	{
+		if(handles == null || registry >= handles.length)
+			return -1;
+		return handles[registry];
+	}
+
+	/*************************************************************************
+	 * Redefines the handle this PhysSprite has been given by a Registry.
+	 * 
+	 * @param registry
+	 * 			  The ID of the Registry.
+	 * @param handle
+	 * 			  The new handle.
+	 ***************************************************************/ @Override
+	public void setHandle(int registry, int handle)
+	{
+		if(handles == null || registry >= handles.length)
+		{
+			int oldLength = handles == null ? 0 : handles.length;
+			handles = handles == null ? new int[registry + 1] : 
+					Arrays.copyOf(handles, registry + 1);
+			Arrays.fill(handles, oldLength, handles.length, -1);
+		}
+		handles[registry] = handle;
+	}
+
+	/*************************************************************************
+	 * Learns whether or not this PhysSprite can be updated at the same time as
+	 * others. This is true if its update only changes its own state, and only
+	 * affects the rest of the Matrix through actions that can be deferred 
+	 * until every PhysSprite has been updated (see ParallelUpdate).
+	 * 
+	 * @return True if the PhysSprite can be updated in parallel.
+	 *************************************************************************/
+	public boolean updatesIndependently() { return true; }
+
+	/*************************************************************************
+	 * Records the PhysSprite's current location and rotation as its state at
+	 * the start of a simulation step.
+	 *************************************************************************/
+	public void snapshot()
+	{
+		previousX = location.x();
+		previousY = location.y();
+		previousDegrees = rotation.degrees();
+	}
+
+	/*************************************************************************
+	 * Temporarily moves the PhysSprite part of the way from its last snapshot
+	 * to its current state, so that it can be rendered between simulation 
+	 * steps. This must be followed by a call to restore().
+	 * 
+	 * @param alpha
+	 * 			  How far along to place the PhysSprite; 0 is the snapshot, and
+	 * 			  1 is the current state.
+	 *************************************************************************/
+	public void interpolate(float alpha)
+	{
+		heldX = location.x();
+		heldY = location.y();
+		heldDegrees = rotation.degrees();
+		float turn = (heldDegrees - previousDegrees) % 360f;
+		if(turn > 180f)
+			turn -= 360f;
+		else if(turn < -180f)
+			turn += 360f;
+		location.set(previousX + (heldX - previousX) * alpha,
+				previousY + (heldY - previousY) * alpha);
+		rotation.set(previousDegrees + turn * alpha);
+	}
+
+	/*************************************************************************
+	 * Returns the PhysSprite to its actual state after interpolate().
+	 *************************************************************************/
+	public void restore()
+	{
+		location.set(heldX, heldY);
+		rotation.set(heldDegrees);
+	}
+
+	/*************************************************************************
+	 * Learns whether or not the PhysSprite can be drawn as part of a 
+	 * SpriteBatch, rather than rendering itself.
+	 * 
+	 * @return True if the PhysSprite is drawn with a single static Image.
+	 *************************************************************************/
+	public boolean canBatch() { return batchImage != null; }
+
+	/*************************************************************************
+	 * Redefines the Image the PhysSprite is drawn with when it is batched. 
+	 * This should only be set by PhysSprites whose Skin draws nothing but that
+	 * Image, centered on the PhysSprite.
+	 * 
+	 * @param imageReference
+	 * 			  The reference of the Image, or null if the PhysSprite can't
+	 * 			  be batched.
+	 *************************************************************************/
+	protected void setBatchImage(String imageReference)
+	{
+		batchImage = imageReference == null ? null : 
+				Resources.images().get(imageReference);
+	}
+
+	/*************************************************************************
+	 * Adds the PhysSprite to a SpriteBatch, transformed by its location, 
+	 * rotation and scale and tinted by its color.
+	 * 
+	 * @param batch
+	 * 			  The SpriteBatch to add the PhysSprite to.
+	 *************************************************************************/
+	public void batch(SpriteBatch batch)
+	{
+		batch.add(batchImage, null, location.x(), location.y(), 
+				rotation.theta(), 
+				batchImage.width() * scalar.xScale() / 2f, 
+				batchImage.height() * scalar.yScale() / 2f, 
+				batchImage.widthRatio(), batchImage.heightRatio(), 
+				color.red(), color.green(), color.blue(), color.alpha());
+	}
+	
 	/*************************************************************************
 	 * Updates the PhysSprite.
 	 * 
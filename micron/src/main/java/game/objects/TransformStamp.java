@@ -0,0 +1,75 @@
+package game.objects;
+
+import org.jrabbit.standard.game.objects.base.BaseSprite;
+
+/*****************************************************************************
+ * A TransformStamp remembers the location, rotation and scale of a BaseSprite 
+ * as of the last time something was calculated from them. 
+ * 
+ * Values that are derived from a sprite's transform (like keypoints, or the
+ * world-space vertices of its Geometry) can check the stamp before they are 
+ * read, and only be recalculated if the sprite has actually moved, turned or
+ * been scaled since. A sprite that sits still costs nothing.
+ *****************************************************************************/
+public class TransformStamp
+{
+	/**
+	 * The recorded location.
+	 **/
+	protected float x, y;
+	
+	/**
+	 * The recorded rotation, in degrees.
+	 **/
+	protected float degrees;
+	
+	/**
+	 * The recorded scale.
+	 **/
+	protected float xScale, yScale;
+	
+	/**
+	 * Whether or not anything has been recorded since the stamp was last 
+	 * invalidated.
+	 **/
+	protected boolean valid;
+	
+	/*************************************************************************
+	 * Compares the stamp to the current transform of a BaseSprite, and 
+	 * records that transform.
+	 * 
+	 * @param sprite
+	 * 			  The BaseSprite to check.
+	 * 
+	 * @return True if the transform has changed since it was last recorded 
+	 * 		   (or if nothing was recorded), and anything derived from it needs
+	 * 		   to be recalculated.
+	 *************************************************************************/
+	public boolean refresh(BaseSprite sprite)
+	{
+		float newX = sprite.location().x();
+		float newY = sprite.location().y();
+		float newDegrees = sprite.rotation().degrees();
+		float newXScale = sprite.scalar().xScale();
+		float newYScale = sprite.scalar().yScale();
+		if(valid && newX == x && newY == y && newDegrees == degrees && 
+				newXScale == xScale && newYScale == yScale)
+			return false;
+		x = newX;
+		y = newY;
+		degrees = newDegrees;
+		xScale = newXScale;
+		yScale = newYScale;
+		valid = true;
+		return true;
+	}
+	
+	/*************************************************************************
+	 * Forgets the recorded transform, so that the next refresh() reports a 
+	 * change. This should be called whenever the derived values are redefined.
+	 *************************************************************************/
+	public void invalidate()
+	{
+		valid = false;
+	}
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package game.objects.controllers;
 
 import game.objects.Killable;
+import grid.TimerWheel;
 
 import org.jrabbit.base.core.types.Updateable;
 
@@ -38,6 +39,46 @@ public abstract class Controller implements Updateable, Killable
 		this.parent = parent;
 	}
 
+	/*************************************************************************
+	 * Learns whether or not this Controller can be updated while other objects
+	 * in the Matrix are being updated. Controllers that copy the state of 
+	 * another object need that object to be updated first, and Controllers 
+	 * that change shared state (like the camera) have to be updated on the 
+	 * main thread; both should return false.
+	 * 
+	 * Reading the Player is the one exception. The Matrix updates the Player
+	 * on the main thread before the parallel phase begins, and nothing writes
+	 * to it until the phase is over, so Controllers that only chase or aim at
+	 * the Player's location are still independent. A Controller that reads a
+	 * location belonging to any other object that moves is not.
+	 * 
+	 * @return True if the Controller only depends on its parent.
+	 *************************************************************************/
+	public boolean isIndependent() { return true; }
+
+	/*************************************************************************
+	 * Learns whether or not this Controller is purely visual, and can safely
+	 * be skipped while its parent can't be seen.
+	 * 
+	 * @return True if the Controller has no effect on gameplay.
+	 *************************************************************************/
+	public boolean isCosmetic() { return false; }
+
+	/*************************************************************************
+	 * Tells the Controller that its parent has entered a Matrix, so that it 
+	 * can schedule anything it needs to with the Matrix's TimerWheel.
+	 * 
+	 * @param timers
+	 * 			  The TimerWheel to schedule with.
+	 *************************************************************************/
+	public void attach(TimerWheel timers) { }
+
+	/*************************************************************************
+	 * Tells the Controller that its parent has left the Matrix, so that it 
+	 * can cancel anything it has scheduled.
+	 *************************************************************************/
+	public void detach() { }
+
 	/*************************************************************************
 	 * Causes the Controller to remove itself from its parent.
 	 ***************************************************************/ @Override
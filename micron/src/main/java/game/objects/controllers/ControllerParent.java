@@ -1,5 +1,7 @@
 package game.objects.controllers;
 
+import game.world.MatrixRandom;
+
 /*****************************************************************************
  * A ControllerParent manages a list of children controllers to delegate 
  * functionality.
@@ -31,4 +33,11 @@ public interface ControllerParent
 	 * 			  The Controller to remove.
 	 *************************************************************************/
 	public void removeController(Controller controller);
+
+	/*************************************************************************
+	 * Accesses the random stream the parent's Controllers should draw from.
+	 * 
+	 * @return The parent's MatrixRandom.
+	 *************************************************************************/
+	public MatrixRandom random();
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package game.objects.controllers;
+
+import org.jrabbit.base.graphics.transforms.Vector2f;
+
+/*****************************************************************************
+ * Steering provides the vector math that Controllers use to push and turn 
+ * their targets. 
+ * 
+ * Vector2f's own helpers (like unitVectorTowards()) return a new Vector2f on
+ * every call; since Controllers run for every object on every update, these
+ * work directly on the coordinates instead, and write their results into a 
+ * Vector2f supplied by the caller.
+ *****************************************************************************/
+public final class Steering
+{
+	/*************************************************************************
+	 * Steering only has static methods, and shouldn't be created.
+	 *************************************************************************/
+	private Steering() { }
+	
+	/*************************************************************************
+	 * Adds a vector of the indicated length, pointing from one location to 
+	 * another. Nothing is added if the two locations are the same.
+	 * 
+	 * @param vector
+	 * 			  The Vector2f to add to.
+	 * @param from
+	 * 			  The location to point from.
+	 * @param to
+	 * 			  The location to point towards.
+	 * @param length
+	 * 			  The length of the vector to add.
+	 *************************************************************************/
+	public static void addTowards(Vector2f vector, Vector2f from, Vector2f to,
+			float length)
+	{
+		float dx = to.x() - from.x();
+		float dy = to.y() - from.y();
+		float distanceSquared = dx * dx + dy * dy;
+		if(distanceSquared > 0)
+		{
+			float scale = length / (float) Math.sqrt(distanceSquared);
+			vector.add(dx * scale, dy * scale);
+		}
+	}
+	
+	/*************************************************************************
+	 * Adds a vector of the indicated length and angle.
+	 * 
+	 * @param vector
+	 * 			  The Vector2f to add to.
+	 * @param length
+	 * 			  The length of the vector to add.
+	 * @param degrees
+	 * 			  The angle of the vector to add, in degrees.
+	 *************************************************************************/
+	public static void addPolar(Vector2f vector, float length, float degrees)
+	{
+		double theta = Math.toRadians(degrees);
+		vector.add((float) (Math.cos(theta) * length), 
+				(float) (Math.sin(theta) * length));
+	}
+	
+	/*************************************************************************
+	 * Finds the direction from one location to another.
+	 * 
+	 * @param from
+	 * 			  The location to point from.
+	 * @param to
+	 * 			  The location to point towards.
+	 * @param result
+	 * 			  The Vector2f to store the direction in. It is set to a unit
+	 * 			  vector, or to [0, 0] if the two locations are the same.
+	 * 
+	 * @return The result Vector2f.
+	 *************************************************************************/
+	public static Vector2f direction(Vector2f from, Vector2f to, 
+			Vector2f result)
+	{
+		result.set(0, 0);
+		addTowards(result, from, to, 1);
+		return result;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package game.objects.controllers;
+
+import game.world.MatrixRandom;
+import grid.TimerWheel;
+
+/*****************************************************************************
+ * A TimedController is a TargetedController that acts at particular times, 
+ * rather than every update. Instead of counting down on its own, it schedules
+ * a Timer with the TimerWheel of the Matrix its parent is in, and acts when
+ * the Timer fires. While its parent is outside of a Matrix, it keeps track of
+ * how long is left until it should act.
+ * 
+ * Timers fire after the Matrix has been updated, on the main thread, so it is
+ * safe for a TimedController to add objects to or remove them from the 
+ * Matrix when it acts. It draws from its parent's random stream while it 
+ * does so.
+ * 
+ * @param <T>
+ * 			  The type of object to affect.
+ *****************************************************************************/
+public abstract class TimedController<T> extends TargetedController<T>
+{
+	/**
+	 * The TimerWheel the Timer is scheduled with, or null if the 
+	 * TimedController is not attached to one.
+	 **/
+	protected TimerWheel timers;
+
+	/**
+	 * Fires whenever the TimedController should act.
+	 **/
+	protected TimerWheel.Timer timer;
+
+	/**
+	 * The time left until the TimedController should act, while it is not 
+	 * attached to a TimerWheel. If this is negative, it has nothing left to do.
+	 **/
+	protected int delay;
+
+	/*************************************************************************
+	 * Creates a TimedController with the indicated target. Subclasses should
+	 * define the delay until the first action.
+	 * 
+	 * @param target
+	 * 			  The object to act upon.
+	 *************************************************************************/
+	public TimedController(T target)
+	{
+		super(target);
+		timer = new TimerWheel.Timer() {
+			protected void fire()
+			{
+				if(parent() == null)
+					onTimer();
+				else
+				{
+					MatrixRandom previous = MatrixRandom.use(parent().random());
+					onTimer();
+					MatrixRandom.use(previous);
+				}
+			}};
+	}
+
+	/*************************************************************************
+	 * Schedules the Timer for whatever time was left when the TimedController
+	 * was last detached.
+	 * 
+	 * @param timers
+	 * 			  The TimerWheel to schedule with.
+	 ***************************************************************/ @Override
+	public void attach(TimerWheel timers)
+	{
+		this.timers = timers;
+		if(delay >= 0)
+			timers.scheduleIn(timer, delay);
+	}
+
+	/*************************************************************************
+	 * Cancels the Timer, remembering how long was left on it.
+	 ***************************************************************/ @Override
+	public void detach()
+	{
+		if(timers == null)
+			return;
+		delay = timer.isScheduled() ? Math.max(timer.remaining(), 0) : -1;
+		timer.cancel();
+		timers = null;
+	}
+
+	/*************************************************************************
+	 * Does nothing; a TimedController only acts when its Timer fires.
+	 * 
+	 * @param delta
+	 * 			  The amount of time that has passed since the last update.
+	 ***************************************************************/ @Override
+	public void update(int delta) { }
+
+	/*************************************************************************
+	 * Performs the TimedController's action. If it should act again, this 
+	 * needs to schedule the Timer again before anything that could cause the
+	 * TimedController to be detached.
+	 *************************************************************************/
+	protected abstract void onTimer();
+}
\ No newline at end of file
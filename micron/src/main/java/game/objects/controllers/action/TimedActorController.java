@@ -1,23 +1,18 @@
 package game.objects.controllers.action;
 
-import org.jrabbit.base.managers.Resources;
+import static game.world.MatrixRandom.random;
 
 import game.objects.Actor;
-import game.objects.controllers.TargetedController;
+import game.objects.controllers.TimedController;
 
 /*****************************************************************************
- * A TimedActorController extends TargetedController to command an Actor, 
+ * A TimedActorController extends TimedController to command an Actor, 
  * making it perform its action in regular intervals.
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class TimedActorController extends TargetedController<Actor>
+public class TimedActorController extends TimedController<Actor>
 {
-	/**
-	 * The time passed since the last action.
-	 **/
-	protected int counter;
-	
 	/**
 	 * The time between actions.
 	 **/
@@ -50,23 +45,18 @@ public class TimedActorController extends TargetedController<Actor>
 	public TimedActorController(Actor target, int interval, float variance)
 	{
 		super(target);
-		this.interval = (int) (interval * (1f + (Resources.random().nextFloat()
+		this.interval = (int) (interval * (1f + (random().nextFloat()
 				- 0.5f) * variance));
+		delay = this.interval;
 	}
 
 	/*************************************************************************
-	 * Updates the TimedActorController, causing actions whenever necessary.
-	 * 
-	 * @param delta
-	 * 			  The amount of time that has passed since the last interval.
+	 * Causes the Actor to act, and schedules the next action one interval 
+	 * later.
 	 ***************************************************************/ @Override
-	public void update(int delta)
+	protected void onTimer()
 	{
-		counter += delta;
-		while(counter >= interval)
-		{
-			counter -= interval;
-			target.act();
-		}
+		timers.repeat(timer, interval);
+		target.act();
 	}
 }
\ No newline at end of file
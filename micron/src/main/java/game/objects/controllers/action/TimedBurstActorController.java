@@ -1,28 +1,23 @@
 package game.objects.controllers.action;
 
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 import game.objects.Actor;
-import game.objects.controllers.TargetedController;
+import game.objects.controllers.TimedController;
 
 /*****************************************************************************
- * A TimedBurstActorController extends TargetedController to command an Actor 
+ * A TimedBurstActorController extends TimedController to command an Actor 
  * to perform its action in "bursts."
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class TimedBurstActorController extends TargetedController<Actor>
+public class TimedBurstActorController extends TimedController<Actor>
 {
 	/**
 	 * Whether or not it is in the second phase.
 	 **/
 	protected boolean phase;
 	
-	/**
-	 * The time that has passed in the current phase.
-	 **/
-	protected int counter;
-	
 	/**
 	 * The duration of the first phase.
 	 **/
@@ -86,36 +81,27 @@ public class TimedBurstActorController extends TargetedController<Actor>
 				* variance));
 		this.phaseBIterations = Math.round(phaseBIterations * (1f + 
 				(random().nextFloat() - 0.5f) * variance));
+		delay = this.intervalA;
 	}
 
 	/*************************************************************************
-	 * Updates the TimedBurstActorController, causing actions whenever 
-	 * necessary.
-	 * 
-	 * @param delta
-	 * 			  The amount of time that has passed since the last interval.
+	 * Causes the Actor to act, and schedules the next action based on which
+	 * phase that leaves the TimedBurstActorController in.
 	 ***************************************************************/ @Override
-	public void update(int delta)
+	protected void onTimer()
 	{
-		counter += delta;
 		if(phase)
-			while(counter >= intervalB && phase)
+		{
+			phaseBCounter++;
+			if(phaseBCounter >= phaseBIterations - 1)
 			{
-				counter -= intervalB;
-				target.act();
-				phaseBCounter++;
-				if(phaseBCounter >= phaseBIterations - 1)
-				{
-					phaseBCounter = 0;
-					phase = false;
-				}
+				phaseBCounter = 0;
+				phase = false;
 			}
+		}
 		else
-			while(counter >= intervalA)
-			{
-				counter -= intervalA;
-				target.act();
-				phase = true;
-			}
+			phase = true;
+		timers.repeat(timer, phase ? intervalB : intervalA);
+		target.act();
 	}
 }
\ No newline at end of file
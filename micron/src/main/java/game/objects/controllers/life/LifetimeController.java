@@ -1,9 +1,9 @@
 package game.objects.controllers.life;
 
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 import game.objects.Killable;
-import game.objects.controllers.TargetedController;
+import game.objects.controllers.TimedController;
 
 /*****************************************************************************
  * A LifetimeController forces a Killable object to only live for a certain 
@@ -11,13 +11,8 @@ import game.objects.controllers.TargetedController;
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class LifetimeController extends TargetedController<Killable> 
+public class LifetimeController extends TimedController<Killable> 
 {
-	/**
-	 * The amount of time left that the object has to live.
-	 **/
-	protected int timeLeft;
-	
 	/*************************************************************************
 	 * Creates a LifetimeController.
 	 * 
@@ -45,19 +40,28 @@ public class LifetimeController extends TargetedController<Killable>
 	public LifetimeController(Killable target, int lifetime, float variance)
 	{
 		super(target);
-		timeLeft = (int) (lifetime * (1f + (random().nextFloat() - 0.5f) * variance));
+		delay = (int) (lifetime * (1f + (random().nextFloat() - 0.5f) * variance));
 	}
 
 	/*************************************************************************
-	 * Counts down the Killable's life.
+	 * Redefines how long the Killable has left to live. This only takes 
+	 * effect the next time the LifetimeController is attached to a 
+	 * TimerWheel, so it should be used before its target is added to a 
+	 * Matrix.
 	 * 
-	 * @param delta
-	 * 			  The amount of time that has passed since the last update.
+	 * @param lifetime
+	 * 			  The duration of the Killable's remaining life.
+	 *************************************************************************/
+	public void setLifetime(int lifetime)
+	{
+		delay = lifetime;
+	}
+
+	/*************************************************************************
+	 * Ends the Killable's life.
 	 ***************************************************************/ @Override
-	public void update(int delta)
+	protected void onTimer()
 	{
-		timeLeft -= delta;
-		if(timeLeft <= 0)
-			target.kill();
+		target.kill();
 	}
 }
\ No newline at end of file
@@ -42,4 +42,13 @@ public class AnchoredController extends TargetedController<Located>
 	{
 		target.location().set(anchor);
 	}
+
+	/*************************************************************************
+	 * Learns whether or not this Controller can be updated in parallel. Since
+	 * the anchor usually belongs to another object, it has to be updated 
+	 * after that object has moved.
+	 * 
+	 * @return False.
+	 ***************************************************************/ @Override
+	public boolean isIndependent() { return false; }
 }
\ No newline at end of file
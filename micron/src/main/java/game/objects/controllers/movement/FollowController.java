@@ -1,15 +1,19 @@
 package game.objects.controllers.movement;
 
 import org.jrabbit.base.graphics.transforms.Vector2f;
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 import game.objects.PhysSprite;
+import game.objects.controllers.Steering;
 import game.objects.controllers.TargetedController;
 
 /*****************************************************************************
  * A FollowController controls a PhysSprite and attempts to make it stay within
  * a certain radius of a Vector2f. 
  * 
+ * Like the other steering Controllers, it reports itself as independent, 
+ * which is only true while the Vector2f it follows is the Player's.
+ * 
  * @author Chris Molini
  *****************************************************************************/
 public class FollowController extends TargetedController<PhysSprite>
@@ -97,8 +101,8 @@ public class FollowController extends TargetedController<PhysSprite>
 			float dist = target.location().distanceTo(targetLoc) - minDist;
 			if(dist > 0)
 			{
-				target.force().add(target.location().unitVectorTowards(targetLoc), 
-						Math.min(1f, dist / maxDist) * maxForce);
+				Steering.addTowards(target.force(), target.location(), 
+						targetLoc, Math.min(1f, dist / maxDist) * maxForce);
 			}
 		}
 	}
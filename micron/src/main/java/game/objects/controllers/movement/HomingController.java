@@ -1,15 +1,19 @@
 package game.objects.controllers.movement;
 
 import org.jrabbit.base.graphics.transforms.Vector2f;
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 import game.objects.PhysSprite;
+import game.objects.controllers.Steering;
 import game.objects.controllers.TargetedController;
 
 /*****************************************************************************
  * A HomingController is designed to push a PhysSprite towards a target 
  * Vector2f.
  * 
+ * The target Vector2f is read during the parallel update, so it should be 
+ * the Player's location (see Controller.isIndependent()).
+ * 
  * @author Chris Molini
  *****************************************************************************/
 public class HomingController extends TargetedController<PhysSprite>
@@ -68,7 +72,7 @@ public class HomingController extends TargetedController<PhysSprite>
 	public void update(int delta)
 	{
 		if(targetLoc != null)
-			target.force().add(target.location().unitVectorTowards(targetLoc), 
+			Steering.addTowards(target.force(), target.location(), targetLoc, 
 					delta * force);
 	}
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 package game.objects.controllers.movement;
 
-import static org.jrabbit.base.managers.Resources.random;
+import static game.world.MatrixRandom.random;
 import game.objects.PhysSprite;
 import game.objects.controllers.TargetedController;
 
@@ -29,7 +29,7 @@ public class PropellingController extends TargetedController<PhysSprite>
 	public PropellingController(PhysSprite target, float thrust)
 	{
 		super(target);
-		this.thrust = thrust;
+		setThrust(thrust);
 	}
 
 	/*************************************************************************
@@ -48,6 +48,17 @@ public class PropellingController extends TargetedController<PhysSprite>
 		this.thrust = thrust * (1f + (random().nextFloat() - 0.5f) * variance);
 	}
 
+	/*************************************************************************
+	 * Redefines how hard the PropellingController pushes.
+	 * 
+	 * @param thrust
+	 * 			  The force to apply.
+	 *************************************************************************/
+	public void setThrust(float thrust)
+	{
+		this.thrust = thrust;
+	}
+
 	/*************************************************************************
 	 * Updates the PropellingController, pushing the PhysSprite.
 	 * 
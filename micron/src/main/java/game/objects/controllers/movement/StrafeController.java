@@ -1,16 +1,20 @@
 package game.objects.controllers.movement;
 
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 import org.jrabbit.base.graphics.transforms.Vector2f;
 
 import game.objects.PhysSprite;
+import game.objects.controllers.Steering;
 import game.objects.controllers.TargetedController;
 
 /*****************************************************************************
  * A StrafeController controls a PhysSprite and makes it move in a circular,
  * strafing pattern around a targeted Vector2f. 
  * 
+ * The targeted Vector2f must not move while the Matrix updates in parallel;
+ * the Player's location is safe (see Controller.isIndependent()).
+ * 
  * @author Chris Molini
  *****************************************************************************/
 public class StrafeController extends TargetedController<PhysSprite>
@@ -76,7 +80,8 @@ public class StrafeController extends TargetedController<PhysSprite>
 	 ***************************************************************/ @Override
 	public void update(int delta)
 	{
-		target.force().addPolar(force, (float) Math.toRadians(
-				target.location().angleTowards(targetLoc) + (direction ? -90 : 90)));
+		float angle = target.location().angleTowards(targetLoc);
+		Steering.addPolar(target.force(), force, 
+				angle + (direction ? -90 : 90));
 	}
 }
\ No newline at end of file
@@ -1,10 +1,10 @@
 package game.objects.controllers.movement;
 
 import org.jrabbit.base.graphics.transforms.Vector2f;
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 import game.objects.PhysSprite;
-import game.objects.controllers.TargetedController;
+import game.objects.controllers.TimedController;
 
 /*****************************************************************************
  * A WanderingController is designed to make a target PhysSprite be pushed 
@@ -13,7 +13,7 @@ import game.objects.controllers.TargetedController;
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class WanderingController extends TargetedController<PhysSprite>
+public class WanderingController extends TimedController<PhysSprite>
 {
 	/**
 	 * The force Vector2f that is currently being applied to the PhysSprite.
@@ -25,12 +25,6 @@ public class WanderingController extends TargetedController<PhysSprite>
 	 **/
 	protected float strength;
 	
-	/**
-	 * This keeps track of the amount of time that has passed since the last
-	 * randomization.
-	 **/
-	protected int counter;
-	
 	/**
 	 * The minimum interval between force vector randomizations.
 	 **/
@@ -89,23 +83,27 @@ public class WanderingController extends TargetedController<PhysSprite>
 				0.5f) * variance));
 		this.addInterval = (int) (addInterval * (1f + (random().nextFloat() -
 				0.5f) * variance));
-		counter = (int) (baseInterval + random().nextFloat() * addInterval);
+		delay = (int) (baseInterval + random().nextFloat() * addInterval);
 	}
 
 	/*************************************************************************
-	 * Updates the WanderingController.
+	 * Applies the current force to the PhysSprite.
 	 * 
 	 * @param delta
 	 * 			  The amount of time that has passed since the last update.
 	 ***************************************************************/ @Override
 	public void update(int delta)
 	{
-		counter -= delta;
-		if(counter <= 0)
-		{
-			counter  = (int) (baseInterval + random().nextFloat() * addInterval);
-			force.setPolar(random().nextFloat() * 6.283f, strength);
-		}
 		target.force().add(force);
 	}
+
+	/*************************************************************************
+	 * Randomizes the force, and schedules the next randomization.
+	 ***************************************************************/ @Override
+	protected void onTimer()
+	{
+		timers.scheduleIn(timer, (int) (baseInterval + random().nextFloat() * 
+				addInterval));
+		force.setPolar(random().nextFloat() * 6.283f, strength);
+	}
 }
\ No newline at end of file
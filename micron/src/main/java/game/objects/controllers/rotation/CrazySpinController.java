@@ -1,7 +1,7 @@
 package game.objects.controllers.rotation;
 
 import org.jrabbit.base.graphics.types.Rotated;
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 import game.objects.controllers.TargetedController;
 
@@ -36,4 +36,12 @@ public class CrazySpinController extends TargetedController<Rotated>
 	{
 		target.rotation().set(random().nextFloat() * 360f);
 	}
+
+	/*************************************************************************
+	 * Learns whether or not this Controller is purely visual. It is, so it
+	 * doesn't need to run while its target is offscreen.
+	 * 
+	 * @return True.
+	 ***************************************************************/ @Override
+	public boolean isCosmetic() { return true; }
 }
\ No newline at end of file
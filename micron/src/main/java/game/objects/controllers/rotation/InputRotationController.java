@@ -36,6 +36,17 @@ public class InputRotationController extends TargetedController<BaseSprite>
 	public InputRotationController(BaseSprite target, float rotationSpeed)
 	{
 		super(target);
+		setRotationSpeed(rotationSpeed);
+	}
+
+	/*************************************************************************
+	 * Redefines how quickly the target is rotated.
+	 * 
+	 * @param rotationSpeed
+	 * 			  The rate at which to rotate the target.
+	 *************************************************************************/
+	public void setRotationSpeed(float rotationSpeed)
+	{
 		this.rotationSpeed = rotationSpeed;
 	}
 
@@ -1,7 +1,7 @@
 package game.objects.controllers.rotation;
 
 import org.jrabbit.base.graphics.transforms.Vector2f;
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 import org.jrabbit.standard.game.objects.base.BaseSprite;
 
 import game.objects.controllers.TargetedController;
@@ -11,6 +11,10 @@ import game.objects.controllers.TargetedController;
  * Vector2f. It can be used to make sprites always aim themselves at other 
  * sprites, etc.
  * 
+ * Aiming at anything other than the Player, or a location that stays put 
+ * during updates, makes the RotateTowardsController depend on the order of
+ * updates; see Controller.isIndependent().
+ * 
  * @author Chris Molini
  *****************************************************************************/
 public class RotateTowardsController extends TargetedController<BaseSprite>
@@ -63,6 +67,20 @@ public class RotateTowardsController extends TargetedController<BaseSprite>
 				* variance);
 	}
 
+	/*************************************************************************
+	 * Redefines what the RotateTowardsController aims at, and how quickly.
+	 * 
+	 * @param targetLoc
+	 * 			  The location Vector2f to rotate towards.
+	 * @param rotationSpeed
+	 * 			  The rate at which to rotate.
+	 *************************************************************************/
+	public void aimAt(Vector2f targetLoc, float rotationSpeed)
+	{
+		this.targetLoc = targetLoc;
+		this.rotateSpeed = rotationSpeed;
+	}
+
 	/*************************************************************************
 	 * Updates the RotateTowardsController.
 	 * 
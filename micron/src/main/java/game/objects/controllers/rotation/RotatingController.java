@@ -1,7 +1,7 @@
 package game.objects.controllers.rotation;
 
 import org.jrabbit.base.graphics.types.Rotated;
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 import game.objects.controllers.TargetedController;
 
@@ -3,11 +3,17 @@ package game.objects.death;
 import org.jrabbit.standard.game.objects.base.BaseSprite;
 
 import game.objects.sprite.MatrixSprite;
+import game.world.Matrix;
 
 /*****************************************************************************
  * A DeathSpawnEffect is used to place a separate object into a MatrixSprite's
  * matrix when it is killed.
  * 
+ * A spawn that is purely cosmetic, such as an animation, is skipped while the
+ * Matrix's QualityGovernor has lowered the level of detail far enough. A 
+ * cosmetic MatrixSprite is marked as such, so that the Matrix keeps it from
+ * disturbing the root random stream.
+ * 
  * @author Chris Molini
  *****************************************************************************/
 public class DeathSpawnEffect implements DeathEffect
@@ -21,6 +27,11 @@ public class DeathSpawnEffect implements DeathEffect
 	 * The layer into which to place the spawn.
 	 **/
 	protected String layer;
+	
+	/**
+	 * Whether or not the spawn is purely cosmetic.
+	 **/
+	protected boolean cosmetic;
 
 	/*************************************************************************
 	 * Creates a DeathSpawnEffect.
@@ -31,25 +42,46 @@ public class DeathSpawnEffect implements DeathEffect
 	 * 			  The layer into which to spawn the object.
 	 *************************************************************************/
 	public DeathSpawnEffect(BaseSprite spawn, String layer)
+	{
+		this(spawn, layer, false);
+	}
+
+	/*************************************************************************
+	 * Creates a DeathSpawnEffect.
+	 * 
+	 * @param spawn
+	 * 			  The object to spawn on death.
+	 * @param layer
+	 * 			  The layer into which to spawn the object.
+	 * @param cosmetic
+	 * 			  Whether or not the spawn is purely cosmetic, and can be 
+	 * 			  skipped when the Matrix is under load.
+	 *************************************************************************/
+	public DeathSpawnEffect(BaseSprite spawn, String layer, boolean cosmetic)
 	{
 		this.spawn = spawn;
+		if(cosmetic && spawn instanceof MatrixSprite)
+			((MatrixSprite) spawn).setCosmetic(true);
 		this.layer = layer;
+		this.cosmetic = cosmetic;
 	}
 
 	/*************************************************************************
 	 * Sets the spawn's location and rotation to that of the source, and adds it
-	 * to the source's Matrix.
+	 * to the source's Matrix, unless it is cosmetic and cosmetic animations are
+	 * being skipped.
 	 * 
 	 * @param source
 	 * 			  The MatrixSprite that is dying.
 	 ***************************************************************/ @Override
 	public void onDeath(MatrixSprite source)
 	{
-		if(source.matrix() != null)
+		Matrix matrix = source.matrix();
+		if(matrix != null && (!cosmetic || matrix.quality().cosmetics()))
 		{
 			spawn.location().set(source.location());
 			spawn.rotation().set(source.rotation());
-			source.matrix().add(layer, spawn);
+			matrix.add(layer, spawn);
 		}
 	}
 }
\ No newline at end of file
@@ -35,6 +35,7 @@ public class DebrisSprite extends PhysSprite implements Debris
 	public DebrisSprite(String reference)
 	{
 		this(new ImageSkin(reference));
+		setBatchImage(reference);
 	}
 
 	/*************************************************************************
@@ -1,6 +1,7 @@
 package game.objects.debris.base;
 
 import game.objects.Cullable;
+import game.world.Slotted;
 
 import org.jrabbit.base.graphics.transforms.Vector2f;
 import org.jrabbit.base.graphics.types.Located;
@@ -11,7 +12,7 @@ import org.jrabbit.base.graphics.types.Located;
  * 
  * @author Chris Molini
  *****************************************************************************/
-public interface Debris extends Cullable, Located
+public interface Debris extends Cullable, Located, Slotted
 {
 	/*************************************************************************
 	 * Returns the force vector of this Debris.
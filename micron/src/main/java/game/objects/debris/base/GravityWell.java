@@ -0,0 +1,38 @@
+package game.objects.debris.base;
+
+import org.jrabbit.base.graphics.types.Located;
+
+/*****************************************************************************
+ * A GravityWell is a Vacuum that pulls Debris towards itself, and consumes any
+ * that pass within a set distance of its center.
+ * 
+ * Instead of being checked against every piece of Debris, GravityWells are 
+ * handled in bulk by the Matrix's gravity field; they only need to describe
+ * how strong they are and how far they reach.
+ *****************************************************************************/
+public interface GravityWell extends Vacuum, Located
+{
+	/*************************************************************************
+	 * Learns the strength of the GravityWell. Debris at a distance d from the
+	 * center is pulled with a force of pull() / d.
+	 * 
+	 * @return The strength of the pull.
+	 *************************************************************************/
+	public float pull();
+	
+	/*************************************************************************
+	 * Learns how far the GravityWell reaches. Debris further away than this is
+	 * not affected at all.
+	 * 
+	 * @return The radius of influence.
+	 *************************************************************************/
+	public float influenceRadius();
+	
+	/*************************************************************************
+	 * Learns the radius of the event horizon. Debris that comes this close to
+	 * the center is removed.
+	 * 
+	 * @return The distance at which Debris is consumed.
+	 *************************************************************************/
+	public float horizon();
+}
\ No newline at end of file
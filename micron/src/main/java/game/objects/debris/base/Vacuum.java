@@ -1,11 +1,13 @@
 package game.objects.debris.base;
 
+import game.world.Slotted;
+
 /*****************************************************************************
  * A Vacuum is an object that can remove Debris from the Matrix.
  * 
  * @author Chris Molini
  *****************************************************************************/
-public interface Vacuum
+public interface Vacuum extends Slotted
 {
 	/*************************************************************************
 	 * Determines whether or not the Vacuum should remove the indicated Debris.
@@ -0,0 +1,25 @@
+package game.objects.effects.base;
+
+import game.objects.entities.base.MatrixEntity;
+
+/*****************************************************************************
+ * An AreaEffect is an Effect whose strength depends on how far the target is
+ * from the MatrixEffect. When the MatrixEffect already knows the distance, as
+ * it does when the Matrix checks it with a radial query, it is passed along 
+ * squared, so that the AreaEffect doesn't have to measure it again.
+ *****************************************************************************/
+public interface AreaEffect extends Effect
+{
+	/*************************************************************************
+	 * Performs the appropriate effects.
+	 * 
+	 * @param source
+	 * 			  The MatrixEffect targeting the MatrixEntity.
+	 * @param target
+	 * 			  The MatrixEntity that is receiving the source's effects.
+	 * @param distanceSquared
+	 * 			  The squared distance between the source and the target.
+	 *************************************************************************/
+	public void affect(MatrixEffect source, MatrixEntity target, 
+			float distanceSquared);
+}
\ No newline at end of file
@@ -0,0 +1,164 @@
+package game.objects.effects.base;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import game.objects.entities.base.MatrixEntity;
+
+/*****************************************************************************
+ * An EffectChain is the fixed series of Effects a MatrixEffect performs when
+ * it acts upon a MatrixEntity.
+ * 
+ * EffectChains are immutable, so one chain can be shared by every MatrixEffect
+ * that behaves the same way. A weapon builds the chain for its projectiles
+ * once, rather than giving each projectile its own list of Effects. Chains of
+ * Effects that keep no state of their own should be created with of(), which
+ * interns them; any two equal chains created that way are the same object.
+ * Effects that do keep state (such as a DoTEffect, which is also updated as a
+ * Controller) belong to a single MatrixEffect, and their chains should be
+ * created directly.
+ * 
+ * When the distance to the target is already known, it can be passed along
+ * squared to any AreaEffects in the chain.
+ *****************************************************************************/
+public class EffectChain
+{
+	/**
+	 * A chain that does nothing.
+	 **/
+	public static final EffectChain EMPTY = of();
+
+	/**
+	 * The interned chains, keyed by themselves.
+	 **/
+	private static Map<EffectChain, EffectChain> interned;
+
+	/**
+	 * The Effects to perform, in order.
+	 **/
+	private final Effect[] effects;
+
+	/**
+	 * The Effects that are AreaEffects, at the same positions, or null where
+	 * they are not.
+	 **/
+	private final AreaEffect[] areaEffects;
+
+	/**
+	 * The hash of the Effects, calculated once.
+	 **/
+	private final int hash;
+
+	/*************************************************************************
+	 * Creates an EffectChain that isn't shared.
+	 * 
+	 * @param effects
+	 * 			  The Effects to perform, in order.
+	 *************************************************************************/
+	public EffectChain(Effect... effects)
+	{
+		this.effects = effects.clone();
+		areaEffects = new AreaEffect[effects.length];
+		for(int i = 0; i < effects.length; i++)
+			if(effects[i] instanceof AreaEffect)
+				areaEffects[i] = (AreaEffect) effects[i];
+		hash = Arrays.hashCode(this.effects);
+	}
+
+	/*************************************************************************
+	 * Accesses the shared EffectChain for the indicated Effects, creating it
+	 * if it doesn't exist yet. The Effects should not keep any state, since
+	 * they may be shared by many MatrixEffects at once.
+	 * 
+	 * @param effects
+	 * 			  The Effects to perform, in order.
+	 * 
+	 * @return The interned EffectChain.
+	 *************************************************************************/
+	public static synchronized EffectChain of(Effect... effects)
+	{
+		if(interned == null)
+			interned = new HashMap<EffectChain, EffectChain>();
+		EffectChain chain = new EffectChain(effects);
+		EffectChain existing = interned.get(chain);
+		if(existing != null)
+			return existing;
+		interned.put(chain, chain);
+		return chain;
+	}
+
+	/*************************************************************************
+	 * Learns how many Effects are in the chain.
+	 * 
+	 * @return The length of the chain.
+	 *************************************************************************/
+	public int size() { return effects.length; }
+
+	/*************************************************************************
+	 * Accesses one of the Effects in the chain.
+	 * 
+	 * @param index
+	 * 			  The position of the Effect.
+	 * 
+	 * @return The Effect at that position.
+	 *************************************************************************/
+	public Effect get(int index) { return effects[index]; }
+
+	/*************************************************************************
+	 * Performs every Effect in the chain.
+	 * 
+	 * @param source
+	 * 			  The MatrixEffect targeting the MatrixEntity.
+	 * @param target
+	 * 			  The MatrixEntity that is receiving the source's effects.
+	 *************************************************************************/
+	public void affect(MatrixEffect source, MatrixEntity target)
+	{
+		for(int i = 0; i < effects.length; i++)
+			effects[i].affect(source, target);
+	}
+
+	/*************************************************************************
+	 * Performs every Effect in the chain, passing the squared distance along
+	 * to those that are AreaEffects.
+	 * 
+	 * @param source
+	 * 			  The MatrixEffect targeting the MatrixEntity.
+	 * @param target
+	 * 			  The MatrixEntity that is receiving the source's effects.
+	 * @param distanceSquared
+	 * 			  The squared distance between the source and the target.
+	 *************************************************************************/
+	public void affect(MatrixEffect source, MatrixEntity target, 
+			float distanceSquared)
+	{
+		for(int i = 0; i < effects.length; i++)
+			if(areaEffects[i] != null)
+				areaEffects[i].affect(source, target, distanceSquared);
+			else
+				effects[i].affect(source, target);
+	}
+
+	/*************************************************************************
+	 * Learns whether or not another object is an EffectChain with equal
+	 * Effects, in the same order.
+	 * 
+	 * @param object
+	 * 			  The object to compare to.
+	 * 
+	 * @return True if the chains are equal.
+	 ***************************************************************/ @Override
+	public boolean equals(Object object)
+	{
+		return object instanceof EffectChain &&
+				Arrays.equals(effects, ((EffectChain) object).effects);
+	}
+
+	/*************************************************************************
+	 * Hashes the EffectChain by its Effects.
+	 * 
+	 * @return The hash code.
+	 ***************************************************************/ @Override
+	public int hashCode() { return hash; }
+}
\ No newline at end of file
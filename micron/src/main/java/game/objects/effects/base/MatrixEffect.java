@@ -1,9 +1,8 @@
 package game.objects.effects.base;
 
-import org.jrabbit.base.data.structures.LockingList;
-
 import game.objects.entities.base.MatrixEntity;
 import game.objects.sprite.MatrixSprite;
+import game.world.EntityConsumer;
 
 /*****************************************************************************
  * A MatrixEffect is the counterpart of a MatrixEntity. MatrixEntities are game 
@@ -14,56 +13,110 @@ import game.objects.sprite.MatrixSprite;
  * effect, which is aimed at its target; only when the projectile collides with
  * its target will the other MatrixEntity be damaged.
  * 
+ * What a MatrixEffect does on contact is decided by its EffectChain, which is
+ * usually shared with every other MatrixEffect fired by the same weapon. The
+ * only per-hit state a MatrixEffect keeps is how many times it has hit.
+ * 
+ * An area MatrixEffect, such as an Explosion or an aura, affects everything
+ * that reaches within its areaRadius(). Rather than testing its geometry 
+ * against each MatrixEntity, the Matrix finds its targets with a radial 
+ * query, and hands it each one along with its squared distance.
+ * 
  * @author Chris Molini
  *****************************************************************************/
-public abstract class MatrixEffect extends MatrixSprite
+public abstract class MatrixEffect extends MatrixSprite implements 
+		EntityConsumer
 {
 	/**
-	 * The List of effects that will be performed when this MatrixEffect acts
-	 * upon a MatrixEntity.
+	 * The Effects that will be performed when this MatrixEffect acts upon a
+	 * MatrixEntity.
+	 **/
+	protected EffectChain effects;
+
+	/**
+	 * The number of times the MatrixEffect has hit something.
+	 **/
+	protected int hits;
+
+	/**
+	 * Whether or not the MatrixEffect affects everything within its area
+	 * radius.
 	 **/
-	protected LockingList<Effect> effects;
+	protected boolean area;
 	
 	/*************************************************************************
-	 * Creates a MatrixEffect with an empty list of effects to apply.
+	 * Creates a MatrixEffect with no effects to apply.
 	 *************************************************************************/
 	public MatrixEffect()
 	{
-		effects = new LockingList<Effect>();
+		effects = EffectChain.EMPTY;
 	}
 
 	/*************************************************************************
-	 * Adds the indicated Effect to this MatrixEffect.
+	 * Accesses the Effects of this MatrixEffect.
+	 * 
+	 * @return The EffectChain performed on contact.
+	 *************************************************************************/
+	public EffectChain effects() { return effects; }
+
+	/*************************************************************************
+	 * Redefines the Effects of this MatrixEffect.
 	 * 
-	 * @param effect
-	 * 			  The Effect to add.
+	 * @param effects
+	 * 			  The EffectChain to perform on contact.
 	 *************************************************************************/
-	public void addEffect(Effect effect)
+	public void setEffects(EffectChain effects)
 	{
-		effects.add(effect);
+		this.effects = effects;
 	}
 
 	/*************************************************************************
-	 * Adds the indicated series of Effects to this MatrixEffect.
+	 * Records that the MatrixEffect has hit something.
 	 * 
-	 * @param effects
-	 * 			  The Effects to add.
+	 * @return The number of hits so far, including this one.
 	 *************************************************************************/
-	public void addEffects(Effect... effects)
+	public int countHit() { return ++hits; }
+
+	/*************************************************************************
+	 * Learns whether or not this is an area MatrixEffect.
+	 * 
+	 * @return True if the MatrixEffect affects everything within its area
+	 * 		   radius, false if it only affects what its geometry collides 
+	 * 		   with.
+	 *************************************************************************/
+	public boolean isArea() { return area; }
+
+	/*************************************************************************
+	 * Redefines whether or not this is an area MatrixEffect.
+	 * 
+	 * @param area
+	 * 			  Whether or not the MatrixEffect should affect everything 
+	 * 			  within its area radius.
+	 *************************************************************************/
+	public void setArea(boolean area)
 	{
-		for(Effect effect : effects)
-			addEffect(effect);
+		this.area = area;
 	}
 
 	/*************************************************************************
-	 * Removes the indicated Effect from this MatrixEffect.
+	 * Learns how far an area MatrixEffect reaches. This is half its scaled 
+	 * width - the circle inscribed in its image, which is also the distance
+	 * its DistancedDoTEffects and DistancedHoTEffects fall off to. Its 
+	 * bounding circle can be wider, since it has to contain every corner of its
+	 * Geometry.
 	 * 
-	 * @param effect
-	 * 			  The Effect to remove.
+	 * @return The radius of the area the MatrixEffect affects.
 	 *************************************************************************/
-	public void removeEffect(Effect effect)
+	public float areaRadius() { return scaledWidth() / 2; }
+
+	/*************************************************************************
+	 * In addition to coming to a standstill, the MatrixEffect forgets how 
+	 * many times it has hit.
+	 ***************************************************************/ @Override
+	public void recycle()
 	{
-		effects.remove(effect);
+		super.recycle();
+		hits = 0;
 	}
 
 	/*************************************************************************
@@ -78,6 +131,21 @@ public abstract class MatrixEffect extends MatrixSprite
 			affect(entity);
 	}
 
+	/*************************************************************************
+	 * Affects a MatrixEntity found within the bounding circle of an area 
+	 * MatrixEffect, if it is hostile.
+	 * 
+	 * @param entity
+	 * 			  The MatrixEntity that was found.
+	 * @param distanceSquared
+	 * 			  The squared distance to the MatrixEntity.
+	 ***************************************************************/ @Override
+	public void accept(MatrixEntity entity, float distanceSquared)
+	{
+		if(isHostileTo(entity) || entity.isHostileTo(this))
+			effects.affect(this, entity, distanceSquared);
+	}
+
 	/*************************************************************************
 	 * Returns whether or not the Entity should be affected by this Effect.
 	 * 
@@ -100,8 +168,6 @@ public abstract class MatrixEffect extends MatrixSprite
 	 *************************************************************************/
 	protected void affect(MatrixEntity entity)
 	{
-		for(Effect effect : effects)
-			effect.affect(this, entity);
-		effects.unlock();
+		effects.affect(this, entity);
 	}
 }
\ No newline at end of file
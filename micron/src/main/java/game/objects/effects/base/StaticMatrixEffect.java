@@ -26,6 +26,7 @@ public class StaticMatrixEffect extends MatrixEffect implements DynamicSkinned
 	public StaticMatrixEffect(String imageReference)
 	{
 		this(new ImageSkin(imageReference));
+		setBatchImage(imageReference);
 	}
 
 	/*************************************************************************
@@ -48,7 +49,8 @@ public class StaticMatrixEffect extends MatrixEffect implements DynamicSkinned
 	public Skin skin() { return skin; }
 
 	/*************************************************************************
-	 * Redefines the active Skin.
+	 * Redefines the active Skin. Since the new Skin may not simply draw an 
+	 * Image, the sprite stops being batched and renders itself.
 	 * 
 	 * @param skin
 	 * 			  The skin to use for rendering.
@@ -56,6 +58,7 @@ public class StaticMatrixEffect extends MatrixEffect implements DynamicSkinned
 	public void setSkin(Skin skin)
 	{
 		this.skin = skin;
+		batchImage = null;
 	}
 
 	/*************************************************************************
@@ -62,4 +62,30 @@ public class DamageEffect implements Effect
 		if(target.damage(damage) && addPoints && source.matrix() != null)
 			source.matrix().addPoints(target.points());
 	}
+
+	/*************************************************************************
+	 * Learns whether or not another object is a DamageEffect with the same 
+	 * damage and scoring.
+	 * 
+	 * @param object
+	 * 			  The object to compare to.
+	 * 
+	 * @return True if the DamageEffects are equal.
+	 ***************************************************************/ @Override
+	public boolean equals(Object object)
+	{
+		return object instanceof DamageEffect && 
+				((DamageEffect) object).damage == damage &&
+				((DamageEffect) object).addPoints == addPoints;
+	}
+
+	/*************************************************************************
+	 * Hashes the DamageEffect by its damage and scoring.
+	 * 
+	 * @return The hash code.
+	 ***************************************************************/ @Override
+	public int hashCode()
+	{
+		return Float.floatToIntBits(damage) * 2 + (addPoints ? 1 : 0);
+	}
 }
\ No newline at end of file
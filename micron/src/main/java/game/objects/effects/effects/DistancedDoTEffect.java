@@ -1,21 +1,28 @@
 package game.objects.effects.effects;
 
+import game.objects.effects.base.AreaEffect;
 import game.objects.effects.base.MatrixEffect;
 import game.objects.entities.base.MatrixEntity;
 
 /*****************************************************************************
  * DistancedDoTEffect extends DoTEffect to make the damage inflicted diminish 
- * the further away the target is.
+ * the further away the target is. Targets are rejected by their squared
+ * distance, so only those in range need a square root.
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class DistancedDoTEffect extends DoTEffect
+public class DistancedDoTEffect extends DoTEffect implements AreaEffect
 {
 	/**
 	 * The distance at which 0 damage is dealt.
 	 **/
 	protected float radius;
 
+	/**
+	 * The square of the radius.
+	 **/
+	protected float radiusSquared;
+
 	/*************************************************************************
 	 * Creates a DistancedDoTEffect.
 	 * 
@@ -44,6 +51,7 @@ public class DistancedDoTEffect extends DoTEffect
 	{
 		super(damageRate, addPoints);
 		this.radius = radius;
+		radiusSquared = radius * radius;
 	}
 
 	/*************************************************************************
@@ -58,10 +66,31 @@ public class DistancedDoTEffect extends DoTEffect
 	 ***************************************************************/ @Override
 	public void affect(MatrixEffect source, MatrixEntity target)
 	{
-		float dist = source.location().distanceTo(target.location());
-		if((dist /= radius) < 1f)
-			if(target.damage((1f - dist) * damageThisUpdate) && addPoints && 
-					source.matrix() != null)
-				source.matrix().addPoints(target.points());
+		float dx = target.location().x() - source.location().x();
+		float dy = target.location().y() - source.location().y();
+		affect(source, target, dx * dx + dy * dy);
+	}
+
+	/*************************************************************************
+	 * Damages the target based upon the dps and its squared distance. If the
+	 * target is killed, this adds points if necessary.
+	 * 
+	 * @param source
+	 * 			  The MatrixEffect that is the source of this Effect.
+	 * @param target
+	 * 			  The MatrixEntity on the receiving end of this MatrixEffect's
+	 * 			  Effects.
+	 * @param distanceSquared
+	 * 			  The squared distance between the source and the target.
+	 ***************************************************************/ @Override
+	public void affect(MatrixEffect source, MatrixEntity target, 
+			float distanceSquared)
+	{
+		if(distanceSquared >= radiusSquared)
+			return;
+		float dist = (float) Math.sqrt(distanceSquared) / radius;
+		if(target.damage((1f - dist) * damageThisUpdate) && addPoints && 
+				source.matrix() != null)
+			source.matrix().addPoints(target.points());
 	}
 }
\ No newline at end of file
@@ -1,21 +1,28 @@
 package game.objects.effects.effects;
 
+import game.objects.effects.base.AreaEffect;
 import game.objects.effects.base.MatrixEffect;
 import game.objects.entities.base.MatrixEntity;
 
 /*****************************************************************************
  * DistancedHoTEffect extends HoTEffect to make the healing performed diminish 
- * the further away the target is.
+ * the further away the target is. Targets are rejected by their squared
+ * distance, so only those in range need a square root.
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class DistancedHoTEffect extends HoTEffect
+public class DistancedHoTEffect extends HoTEffect implements AreaEffect
 {
 	/**
 	 * The distance at which 0 healing is performed.
 	 **/
 	protected float radius;
 
+	/**
+	 * The square of the radius.
+	 **/
+	protected float radiusSquared;
+
 	/*************************************************************************
 	 * Creates a DistancedHoTEffect.
 	 * 
@@ -28,11 +35,11 @@ public class DistancedHoTEffect extends HoTEffect
 	{
 		super(healRate);
 		this.radius = radius;
+		radiusSquared = radius * radius;
 	}
 
 	/*************************************************************************
-	 * Damages the target based upon the dps and distance. If the target is 
-	 * killed, this adds points if necessary.
+	 * Heals the target based upon the healing rate and distance.
 	 * 
 	 * @param source
 	 * 			  The MatrixEffect that is the source of this Effect.
@@ -42,8 +49,27 @@ public class DistancedHoTEffect extends HoTEffect
 	 ***************************************************************/ @Override
 	public void affect(MatrixEffect source, MatrixEntity target)
 	{
-		float dist = source.location().distanceTo(target.location());
-		if(dist < radius)
-			target.heal((1f - (dist / radius)) * healingThisUpdate);
+		float dx = target.location().x() - source.location().x();
+		float dy = target.location().y() - source.location().y();
+		affect(source, target, dx * dx + dy * dy);
+	}
+
+	/*************************************************************************
+	 * Heals the target based upon the healing rate and its squared distance.
+	 * 
+	 * @param source
+	 * 			  The MatrixEffect that is the source of this Effect.
+	 * @param target
+	 * 			  The MatrixEntity on the receiving end of this MatrixEffect's
+	 * 			  Effects.
+	 * @param distanceSquared
+	 * 			  The squared distance between the source and the target.
+	 ***************************************************************/ @Override
+	public void affect(MatrixEffect source, MatrixEntity target, 
+			float distanceSquared)
+	{
+		if(distanceSquared < radiusSquared)
+			target.heal((1f - (float) Math.sqrt(distanceSquared) / radius) * 
+					healingThisUpdate);
 	}
 }
\ No newline at end of file
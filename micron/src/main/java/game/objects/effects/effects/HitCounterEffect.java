@@ -8,14 +8,17 @@ import game.objects.entities.base.MatrixEntity;
  * A HitCounterEffect is used to limit the number of "hits" that a MatrixEffect
  * can perform. Once it performs more than the maximum limit, it is killed.
  * 
+ * The hits are counted by the MatrixEffect itself, so one HitCounterEffect
+ * can be shared by many MatrixEffects.
+ * 
  * @author Chris Molini
  *****************************************************************************/
 public class HitCounterEffect implements Effect
 {
 	/**
-	 * The remaining number of allowed hits.
+	 * The number of allowed hits.
 	 **/
-	protected int hitsLeft;
+	protected int maxHits;
 
 	/*************************************************************************
 	 * Creates a HitCounterEffect.
@@ -25,7 +28,7 @@ public class HitCounterEffect implements Effect
 	 *************************************************************************/
 	public HitCounterEffect(int maxHits)
 	{
-		hitsLeft = maxHits;
+		this.maxHits = maxHits;
 	}
 
 	/*************************************************************************
@@ -40,7 +43,29 @@ public class HitCounterEffect implements Effect
 	 ***************************************************************/ @Override
 	public void affect(MatrixEffect source, MatrixEntity target)
 	{
-		if(hitsLeft-- <= 0)
+		if(source.countHit() > maxHits)
 			source.kill();
 	}
+
+	/*************************************************************************
+	 * Learns whether or not another object is a HitCounterEffect with the same 
+	 * limit.
+	 * 
+	 * @param object
+	 * 			  The object to compare to.
+	 * 
+	 * @return True if the HitCounterEffects are equal.
+	 ***************************************************************/ @Override
+	public boolean equals(Object object)
+	{
+		return object instanceof HitCounterEffect && 
+				((HitCounterEffect) object).maxHits == maxHits;
+	}
+
+	/*************************************************************************
+	 * Hashes the HitCounterEffect by its limit.
+	 * 
+	 * @return The hash code.
+	 ***************************************************************/ @Override
+	public int hashCode() { return maxHits; }
 }
\ No newline at end of file
@@ -41,4 +41,25 @@ public class PushEffect implements Effect
 	{
 		target.force().add(source.velocity(), force / source.velocity().magnitude());
 	}
+
+	/*************************************************************************
+	 * Learns whether or not another object is a PushEffect with the same force.
+	 * 
+	 * @param object
+	 * 			  The object to compare to.
+	 * 
+	 * @return True if the PushEffects are equal.
+	 ***************************************************************/ @Override
+	public boolean equals(Object object)
+	{
+		return object instanceof PushEffect && 
+				((PushEffect) object).force == force;
+	}
+
+	/*************************************************************************
+	 * Hashes the PushEffect by its force.
+	 * 
+	 * @return The hash code.
+	 ***************************************************************/ @Override
+	public int hashCode() { return Float.floatToIntBits(force); }
 }
\ No newline at end of file
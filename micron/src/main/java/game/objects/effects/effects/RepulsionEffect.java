@@ -1,5 +1,6 @@
 package game.objects.effects.effects;
 
+import game.objects.controllers.Steering;
 import game.objects.effects.base.Effect;
 import game.objects.effects.base.MatrixEffect;
 import game.objects.entities.base.MatrixEntity;
@@ -39,7 +40,7 @@ public class RepulsionEffect implements Effect
 	 ***************************************************************/ @Override
 	public void affect(MatrixEffect source, MatrixEntity target)
 	{
-		target.force().add(source.location().unitVectorTowards(target.location()),
-				force);
+		Steering.addTowards(target.force(), source.location(), 
+				target.location(), force);
 	}
 }
\ No newline at end of file
@@ -25,4 +25,25 @@ public class SingleHitEffect implements Effect
 	{
 		source.kill();
 	}
+
+	/*************************************************************************
+	 * Learns whether or not another object is also a SingleHitEffect. All 
+	 * SingleHitEffects behave the same way.
+	 * 
+	 * @param object
+	 * 			  The object to compare to.
+	 * 
+	 * @return True if the SingleHitEffects are equal.
+	 ***************************************************************/ @Override
+	public boolean equals(Object object)
+	{
+		return object instanceof SingleHitEffect;
+	}
+
+	/*************************************************************************
+	 * Hashes the SingleHitEffect.
+	 * 
+	 * @return The hash code.
+	 ***************************************************************/ @Override
+	public int hashCode() { return SingleHitEffect.class.hashCode(); }
 }
\ No newline at end of file
@@ -1,19 +1,19 @@
 package game.objects.effects.projectiles;
 
-import org.jrabbit.base.graphics.skins.animation.AnimationFactory;
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.graphics.transforms.Rotation;
 import org.jrabbit.base.math.vector.BaseVector2f;
-import org.jrabbit.standard.game.objects.base.BaseSprite;
 
 import game.objects.controllers.life.LifetimeController;
-import game.objects.death.DeathSpawnEffect;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.base.StaticMatrixEffect;
 import game.objects.effects.effects.DamageEffect;
 import game.objects.effects.effects.PushEffect;
 import game.objects.effects.effects.SingleHitEffect;
 import game.objects.sprite.MatrixSprite;
-import game.visual.anim.SingleCycleMatrixAnimation;
+import game.visual.anim.BurstAnimation;
+import game.world.Pool;
+import game.world.Poolable;
 
 /*****************************************************************************
  * Bullet provides a convenience class for simple damaging projectiles.
@@ -22,10 +22,50 @@ import game.visual.anim.SingleCycleMatrixAnimation;
  * constructors, and I realize it's a bad design decision, but it works and I
  * wanted to finish this game up.
  * 
+ * Bullets are fired far too often to be thrown away after each shot, so most
+ * are acquired from the ProjectilePools of a Matrix and reset, rather than 
+ * created. A Bullet keeps its LifetimeController from one shot to the next, 
+ * and is handed back to its Pool once it is taken out of the Matrix. What it
+ * does on contact is an EffectChain shared by every Bullet from the same 
+ * weapon; see effects().
+ * 
  * @author Chris Molini
  *****************************************************************************/
-public class Bullet extends StaticMatrixEffect
+public class Bullet extends StaticMatrixEffect implements Poolable
 {
+	/**
+	 * The Pool the Bullet is returned to, or null if it wasn't acquired from
+	 * one.
+	 **/
+	protected Pool<Bullet> pool;
+
+	/**
+	 * Whether or not the Bullet is waiting in its Pool.
+	 **/
+	protected boolean free;
+
+	/**
+	 * Kills the Bullet once its lifetime runs out.
+	 **/
+	protected LifetimeController lifetimeController;
+
+	/*************************************************************************
+	 * Creates a Bullet that belongs to a Pool. It must be reset before it is
+	 * added to a Matrix.
+	 * 
+	 * @param pool
+	 * 			  The Pool the Bullet is returned to.
+	 *************************************************************************/
+	public Bullet(Pool<Bullet> pool)
+	{
+		super("Bullet");
+		this.pool = pool;
+		setGeometry(new float[][] { { 8, 0 }, { -8, 4 }, { -8, -4 } });
+		setLayer("Projectiles");
+		setMaxSpeed(1);
+		addController(lifetimeController = new LifetimeController(this, 0));
+	}
+
 	/*************************************************************************
 	 * Creates a Bullet.
 	 * 
@@ -157,32 +197,104 @@ public class Bullet extends StaticMatrixEffect
 			color, float damage, float force, float speed, int lifetime, 
 			float scaleX, float scaleY, boolean addPoints, boolean addVelocity)
 	{
-		super("Bullet");
-		setGeometry(new float[][] { { 8, 0 }, { -8, 4 }, { -8, -4 } });
-		setLayer("Projectiles");
+		this((Pool<Bullet>) null);
+		reset(source, location, rotation, color, effects(damage, force, 
+				addPoints), speed, lifetime, scaleX, scaleY, addVelocity);
+	}
+
+	/*************************************************************************
+	 * Accesses the shared EffectChain of a Bullet that pushes and damages the
+	 * first thing it hits, and then dies. Weapons should look this up once, 
+	 * rather than every time they fire.
+	 * 
+	 * @param damage
+	 * 			  The damage for the Bullet to inflict.
+	 * @param force
+	 * 			  The force with which the Bullet will push enemies.
+	 * @param addPoints
+	 * 			  Whether or not the Bullet should add points when it kills a 
+	 * 			  target. 
+	 * 
+	 * @return The interned EffectChain.
+	 *************************************************************************/
+	public static EffectChain effects(float damage, float force, 
+			boolean addPoints)
+	{
+		return EffectChain.of(	new PushEffect(force),
+								new DamageEffect(damage, addPoints),
+								new SingleHitEffect());
+	}
+
+	/*************************************************************************
+	 * Prepares the Bullet to be fired, as if it had just been created.
+	 * 
+	 * @param source
+	 * 			  The MatrixSprite that is the source of this Bullet. Faction
+	 * 			  information is copied from this sprite.
+	 * @param location
+	 * 			  The Vector2f from which the Bullet is being fired.
+	 * @param rotation
+	 * 			  The angle at which the Bullet is being fired.
+	 * @param color
+	 * 			  The Color of the Bullet.
+	 * @param effects
+	 * 			  What the Bullet does to whatever it hits.
+	 * @param speed
+	 * 			  The velocity of the Bullet.
+	 * @param lifetime
+	 * 			  The duration, in microseconds, of the Bullet's lifetime. 
+	 * @param scaleX
+	 * 			  The x scaling of the bullet. 
+	 * @param scaleY
+	 * 			  The y scaling of the bullet.
+	 * @param addVelocity
+	 * 			  Whether or not the Bullet should add the velocity of the 
+	 * 			  source to its own. 
+	 *************************************************************************/
+	public void reset(MatrixSprite source, BaseVector2f location, 
+			Rotation rotation, Color color, EffectChain effects, float speed, 
+			int lifetime, float scaleX, float scaleY, boolean addVelocity)
+	{
+		recycle();
+		free = false;
 		this.location.set(location);
 		this.rotation.set(rotation);
 		scalar.setScale(scaleX, scaleY);
 		this.location.addPolar(scaledWidth() / 2, rotation.theta());
-		setMaxSpeed(1);
 		if(addVelocity)
 			velocity.set(source.velocity());
 		velocity.addPolar(speed, rotation.theta());
 		this.color.set(color);
 		setFaction(source.faction());
 		setFactionRatings(source.factionRatings());
-		addEffects(	new PushEffect(force),
-					new DamageEffect(damage, addPoints),
-					new SingleHitEffect());
-		addController(new LifetimeController(this, lifetime));
-		BaseSprite burst = new SingleCycleMatrixAnimation(
-				AnimationFactory.createLoop("Burst 1",
-											"Burst 2",
-											"Burst 3",
-											"Burst 4",
-											"Burst 5"), source.matrix());
-		burst.scalar().setScale(4f);
-		burst.color().set(color);
-		addDeathEffects(new DeathSpawnEffect(burst, "Projectiles"));
+		setEffects(effects);
+		lifetimeController.setLifetime(lifetime);
+	}
+
+	/*************************************************************************
+	 * In addition to normal death effects, a Bullet leaves a burst behind 
+	 * when it dies, unless the Matrix is skipping cosmetic animations.
+	 ***************************************************************/ @Override
+	protected void onDeath()
+	{
+		super.onDeath();
+		if(matrix != null && matrix.quality().cosmetics())
+		{
+			BurstAnimation burst = matrix.projectiles().burst(color);
+			burst.location().set(location);
+			burst.rotation().set(rotation);
+			matrix.add("Projectiles", burst);
+		}
+	}
+
+	/*************************************************************************
+	 * Returns the Bullet to its Pool, if it has one.
+	 ***************************************************************/ @Override
+	public void release()
+	{
+		if(pool == null || free)
+			return;
+		free = true;
+		pool.release(this);
 	}
 }
\ No newline at end of file
@@ -1,13 +1,12 @@
 package game.objects.effects.projectiles;
 
-import static org.jrabbit.base.managers.Resources.random;
-
 import org.jrabbit.base.graphics.skins.animation.AnimationFactory;
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.math.vector.BaseVector2f;
 
 import game.objects.controllers.rotation.RotatingController;
 import game.objects.effects.base.AnimatedMatrixEffect;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.effects.DistancedDoTEffect;
 import game.objects.effects.effects.RepulsionEffect;
 import game.objects.sprite.MatrixSprite;
@@ -84,13 +83,15 @@ public class Explosion extends AnimatedMatrixEffect
 									{ -32, 0 }, { -24, 24 },
 									{ 0, 32 },	{ 24, 24 } });
 		setLayer("Projectiles");
+		setArea(true);
 		scalar.setScale(scale);
 		this.color.set(color);
 		rotation.set(random().nextFloat() * 360);
 		this.location.set(location);
 		DistancedDoTEffect doT;
-		addEffects(new RepulsionEffect(force), doT = new DistancedDoTEffect(
-				damageRate, scaledWidth() / 2f, addPoints));
+		setEffects(new EffectChain(new RepulsionEffect(force), 
+				doT = new DistancedDoTEffect(damageRate, scaledWidth() / 2f, 
+				addPoints)));
 		addControllers(new RotatingController(this, 0.009f), doT);
 	}
 
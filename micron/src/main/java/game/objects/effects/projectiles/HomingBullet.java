@@ -6,15 +6,17 @@ import org.jrabbit.base.graphics.transforms.Rotation;
 import org.jrabbit.base.graphics.transforms.Vector2f;
 import org.jrabbit.base.math.vector.BaseVector2f;
 
+import game.objects.controllers.Controller;
 import game.objects.controllers.life.LifetimeController;
 import game.objects.controllers.movement.PropellingController;
 import game.objects.controllers.rotation.InputRotationController;
 import game.objects.controllers.rotation.RotateTowardsController;
+import game.objects.death.DeathEffect;
 import game.objects.effects.base.AnimatedMatrixEffect;
-import game.objects.effects.effects.DamageEffect;
-import game.objects.effects.effects.PushEffect;
-import game.objects.effects.effects.SingleHitEffect;
+import game.objects.effects.base.EffectChain;
 import game.objects.sprite.MatrixSprite;
+import game.world.Pool;
+import game.world.Poolable;
 
 /*****************************************************************************
  * A HomingBullet is similar to a Bullet, but it will attempt to "home in" on
@@ -24,10 +26,76 @@ import game.objects.sprite.MatrixSprite;
  * constructors, and I realize it's a bad design decision, but it works and I
  * wanted to finish this game up.
  * 
+ * Like Bullets, HomingBullets are usually acquired from the ProjectilePools of
+ * a Matrix and reset, keeping their Controllers between shots. They use the
+ * same shared EffectChains as Bullets.
+ * 
  * @author Chris Molini
  *****************************************************************************/
-public class HomingBullet extends AnimatedMatrixEffect
+public class HomingBullet extends AnimatedMatrixEffect implements Poolable
 {
+	/**
+	 * The Pool the HomingBullet is returned to, or null if it wasn't acquired
+	 * from one.
+	 **/
+	protected Pool<HomingBullet> pool;
+
+	/**
+	 * Whether or not the HomingBullet is waiting in its Pool.
+	 **/
+	protected boolean free;
+
+	/**
+	 * Kills the HomingBullet once its lifetime runs out.
+	 **/
+	protected LifetimeController lifetimeController;
+
+	/**
+	 * Pushes the HomingBullet forward.
+	 **/
+	protected PropellingController propeller;
+
+	/**
+	 * Steers the HomingBullet when it is controlled by the player.
+	 **/
+	protected InputRotationController inputSteering;
+
+	/**
+	 * Steers the HomingBullet when it is tracking a target.
+	 **/
+	protected RotateTowardsController targetSteering;
+
+	/**
+	 * Whichever of the steering Controllers is currently in use.
+	 **/
+	protected Controller steering;
+
+	/**
+	 * The DeathEffects the HomingBullet was given for its current shot.
+	 **/
+	protected DeathEffect[] shotDeathEffects;
+
+	/*************************************************************************
+	 * Creates a HomingBullet that belongs to a Pool. It must be reset before
+	 * it is added to a Matrix.
+	 * 
+	 * @param skin
+	 * 			  The AnimatedSkin to use to animated to HomingBullet.
+	 * @param pool
+	 * 			  The Pool the HomingBullet is returned to.
+	 *************************************************************************/
+	public HomingBullet(AnimatedSkin skin, Pool<HomingBullet> pool)
+	{
+		super(skin);
+		this.pool = pool;
+		setGeometry(new float[][] { { 8, 0 }, { -8, 4 }, { -8, -4 } });
+		setLayer("Projectiles");
+		scalar.setScale(4);
+		addControllers(	lifetimeController = new LifetimeController(this, 0),
+						propeller = new PropellingController(this, 0));
+		shotDeathEffects = new DeathEffect[0];
+	}
+
 	/*************************************************************************
 	 * Creates a HomingBullet.
 	 * 
@@ -66,24 +134,96 @@ public class HomingBullet extends AnimatedMatrixEffect
 			float turnSpeed, float thrust, float maxSpeed, int lifetime,
 			float damage, float force, boolean playerControlled)
 	{
-		super(skin);
+		this(skin, null);
+		reset(source, location, rotation, color, target, turnSpeed, thrust, 
+				maxSpeed, lifetime, Bullet.effects(damage, force, 
+				playerControlled), playerControlled);
+	}
+
+	/*************************************************************************
+	 * Prepares the HomingBullet to be fired, as if it had just been created.
+	 * 
+	 * @param source
+	 * 			  The MatrixSprite that is firing this HomingBullet.
+	 * @param location
+	 * 			  The Vector2f from which the HomingBullet is being fired.
+	 * @param rotation
+	 * 			  The angle at which the HomingBullet is being fired.
+	 * @param color
+	 * 			  The Color of the HomingBullet.
+	 * @param target
+	 * 			  The target Vector2f to track.
+	 * @param turnSpeed
+	 * 			  The rate at which the HomingBullet can turn towards its 
+	 * 			  target. The higher the value, the better it will home.
+	 * @param thrust
+	 * 			  The force with which the HomingBullet will accelerate itself.
+	 * @param maxSpeed
+	 * 			  The maximum speed of the HomingBullet.
+	 * @param lifetime
+	 * 			  The duration, in microseconds, of the HomingBullet's lifetime.
+	 * @param effects
+	 * 			  What the HomingBullet does to whatever it hits.
+	 * @param playerControlled
+	 * 			  Whether or not the HomingBullet should be controlled by the 
+	 * 			  player.
+	 * @param deathEffects
+	 * 			  The DeathEffects to use for this shot, replacing those from 
+	 * 			  the last one.
+	 *************************************************************************/
+	public void reset(MatrixSprite source, BaseVector2f location, 
+			Rotation rotation, Color color, Vector2f target, float turnSpeed, 
+			float thrust, float maxSpeed, int lifetime, EffectChain effects, 
+			boolean playerControlled, DeathEffect... deathEffects)
+	{
+		recycle();
+		free = false;
 		setFaction(source.faction());
 		setFactionRatings(source.factionRatings());
-		setGeometry(new float[][] { { 8, 0 }, { -8, 4 }, { -8, -4 } });
-		setLayer("Projectiles");
 		this.location.set(location);
 		this.rotation.set(rotation);
-		scalar.setScale(4);
 		this.location.addPolar(scaledWidth() / 2, rotation.theta());
 		setMaxSpeed(maxSpeed);
 		velocity.set(source.velocity());
 		this.color.set(color);
-		addEffects(	new PushEffect(force),
-					new DamageEffect(damage, playerControlled),
-					new SingleHitEffect());
-		addControllers(	new LifetimeController(this, lifetime),
-						playerControlled ?new InputRotationController(this, turnSpeed)
-							: new RotateTowardsController(this, target, turnSpeed),
-						new PropellingController(this, thrust));
+		setEffects(effects);
+		lifetimeController.setLifetime(lifetime);
+		propeller.setThrust(thrust);
+		Controller steer;
+		if(playerControlled)
+		{
+			if(inputSteering == null)
+				inputSteering = new InputRotationController(this, turnSpeed);
+			inputSteering.setRotationSpeed(turnSpeed);
+			steer = inputSteering;
+		}
+		else
+		{
+			if(targetSteering == null)
+				targetSteering = new RotateTowardsController(this, target, 
+						turnSpeed);
+			targetSteering.aimAt(target, turnSpeed);
+			steer = targetSteering;
+		}
+		if(steer != steering)
+		{
+			if(steering != null)
+				removeController(steering);
+			addController(steering = steer);
+		}
+		for(DeathEffect deathEffect : shotDeathEffects)
+			removeDeathEffect(deathEffect);
+		addDeathEffects(shotDeathEffects = deathEffects);
+	}
+
+	/*************************************************************************
+	 * Returns the HomingBullet to its Pool, if it has one.
+	 ***************************************************************/ @Override
+	public void release()
+	{
+		if(pool == null || free)
+			return;
+		free = true;
+		pool.release(this);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,279 @@
+package game.objects.effects.projectiles;
+
+import org.jrabbit.base.graphics.skins.animation.AnimationFactory;
+import org.jrabbit.base.graphics.transforms.Color;
+import org.jrabbit.base.graphics.transforms.Rotation;
+import org.jrabbit.base.graphics.transforms.Vector2f;
+import org.jrabbit.base.math.vector.BaseVector2f;
+
+import game.objects.death.DeathEffect;
+import game.objects.effects.base.EffectChain;
+import game.objects.sprite.MatrixSprite;
+import game.visual.anim.BurstAnimation;
+import game.world.Matrix;
+import game.world.Pool;
+
+/*****************************************************************************
+ * ProjectilePools holds the Pools that a Matrix recycles its projectiles
+ * through: Bullets, HomingBullets, and the BurstAnimations that Bullets leave
+ * behind when they die. Weapons should fire projectiles acquired from here
+ * rather than creating new ones; once a projectile is killed or culled, the
+ * Matrix hands it back to its Pool.
+ * 
+ * The capacity of each Pool can be changed through its accessor, and each
+ * Pool counts how many objects it has had to create.
+ *****************************************************************************/
+public class ProjectilePools
+{
+	/**
+	 * The default number of spare Bullets to hold onto.
+	 **/
+	public static final int BULLET_CAPACITY = 256;
+
+	/**
+	 * The default number of spare HomingBullets to hold onto.
+	 **/
+	public static final int MISSILE_CAPACITY = 32;
+
+	/**
+	 * The default number of spare BurstAnimations to hold onto.
+	 **/
+	public static final int BURST_CAPACITY = 128;
+
+	/**
+	 * The Matrix the projectiles are fired into.
+	 **/
+	protected Matrix matrix;
+
+	/**
+	 * The Pool of Bullets.
+	 **/
+	protected Pool<Bullet> bullets;
+
+	/**
+	 * The Pool of HomingBullets.
+	 **/
+	protected Pool<HomingBullet> missiles;
+
+	/**
+	 * The Pool of the BurstAnimations Bullets leave when they die.
+	 **/
+	protected Pool<BurstAnimation> bursts;
+
+	/*************************************************************************
+	 * Creates empty ProjectilePools, with the default capacities.
+	 * 
+	 * @param matrix
+	 * 			  The Matrix the projectiles will be fired into.
+	 *************************************************************************/
+	public ProjectilePools(Matrix matrix)
+	{
+		this.matrix = matrix;
+		bullets = new Pool<Bullet>(BULLET_CAPACITY) {
+			protected Bullet create()
+			{
+				return new Bullet(this);
+			}};
+		missiles = new Pool<HomingBullet>(MISSILE_CAPACITY) {
+			protected HomingBullet create()
+			{
+				return new HomingBullet(AnimationFactory.createLoop(
+						"Missile 1", "Missile 2", "Missile 3"), this);
+			}};
+		bursts = new Pool<BurstAnimation>(BURST_CAPACITY) {
+			protected BurstAnimation create()
+			{
+				BurstAnimation burst = new BurstAnimation(
+						AnimationFactory.createLoop("Burst 1",
+													"Burst 2",
+													"Burst 3",
+													"Burst 4",
+													"Burst 5"), this);
+				burst.scalar().setScale(4f);
+				return burst;
+			}};
+	}
+
+	/*************************************************************************
+	 * Acquires a Bullet, ready to be added to the Matrix.
+	 * 
+	 * @param source
+	 * 			  The MatrixSprite that is the source of this Bullet. Faction
+	 * 			  information is copied from this sprite.
+	 * @param location
+	 * 			  The Vector2f from which the Bullet is being fired.
+	 * @param rotation
+	 * 			  The angle at which the Bullet is being fired.
+	 * @param color
+	 * 			  The Color of the Bullet.
+	 * @param effects
+	 * 			  What the Bullet does to whatever it hits.
+	 * @param speed
+	 * 			  The velocity of the Bullet.
+	 * @param lifetime
+	 * 			  The duration, in microseconds, of the Bullet's lifetime.
+	 * 
+	 * @return The Bullet.
+	 *************************************************************************/
+	public Bullet bullet(MatrixSprite source, BaseVector2f location,
+			Rotation rotation, Color color, EffectChain effects, float speed,
+			int lifetime)
+	{
+		return bullet(source, location, rotation, color, effects, speed,
+				lifetime, 4, 2, true);
+	}
+
+	/*************************************************************************
+	 * Acquires a Bullet, ready to be added to the Matrix.
+	 * 
+	 * @param source
+	 * 			  The MatrixSprite that is the source of this Bullet. Faction
+	 * 			  information is copied from this sprite.
+	 * @param location
+	 * 			  The Vector2f from which the Bullet is being fired.
+	 * @param rotation
+	 * 			  The angle at which the Bullet is being fired.
+	 * @param color
+	 * 			  The Color of the Bullet.
+	 * @param effects
+	 * 			  What the Bullet does to whatever it hits.
+	 * @param speed
+	 * 			  The velocity of the Bullet.
+	 * @param lifetime
+	 * 			  The duration, in microseconds, of the Bullet's lifetime.
+	 * @param scaleX
+	 * 			  The x scaling of the bullet.
+	 * @param scaleY
+	 * 			  The y scaling of the bullet.
+	 * @param addVelocity
+	 * 			  Whether or not the Bullet should add the velocity of the
+	 * 			  source to its own.
+	 * 
+	 * @return The Bullet.
+	 *************************************************************************/
+	public Bullet bullet(MatrixSprite source, BaseVector2f location,
+			Rotation rotation, Color color, EffectChain effects, float speed,
+			int lifetime, float scaleX, float scaleY, boolean addVelocity)
+	{
+		Bullet bullet = bullets.acquire();
+		bullet.reset(source, location, rotation, color, effects, speed,
+				lifetime, scaleX, scaleY, addVelocity);
+		return bullet;
+	}
+
+	/*************************************************************************
+	 * Acquires a HomingBullet, ready to be added to the Matrix.
+	 * 
+	 * @param source
+	 * 			  The MatrixSprite that is firing this HomingBullet.
+	 * @param location
+	 * 			  The Vector2f from which the HomingBullet is being fired.
+	 * @param rotation
+	 * 			  The angle at which the HomingBullet is being fired.
+	 * @param color
+	 * 			  The Color of the HomingBullet.
+	 * @param target
+	 * 			  The target Vector2f to track.
+	 * @param turnSpeed
+	 * 			  The rate at which the HomingBullet can turn towards its
+	 * 			  target.
+	 * @param thrust
+	 * 			  The force with which the HomingBullet will accelerate itself.
+	 * @param maxSpeed
+	 * 			  The maximum speed of the HomingBullet.
+	 * @param lifetime
+	 * 			  The duration, in microseconds, of the HomingBullet's lifetime.
+	 * @param effects
+	 * 			  What the HomingBullet does to whatever it hits.
+	 * @param playerControlled
+	 * 			  Whether or not the HomingBullet should be controlled by the
+	 * 			  player.
+	 * @param deathEffects
+	 * 			  The DeathEffects the HomingBullet should have this time
+	 * 			  around. These are shared between every HomingBullet they are
+	 * 			  given to, so they should not keep any state of their own.
+	 * 
+	 * @return The HomingBullet.
+	 *************************************************************************/
+	public HomingBullet missile(MatrixSprite source, BaseVector2f location,
+			Rotation rotation, Color color, Vector2f target, float turnSpeed,
+			float thrust, float maxSpeed, int lifetime, EffectChain effects,
+			boolean playerControlled, DeathEffect... deathEffects)
+	{
+		HomingBullet missile = missiles.acquire();
+		missile.reset(source, location, rotation, color, target, turnSpeed,
+				thrust, maxSpeed, lifetime, effects, playerControlled,
+				deathEffects);
+		return missile;
+	}
+
+	/*************************************************************************
+	 * Acquires a BurstAnimation, ready to be added to the Matrix.
+	 * 
+	 * @param color
+	 * 			  The Color to tint the BurstAnimation.
+	 * 
+	 * @return The BurstAnimation.
+	 *************************************************************************/
+	public BurstAnimation burst(Color color)
+	{
+		BurstAnimation burst = bursts.acquire();
+		burst.reset(matrix, color);
+		return burst;
+	}
+
+	/*************************************************************************
+	 * Accesses the Pool of Bullets.
+	 * 
+	 * @return The Pool that Bullets are recycled through.
+	 *************************************************************************/
+	public Pool<Bullet> bullets() { return bullets; }
+
+	/*************************************************************************
+	 * Accesses the Pool of HomingBullets.
+	 * 
+	 * @return The Pool that HomingBullets are recycled through.
+	 *************************************************************************/
+	public Pool<HomingBullet> missiles() { return missiles; }
+
+	/*************************************************************************
+	 * Accesses the Pool of BurstAnimations.
+	 * 
+	 * @return The Pool that BurstAnimations are recycled through.
+	 *************************************************************************/
+	public Pool<BurstAnimation> bursts() { return bursts; }
+
+	/*************************************************************************
+	 * Learns how many objects the Pools have had to create in total. Sampling
+	 * this over time gives the rate at which projectiles are still being
+	 * allocated.
+	 * 
+	 * @return The number of objects created by all of the Pools.
+	 *************************************************************************/
+	public int created()
+	{
+		return bullets.created() + missiles.created() + bursts.created();
+	}
+
+	/*************************************************************************
+	 * Learns how many objects the Pools have reused in total.
+	 * 
+	 * @return The number of objects reused by all of the Pools.
+	 *************************************************************************/
+	public int reused()
+	{
+		return bullets.reused() + missiles.reused() + bursts.reused();
+	}
+
+	/*************************************************************************
+	 * Learns how many objects the Pools have discarded in total. A steady 
+	 * rate of discards means the Pools could hold onto more.
+	 * 
+	 * @return The number of objects discarded by all of the Pools.
+	 *************************************************************************/
+	public int discarded()
+	{
+		return bullets.discarded() + missiles.discarded() + 
+				bursts.discarded();
+	}
+}
\ No newline at end of file
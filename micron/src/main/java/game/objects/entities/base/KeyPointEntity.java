@@ -2,6 +2,8 @@ package game.objects.entities.base;
 
 import org.jrabbit.base.graphics.transforms.Vector2f;
 
+import game.objects.KeyPoints;
+
 /*****************************************************************************
  * A KeyPointEntity extends MatrixEntity to add keypoint functionality. Basically,
  * a keypoint is a spot offset from the MatrixEntity that moves and rotates with
@@ -10,31 +12,32 @@ import org.jrabbit.base.graphics.transforms.Vector2f;
  * This has a variety of useful features. For example, keypoints can be used as 
  * the "origin" of effects, "anchors" for other objects, etc.
  * 
+ * Keypoints are recalculated by the KeyPointEntity itself, once its own 
+ * movement has been applied and again at the end of each update, and only if
+ * it has moved, turned or been scaled since they were last calculated. 
+ * Reading a keypoint never recalculates it, so other objects - including 
+ * those being updated on other threads - may read them freely; they see 
+ * where the KeyPointEntity was as of its last update.
+ * 
  * @author Chris Molini
  *****************************************************************************/
 public abstract class KeyPointEntity extends MatrixEntity
 {
 	/**
-	 * The list of base points.
+	 * The keypoints, and where they were last placed.
 	 **/
-	protected Vector2f[] basePoints;
-	
-	/**
-	 * The calculated resulting points that take into account location, rotation
-	 * and scaling.
-	 **/
-	private Vector2f[] transformedPoints;
+	private KeyPoints keyPoints;
 
 	/*************************************************************************
 	 * Creates a KeyPointEntity without any initial keypoints.
 	 *************************************************************************/
 	public KeyPointEntity()
 	{
-		basePoints = transformedPoints = new Vector2f[0];
+		keyPoints = new KeyPoints();
 	}
 
 	/*************************************************************************
-	 * Redefines the base keypoints.
+	 * Redefines the base keypoints, and places them.
 	 * 
 	 * @param coordinates
 	 * 			  The "vertices" that describe the base offsets for all 
@@ -42,34 +45,34 @@ public abstract class KeyPointEntity extends MatrixEntity
 	 *************************************************************************/
 	public void defineKeyPoints(float[][] coordinates)
 	{
-		basePoints = new Vector2f[coordinates.length];
-		transformedPoints = new Vector2f[coordinates.length];
-		for(int i = 0; i < coordinates.length; i++)
-		{
-			basePoints[i] = new Vector2f(coordinates[i][0], coordinates[i][1]);
-			transformedPoints[i] = basePoints[i].copy();
-		}
+		keyPoints.define(coordinates);
 		updateKeyPoints();
 	}
 
 	/*************************************************************************
 	 * Recalculates the transformed keypoints based on location, rotation and 
-	 * scaling. 
+	 * scaling, if any of those have changed since the last time. This must
+	 * only be called by the thread updating the KeyPointEntity.
 	 *************************************************************************/
 	protected void updateKeyPoints()
 	{
-		float theta = rotation.theta();
-		float cos = (float) Math.cos(theta);
-		float sin = (float) Math.sin(theta);
-		float xScale = scalar().xScale();
-		float yScale = scalar.yScale();
-		for(int i = 0; i < basePoints.length; i++)
-		{
-			float x = basePoints[i].x() * xScale;
-			float y = basePoints[i].y() * yScale;
-			transformedPoints[i].set(cos * x - sin * y, cos * y + sin * x);
-			transformedPoints[i].add(location);
-		}
+		keyPoints.refresh(this);
+	}
+
+	/*************************************************************************
+	 * Recalculates the transformed keypoints, if the KeyPointEntity has moved,
+	 * turned or been scaled since the last time, using a direction that is
+	 * already known instead of finding it from the rotation. This must only be
+	 * called by the thread updating the KeyPointEntity.
+	 * 
+	 * @param cos
+	 * 			  The cosine of the KeyPointEntity's rotation.
+	 * @param sin
+	 * 			  The sine of the KeyPointEntity's rotation.
+	 *************************************************************************/
+	protected void updateKeyPoints(float cos, float sin)
+	{
+		keyPoints.refresh(this, cos, sin);
 	}
 
 	/*************************************************************************
@@ -79,18 +82,31 @@ public abstract class KeyPointEntity extends MatrixEntity
 	 * 			  The index of the keypoint to use.
 	 * 
 	 * @return The transformed location (influenced by this Entity's location,
-	 *         rotation, and scaling).
+	 *         rotation, and scaling), as of its last update.
 	 *************************************************************************/
-	public Vector2f pointAt(int key) { return transformedPoints[key]; }
+	public Vector2f pointAt(int key) { return keyPoints.get(key); }
+
+	/*************************************************************************
+	 * Updates the KeyPointEntity, and then recalculates its keypoints.
+	 * 
+	 * @param delta
+	 * 			  The amount of time that has passed since the last update.
+	 ***************************************************************/ @Override
+	public void update(int delta)
+	{
+		super.update(delta);
+		updateKeyPoints();
+	}
 
 	/*************************************************************************
-	 * Recalculates all of the KeyPointEntity's keypoints, and continues
-	 * updating its controllers.
+	 * Recalculates the keypoints once the KeyPointEntity has drifted, so that
+	 * its Controllers see where it is now, and continues updating its 
+	 * Controllers.
 	 * 
 	 * @param delta
 	 * 			  The amount of time that has passed since the last update.
 	 ***************************************************************/ @Override
-	public void updateControllers(int delta)
+	protected void updateControllers(int delta)
 	{
 		updateKeyPoints();
 		super.updateControllers(delta);
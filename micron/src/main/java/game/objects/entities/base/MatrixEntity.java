@@ -36,6 +36,12 @@ public abstract class MatrixEntity extends MatrixSprite implements ComplexObject
 	 * How "complex" a MatrixEntity is.
 	 **/
 	protected int complexity;
+	
+	/**
+	 * Records when the MatrixEntity was placed in its Matrix, relative to the 
+	 * other MatrixEntities there.
+	 **/
+	protected long sequence;
 
 	/*************************************************************************
 	 * Creates the default MatrixEntity. It has a scale of 2, a base health of 
@@ -77,6 +83,25 @@ public abstract class MatrixEntity extends MatrixSprite implements ComplexObject
 		this.points = points;
 	}
 
+	/*************************************************************************
+	 * Learns when the MatrixEntity was placed in its Matrix. MatrixEntities 
+	 * that were placed earlier have lower numbers.
+	 * 
+	 * @return The sequence number the Matrix gave this MatrixEntity.
+	 *************************************************************************/
+	public long sequence() { return sequence; }
+
+	/*************************************************************************
+	 * Redefines when the MatrixEntity was placed in its Matrix.
+	 * 
+	 * @param sequence
+	 * 			  The new sequence number.
+	 *************************************************************************/
+	public void setSequence(long sequence)
+	{
+		this.sequence = sequence;
+	}
+
 	/*************************************************************************
 	 * Changes the maximum health of this MatrixEntity. Also sets the 
 	 * MatrixEntity's current health to full.
@@ -1,9 +1,13 @@
 package game.objects.entities.base;
 
 import game.objects.Killable;
+import game.world.SpriteBatch;
+import grid.TimerWheel;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.NoSuchElementException;
 
 import org.jrabbit.base.core.types.Updateable;
 import org.jrabbit.base.data.structures.base.Container;
@@ -16,15 +20,31 @@ import org.jrabbit.base.data.structures.base.Container;
  * moves and rotates with the ParentEntity, but independently rotates towards and 
  * fires at its target.
  * 
+ * Children are kept in a small dense array, in the order they were added, so
+ * that updating and rendering them is a simple indexed loop. A map from each
+ * child to its link is kept alongside, so that adds and removes can check for
+ * an existing child without searching the array.
+ * 
  * @author Chris Molini
  *****************************************************************************/
 public abstract class ParentEntity extends KeyPointEntity implements 
 		Container<MatrixEntity>
 {
 	/**
-	 * The list of EntityLinks used to manage children.
+	 * The list of EntityLinks used to manage children. Only the first 
+	 * linkCount entries are in use.
+	 **/
+	protected EntityLink[] links;
+
+	/**
+	 * The number of children currently managed.
+	 **/
+	protected int linkCount;
+
+	/**
+	 * Finds the EntityLink that manages each child.
 	 **/
-	protected LinkedHashMap<MatrixEntity, EntityLink> links;
+	protected HashMap<MatrixEntity, EntityLink> linkLookup;
 	
 	/**
 	 * Whether or not to render children above or below the parent.
@@ -37,7 +57,8 @@ public abstract class ParentEntity extends KeyPointEntity implements
 	public ParentEntity()
 	{
 		childrenOnTop = true;
-		links = new LinkedHashMap<MatrixEntity, EntityLink>();
+		links = new EntityLink[4];
+		linkLookup = new HashMap<MatrixEntity, EntityLink>();
 	}
 
 	/*************************************************************************
@@ -87,9 +108,17 @@ public abstract class ParentEntity extends KeyPointEntity implements
 	 *************************************************************************/
 	public boolean add(MatrixEntity child, int point, boolean constrainRotation)
 	{
-		if(links.containsKey(child))
+		if(linkLookup.containsKey(child))
 			return false;
-		links.put(child, new EntityLink(child, point, constrainRotation));
+		updateKeyPoints();
+		EntityLink link = new EntityLink(child, point, constrainRotation);
+		if(linkCount == links.length)
+			links = Arrays.copyOf(links, linkCount * 2);
+		link.index = linkCount;
+		links[linkCount++] = link;
+		linkLookup.put(child, link);
+		if(timers != null)
+			child.attachControllers(timers);
 		return true;
 	}
 
@@ -116,7 +145,30 @@ public abstract class ParentEntity extends KeyPointEntity implements
 	 ***************************************************************/ @Override
 	public boolean remove(MatrixEntity child)
 	{
-		return links.remove(child) != null;
+		EntityLink link = linkLookup.remove(child);
+		if(link == null)
+			return false;
+		removeLink(link.index);
+		child.detachControllers();
+		return true;
+	}
+
+	/*************************************************************************
+	 * Removes the EntityLink at the indicated index, shifting the links after 
+	 * it down so that children keep their rendering order.
+	 * 
+	 * @param index
+	 * 			  The index of the link to remove.
+	 *************************************************************************/
+	protected void removeLink(int index)
+	{
+		linkCount--;
+		for(int i = index; i < linkCount; i++)
+		{
+			links[i] = links[i + 1];
+			links[i].index = i;
+		}
+		links[linkCount] = null;
 	}
 
 	/*************************************************************************
@@ -141,7 +193,7 @@ public abstract class ParentEntity extends KeyPointEntity implements
 	 ***************************************************************/ @Override
 	public boolean contains(MatrixEntity child)
 	{
-		return links.containsKey(child);
+		return linkLookup.containsKey(child);
 	}
 
 	/*************************************************************************
@@ -151,7 +203,7 @@ public abstract class ParentEntity extends KeyPointEntity implements
 	 ***************************************************************/ @Override
 	public int size()
 	{
-		return links.size();
+		return linkCount;
 	}
 
 	/*************************************************************************
@@ -159,7 +211,12 @@ public abstract class ParentEntity extends KeyPointEntity implements
 	 ***************************************************************/ @Override
 	public void clear()
 	{
-		links.clear();
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null)
+				links[i].child.detachControllers();
+		Arrays.fill(links, 0, linkCount, null);
+		linkCount = 0;
+		linkLookup.clear();
 	}
 
 	/*************************************************************************
@@ -168,8 +225,8 @@ public abstract class ParentEntity extends KeyPointEntity implements
 	protected void onDeath()
 	{
 		super.onDeath();
-		for(EntityLink link : links.values())
-			link.kill();
+		for(int i = 0; i < linkCount; i++)
+			links[i].kill();
 	}
 
 	/*************************************************************************
@@ -181,8 +238,87 @@ public abstract class ParentEntity extends KeyPointEntity implements
 	public void update(int delta)
 	{
 		super.update(delta);
-		for(EntityLink link : links.values())
-			link.update(delta);
+		for(int i = 0; i < linkCount; i++)
+			links[i].update(delta);
+	}
+
+	/*************************************************************************
+	 * Records the state of the parent and all children at the start of a
+	 * simulation step.
+	 ***************************************************************/ @Override
+	public void snapshot()
+	{
+		super.snapshot();
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null)
+				links[i].child.snapshot();
+	}
+
+	/*************************************************************************
+	 * Redefines how much detail the parent and all children are simulated in.
+	 * 
+	 * @param visible
+	 * 			  Whether or not the Entities can be seen.
+	 * @param controllerInterval
+	 * 			  The number of updates between each update of the Controllers.
+	 ***************************************************************/ @Override
+	public void setDetail(boolean visible, int controllerInterval)
+	{
+		super.setDetail(visible, controllerInterval);
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null)
+				links[i].child.setDetail(visible, controllerInterval);
+	}
+
+	/*************************************************************************
+	 * Attaches the Controllers of the parent and all children to the 
+	 * indicated TimerWheel.
+	 * 
+	 * @param timers
+	 * 			  The TimerWheel to attach to.
+	 ***************************************************************/ @Override
+	public void attachControllers(TimerWheel timers)
+	{
+		super.attachControllers(timers);
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null)
+				links[i].child.attachControllers(timers);
+	}
+
+	/*************************************************************************
+	 * Detaches the Controllers of the parent and all children.
+	 ***************************************************************/ @Override
+	public void detachControllers()
+	{
+		super.detachControllers();
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null)
+				links[i].child.detachControllers();
+	}
+
+	/*************************************************************************
+	 * Moves the parent and all children between their last two states.
+	 * 
+	 * @param alpha
+	 * 			  How far along to place the Entities.
+	 ***************************************************************/ @Override
+	public void interpolate(float alpha)
+	{
+		super.interpolate(alpha);
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null)
+				links[i].child.interpolate(alpha);
+	}
+
+	/*************************************************************************
+	 * Returns the parent and all children to their actual state.
+	 ***************************************************************/ @Override
+	public void restore()
+	{
+		super.restore();
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null)
+				links[i].child.restore();
 	}
 
 	/*************************************************************************
@@ -193,25 +329,84 @@ public abstract class ParentEntity extends KeyPointEntity implements
 		if(childrenOnTop)
 		{
 			super.render();
-			for(MatrixEntity child : this)
-				child.render();
+			renderChildren();
 		}
 		else
 		{
-			for(MatrixEntity child : this)
-				child.render();
+			renderChildren();
 			super.render();
 		}
 	}
 
 	/*************************************************************************
-	 * Allows access to the list of child entities.
+	 * Renders each child Entity, in the order they were added.
+	 *************************************************************************/
+	protected void renderChildren()
+	{
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null)
+				links[i].child.render();
+	}
+
+	/*************************************************************************
+	 * A ParentEntity can only be batched if its children can all be batched
+	 * as well, since they are drawn along with it.
+	 * 
+	 * @return True if the parent and every child can be batched.
+	 ***************************************************************/ @Override
+	public boolean canBatch()
+	{
+		if(!super.canBatch())
+			return false;
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null && !links[i].child.canBatch())
+				return false;
+		return true;
+	}
+
+	/*************************************************************************
+	 * Adds the parent and children to a SpriteBatch, in the same order they 
+	 * would be rendered.
+	 * 
+	 * @param batch
+	 * 			  The SpriteBatch to add the ParentEntity to.
+	 ***************************************************************/ @Override
+	public void batch(SpriteBatch batch)
+	{
+		if(childrenOnTop)
+		{
+			super.batch(batch);
+			batchChildren(batch);
+		}
+		else
+		{
+			batchChildren(batch);
+			super.batch(batch);
+		}
+	}
+
+	/*************************************************************************
+	 * Adds each child Entity to a SpriteBatch, in the order they were added.
+	 * 
+	 * @param batch
+	 * 			  The SpriteBatch to add the children to.
+	 *************************************************************************/
+	protected void batchChildren(SpriteBatch batch)
+	{
+		for(int i = 0; i < linkCount; i++)
+			if(links[i].child != null)
+				links[i].child.batch(batch);
+	}
+
+	/*************************************************************************
+	 * Allows access to the list of child entities. This allocates an 
+	 * iterator, so the ParentEntity itself never uses it.
 	 * 
 	 * @return An iterator through the list of child Entities.
 	 ***************************************************************/ @Override
 	public Iterator<MatrixEntity> iterator()
 	{
-		return new EntityIterator(links.values());
+		return new EntityIterator();
 	}
 
 	/*************************************************************************
@@ -220,20 +415,14 @@ public abstract class ParentEntity extends KeyPointEntity implements
 	private class EntityIterator implements Iterator<MatrixEntity>
 	{
 		/**
-		 * The iterator through the list of EntityLinks used to 
+		 * The index of the next EntityLink to visit.
 		 **/
-		protected Iterator<EntityLink> iterator;
+		protected int next;
 
-		/*********************************************************************
-		 * Creates the EntityIterator.
-		 * 
-		 * @param iterable
-		 *            The iterator through EntityLinks to use for iteration.
-		 *********************************************************************/
-		public EntityIterator(Iterable<EntityLink> iterable)
-		{
-			this.iterator = iterable.iterator();
-		}
+		/**
+		 * The index of the last EntityLink visited, or -1 if it was removed.
+		 **/
+		protected int last = -1;
 
 		/*********************************************************************
 		 * Determines if iteration should advance.
@@ -243,7 +432,7 @@ public abstract class ParentEntity extends KeyPointEntity implements
 		 ***********************************************************/ @Override
 		public boolean hasNext()
 		{
-			return iterator.hasNext();
+			return next < linkCount;
 		}
 
 		/*********************************************************************
@@ -253,16 +442,25 @@ public abstract class ParentEntity extends KeyPointEntity implements
 		 ***********************************************************/ @Override
 		public MatrixEntity next()
 		{
-			EntityLink link = iterator.next();
-			return link == null ? null : link.child;
+			if(next >= linkCount)
+				throw new NoSuchElementException();
+			last = next++;
+			return links[last].child;
 		}
 
 		/*********************************************************************
-		 * Delegates removing to the internal iterator.
+		 * Removes the last Entity visited.
 		 ***********************************************************/ @Override
 		public void remove()
 		{
-			iterator.remove();
+			if(last < 0)
+				throw new IllegalStateException();
+			linkLookup.values().remove(links[last]);
+			if(links[last].child != null)
+				links[last].child.detachControllers();
+			removeLink(last);
+			next = last;
+			last = -1;
 		}
 	}
 
@@ -293,6 +491,11 @@ public abstract class ParentEntity extends KeyPointEntity implements
 		 **/
 		protected float lastRotation;
 
+		/**
+		 * The index of this EntityLink in the parent's array of links.
+		 **/
+		protected int index;
+
 		/*********************************************************************
 		 * Creates an EntityLink that will manage the indicated child.
 		 * 
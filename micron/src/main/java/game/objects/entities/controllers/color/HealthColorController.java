@@ -63,4 +63,12 @@ public abstract class HealthColorController extends TargetedController<Colored>
 	{
 		setColor(source.healthPercentage());
 	}
+
+	/*************************************************************************
+	 * Learns whether or not this Controller is purely visual. It is, so it
+	 * doesn't need to run while its target is offscreen.
+	 * 
+	 * @return True.
+	 ***************************************************************/ @Override
+	public boolean isCosmetic() { return true; }
 }
@@ -1,6 +1,6 @@
 package game.objects.entities.controllers.health;
 
-import static org.jrabbit.base.managers.Resources.random;
+import static game.world.MatrixRandom.random;
 
 import game.objects.controllers.TargetedController;
 import game.objects.entities.base.MatrixEntity;
@@ -3,7 +3,6 @@ package game.objects.entities.hostile;
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.graphics.transforms.Rotation;
 import org.jrabbit.base.graphics.transforms.Vector2f;
-import static org.jrabbit.base.managers.Resources.*;
 import org.jrabbit.base.math.vector.BaseVector2f;
 
 import game.objects.Actor;
@@ -15,6 +14,7 @@ import game.objects.controllers.rotation.RotateTowardsController;
 import game.objects.controllers.rotation.RotatingController;
 import game.objects.death.DeathBurstEffect;
 import game.objects.debris.DebrisSprite;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.projectiles.Bullet;
 import game.objects.entities.base.MatrixEntity;
 import game.objects.entities.base.StaticKeyPointEntity;
@@ -30,6 +30,17 @@ import game.objects.entities.controllers.color.HealthColorController;
  *****************************************************************************/
 public class Assaulter extends StaticParentEntity implements Weapon 
 {
+	/**
+	 * The Color of an Assaulter's bullets.
+	 **/
+	protected static final Color BULLET_COLOR = new Color(0, 0.7f, 1f);
+
+	/**
+	 * What an Assaulter's bullets do to whatever they hit.
+	 **/
+	protected static final EffectChain BULLET_EFFECTS = 
+			Bullet.effects(6, 10, false);
+
 	/*************************************************************************
 	 * Creates an Assaulter.
 	 * 
@@ -77,8 +88,8 @@ public class Assaulter extends StaticParentEntity implements Weapon
 	 ***************************************************************/ @Override
 	public void fireAt(BaseVector2f location, Rotation rotation)
 	{
-		matrix.add(new Bullet(this, location,  rotation,  new Color(0, 0.7f, 1f), 
-								6, 10,  0.1f, 8000));
+		matrix.add(matrix.projectiles().bullet(this, location,  rotation,  
+				BULLET_COLOR, BULLET_EFFECTS, 0.1f, 8000));
 	}
 
 	/*************************************************************************
@@ -1,9 +1,5 @@
 package game.objects.entities.hostile;
 
-import static org.jrabbit.base.managers.Resources.random;
-
-import org.jrabbit.base.graphics.skins.animation.AnimatedSkin;
-import org.jrabbit.base.graphics.skins.animation.AnimationFactory;
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.graphics.transforms.Rotation;
 import org.jrabbit.base.graphics.transforms.Vector2f;
@@ -19,10 +15,11 @@ import game.objects.controllers.rotation.CrazySpinController;
 import game.objects.controllers.rotation.RotateTowardsController;
 import game.objects.controllers.rotation.RotatingController;
 import game.objects.death.DeathBurstEffect;
+import game.objects.death.DeathEffect;
 import game.objects.debris.DebrisSprite;
-import game.objects.effects.base.MatrixEffect;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.effects.ExplosiveDeathEffect;
-import game.objects.effects.projectiles.HomingBullet;
+import game.objects.effects.projectiles.Bullet;
 import game.objects.entities.base.MatrixEntity;
 import game.objects.entities.base.StaticKeyPointEntity;
 import game.objects.entities.base.StaticMatrixEntity;
@@ -40,6 +37,25 @@ import game.objects.entities.controllers.color.HealthColorController;
  *****************************************************************************/
 public class Juggernaut extends StaticParentEntity implements Weapon
 {
+	/**
+	 * What happens when one of the Juggernaut's missiles dies. These are 
+	 * shared by every missile.
+	 **/
+	protected static final DeathEffect[] MISSILE_DEATH = {
+			new ExplosiveDeathEffect(3, 0.05f, 3.5f, true),
+			new DeathBurstEffect(Color.CYAN, 50, 0.075f) };
+
+	/**
+	 * The Color of the Juggernaut's missiles.
+	 **/
+	protected static final Color MISSILE_COLOR = new Color(0, 0.5f, 1f);
+
+	/**
+	 * What the Juggernaut's missiles do to whatever they hit.
+	 **/
+	protected static final EffectChain MISSILE_EFFECTS = 
+			Bullet.effects(10, 30, false);
+
 	/**
 	 * The MatrixEntity to attack.
 	 **/
@@ -117,15 +133,9 @@ public class Juggernaut extends StaticParentEntity implements Weapon
 	{
 		if(matrix != null)
 		{
-			AnimatedSkin missileSkin = AnimationFactory.createLoop(	"Missile 1", 
-																	"Missile 2", 
-																	"Missile 3");
-			MatrixEffect missile = new HomingBullet(missileSkin, this, location,
-					rotation, new Color(0, 0.5f, 1f), target.location(), 0.036f,
-					0.005f, 0.15f, 14000, 10, 30, false);
-			missile.addDeathEffects(new ExplosiveDeathEffect(3, 0.05f, 3.5f, true),
-					new DeathBurstEffect(Color.CYAN, 50, 0.075f));
-			matrix.add(missile);
+			matrix.add(matrix.projectiles().missile(this, location, rotation, 
+					MISSILE_COLOR, target.location(), 0.036f, 0.005f, 0.15f, 
+					14000, MISSILE_EFFECTS, false, MISSILE_DEATH));
 		}
 		
 	}
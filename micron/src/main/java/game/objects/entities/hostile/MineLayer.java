@@ -1,7 +1,5 @@
 package game.objects.entities.hostile;
 
-import static org.jrabbit.base.managers.Resources.random;
-
 import org.jrabbit.base.graphics.skins.animation.AnimationFactory;
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.graphics.transforms.Rotation;
@@ -18,6 +16,7 @@ import game.objects.controllers.movement.StrafeController;
 import game.objects.controllers.rotation.RotatingController;
 import game.objects.death.DeathBurstEffect;
 import game.objects.effects.base.AnimatedMatrixEffect;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.effects.ExplosiveDeathEffect;
 import game.objects.effects.effects.SingleHitEffect;
 import game.objects.entities.base.MatrixEntity;
@@ -34,6 +33,12 @@ import game.objects.entities.controllers.color.HealthColorController;
  *****************************************************************************/
 public class MineLayer extends StaticParentEntity implements Weapon
 {
+	/**
+	 * What a Mine does to whatever it hits.
+	 **/
+	protected static final EffectChain MINE_EFFECTS = 
+			EffectChain.of(new SingleHitEffect());
+	
 	/**
 	 * The MatrixEntity that is the victim of this MineLayer.
 	 **/
@@ -165,7 +170,7 @@ public class MineLayer extends StaticParentEntity implements Weapon
 			scalar.setScale(6f);
 			this.location.set(location);
 			setMaxSpeed(0.065f + random().nextFloat() * 0.035f);
-			addEffect(new SingleHitEffect());
+			setEffects(MINE_EFFECTS);
 			addDeathEffects(new DeathBurstEffect(Color.MAGENTA, 15, 0.035f),
 							new ExplosiveDeathEffect(5f, Color.RED, 0.04f, 1, false));
 			addControllers(	new RotatingController(this, 0.015f, 0.5f, true),
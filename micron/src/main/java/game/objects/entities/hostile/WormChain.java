@@ -0,0 +1,259 @@
+package game.objects.entities.hostile;
+
+import java.util.Arrays;
+
+/*****************************************************************************
+ * A WormChain holds the WormSegments of a single Worm, in order from head to 
+ * tail, and keeps the tail segments following the head.
+ * 
+ * Only the head moves on its own. Once it has been updated, the chain is 
+ * solved in a single pass from head to tail: each segment is turned to face 
+ * the link point on the back of the segment ahead of it, and placed a fixed
+ * distance behind that point. The direction each segment faces is carried 
+ * along as a unit vector, so the only trigonometry needed is to find the 
+ * head's direction; the tails reuse their directions to place their 
+ * keypoints as well. The tails are not drifted; their velocity is simply how
+ * far the solver moved them.
+ * 
+ * The same pass heals every segment and, whenever a segment's health has 
+ * changed, recolors it and its gun. The chain keeps the health each segment
+ * was last colored for, so that an unhurt segment is never recolored.
+ * 
+ * The segments are still ordinary MatrixEntities as far as the Matrix is 
+ * concerned, and can be collided with, damaged and killed individually. When
+ * one dies, the chain splits in two at that segment.
+ *****************************************************************************/
+public class WormChain
+{
+	/**
+	 * The amount of health every segment regains per unit of time.
+	 **/
+	public static final float HEAL_RATE = 0.003f;
+	
+	/**
+	 * The inverse of the spacing between segments, which the solver uses to
+	 * estimate the inverse distance between a segment and its link point.
+	 **/
+	private static final float INVERSE_SPACING = 1f / WormSegment.SPACING;
+	
+	/**
+	 * The range of squared distances, relative to the square of the spacing,
+	 * over which the estimate is used; outside it, the exact distance is 
+	 * found instead.
+	 **/
+	private static final float ESTIMATE_MIN = 0.64f, ESTIMATE_MAX = 1.44f;
+	
+	/**
+	 * The coefficients of the polynomial that approximates the arctangent.
+	 **/
+	private static final float ATAN_1 = 0.9998660f, ATAN_3 = -0.3302995f,
+			ATAN_5 = 0.1801410f, ATAN_7 = -0.0851330f, ATAN_9 = 0.0208351f;
+	
+	/**
+	 * The segments of the chain, from head to tail.
+	 **/
+	protected WormSegment[] segments;
+	
+	/**
+	 * The number of segments in the chain.
+	 **/
+	protected int length;
+	
+	/**
+	 * The direction each segment faces, as a unit vector.
+	 **/
+	protected float[] facingX, facingY;
+	
+	/**
+	 * The health percentage each segment was last colored for, or -1 if it 
+	 * has not been colored yet.
+	 **/
+	protected float[] shownHealth;
+	
+	/*************************************************************************
+	 * Creates a WormChain from the indicated WormSegments, and tells each of
+	 * them which chain they belong to.
+	 * 
+	 * @param segments
+	 * 			  The segments of the chain, from head to tail.
+	 * @param length
+	 * 			  The number of segments to use.
+	 *************************************************************************/
+	public WormChain(WormSegment[] segments, int length)
+	{
+		this.segments = segments;
+		this.length = length;
+		facingX = new float[length];
+		facingY = new float[length];
+		shownHealth = new float[length];
+		Arrays.fill(shownHealth, -1);
+		for(int i = 0; i < length; i++)
+		{
+			segments[i].setChain(this, i);
+			float theta = segments[i].rotation().theta();
+			facingX[i] = (float) Math.cos(theta);
+			facingY[i] = (float) Math.sin(theta);
+		}
+	}
+	
+	/*************************************************************************
+	 * Accesses the head of the chain.
+	 * 
+	 * @return The WormSegment at the front of the chain, or null if the chain
+	 * 		   is empty.
+	 *************************************************************************/
+	public WormSegment head() { return length > 0 ? segments[0] : null; }
+	
+	/*************************************************************************
+	 * Learns the number of segments in the chain.
+	 * 
+	 * @return The length of the Worm.
+	 *************************************************************************/
+	public int length() { return length; }
+	
+	/*************************************************************************
+	 * Places every segment behind the one ahead of it, and heals and colors
+	 * every segment.
+	 * 
+	 * @param delta
+	 * 			  The amount of time that has passed since the last update.
+	 *************************************************************************/
+	public void solve(int delta)
+	{
+		if(length == 0)
+			return;
+		WormSegment head = segments[0];
+		float theta = head.rotation().theta();
+		facingX[0] = (float) Math.cos(theta);
+		facingY[0] = (float) Math.sin(theta);
+		tend(0, delta);
+		float inverseDelta = 1f / delta;
+		for(int i = 1; i < length; i++)
+		{
+			WormSegment ahead = segments[i - 1];
+			WormSegment segment = segments[i];
+			float reach = WormSegment.LINK_POINT * ahead.scalar().xScale();
+			float anchorX = ahead.location().x() - facingX[i - 1] * reach;
+			float anchorY = ahead.location().y() - facingY[i - 1] * reach;
+			float x = segment.location().x();
+			float y = segment.location().y();
+			float dx = anchorX - x;
+			float dy = anchorY - y;
+			float distanceSquared = dx * dx + dy * dy;
+			if(distanceSquared > 0)
+			{
+				float scale = inverseLength(distanceSquared);
+				facingX[i] = dx * scale;
+				facingY[i] = dy * scale;
+				segment.rotation().set(degrees(dx, dy));
+			}
+			float newX = anchorX - facingX[i] * WormSegment.SPACING;
+			float newY = anchorY - facingY[i] * WormSegment.SPACING;
+			segment.velocity().set((newX - x) * inverseDelta, 
+					(newY - y) * inverseDelta);
+			segment.location().set(newX, newY);
+			tend(i, delta);
+		}
+	}
+	
+	/*************************************************************************
+	 * Heals a segment, and recolors it if its health has changed since it 
+	 * was last colored.
+	 * 
+	 * @param index
+	 * 			  The position of the segment in the chain.
+	 * @param delta
+	 * 			  The amount of time that has passed since the last update.
+	 *************************************************************************/
+	private void tend(int index, int delta)
+	{
+		WormSegment segment = segments[index];
+		if(segment.health() < segment.maxHealth())
+			segment.heal(HEAL_RATE * delta);
+		float percent = segment.healthPercentage();
+		if(percent != shownHealth[index])
+		{
+			shownHealth[index] = percent;
+			segment.showHealth(percent);
+		}
+	}
+	
+	/*************************************************************************
+	 * Estimates the inverse of a distance from its square.
+	 * 
+	 * Every update, a segment is left exactly SPACING behind its link point,
+	 * and the link point moves only a little before the next update. So, 
+	 * within 20% of SPACING, two Newton steps from 1 / SPACING are used; they
+	 * are within 0.7% of the true value, and since each segment is placed 
+	 * afresh every update, the error never builds up. Further away, such as
+	 * just after spawning, the exact value is found.
+	 * 
+	 * @param distanceSquared
+	 * 			  The squared distance, which must be positive.
+	 * 
+	 * @return Approximately 1 / sqrt(distanceSquared).
+	 *************************************************************************/
+	static float inverseLength(float distanceSquared)
+	{
+		float ratio = distanceSquared * INVERSE_SPACING * INVERSE_SPACING;
+		if(ratio < ESTIMATE_MIN || ratio > ESTIMATE_MAX)
+			return 1f / (float) Math.sqrt(distanceSquared);
+		float estimate = 1.5f - 0.5f * ratio;
+		estimate *= 1.5f - 0.5f * ratio * estimate * estimate;
+		return estimate * INVERSE_SPACING;
+	}
+	
+	/*************************************************************************
+	 * Finds the angle of a direction, in degrees, from a polynomial 
+	 * approximation of the arctangent; it is within 0.001 degrees of 
+	 * Math.atan2() at a fraction of the cost.
+	 * 
+	 * @param x
+	 * 			  The x component of the direction.
+	 * @param y
+	 * 			  The y component of the direction. It and x must not both be
+	 * 			  0.
+	 * 
+	 * @return The angle between the direction and the x axis, from -180 to 
+	 * 		   180 degrees.
+	 *************************************************************************/
+	static float degrees(float x, float y)
+	{
+		float absX = Math.abs(x);
+		float absY = Math.abs(y);
+		float z = absX > absY ? absY / absX : absX / absY;
+		float z2 = z * z;
+		float angle = z * (ATAN_1 + z2 * (ATAN_3 + z2 * (ATAN_5 + z2 * 
+				(ATAN_7 + z2 * ATAN_9))));
+		if(absY > absX)
+			angle = (float) (Math.PI / 2) - angle;
+		if(x < 0)
+			angle = (float) Math.PI - angle;
+		if(y < 0)
+			angle = -angle;
+		return (float) Math.toDegrees(angle);
+	}
+	
+	/*************************************************************************
+	 * Splits the chain at the indicated segment, which is taken out of it. The
+	 * segments ahead of it stay in this chain, and those behind it are moved 
+	 * into a new one.
+	 * 
+	 * @param index
+	 * 			  The position of the segment to take out.
+	 * 
+	 * @return The WormChain made of the segments behind the one taken out, or
+	 * 		   null if there are none.
+	 *************************************************************************/
+	public WormChain split(int index)
+	{
+		segments[index].setChain(null, -1);
+		WormChain rest = null;
+		if(index + 1 < length)
+			rest = new WormChain(Arrays.copyOfRange(segments, index + 1, 
+					length), length - index - 1);
+		Arrays.fill(segments, index, length, null);
+		length = index;
+		return rest;
+	}
+}
\ No newline at end of file
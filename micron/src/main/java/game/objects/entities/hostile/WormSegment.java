@@ -1,7 +1,5 @@
 package game.objects.entities.hostile;
 
-import static org.jrabbit.base.managers.Resources.*;
-
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.graphics.transforms.Rotation;
 import org.jrabbit.base.graphics.transforms.Vector2f;
@@ -9,7 +7,6 @@ import org.jrabbit.base.math.vector.BaseVector2f;
 
 import game.objects.Actor;
 import game.objects.Weapon;
-import game.objects.controllers.Controller;
 import game.objects.controllers.action.TimedActorController;
 import game.objects.controllers.movement.HomingController;
 import game.objects.controllers.movement.WanderingController;
@@ -17,12 +14,11 @@ import game.objects.controllers.rotation.RotateTowardsController;
 import game.objects.controllers.rotation.VelocityRotationController;
 import game.objects.death.DeathBurstEffect;
 import game.objects.debris.DebrisSprite;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.projectiles.Bullet;
 import game.objects.entities.base.MatrixEntity;
 import game.objects.entities.base.StaticKeyPointEntity;
 import game.objects.entities.base.StaticParentEntity;
-import game.objects.entities.controllers.color.HealthColorController;
-import game.objects.entities.controllers.health.HealingController;
 
 /*****************************************************************************
  * A WormSegment is a section a Worm - a gigantic linked string of literally
@@ -32,32 +28,57 @@ import game.objects.entities.controllers.health.HealingController;
  * Additionally, every time a middle segment is destroyed, the Worm splits into
  * two.
  * 
+ * The segments of a Worm are held together by a WormChain, which is solved by
+ * the head every update; the other segments don't move on their own. The 
+ * chain also heals every segment and colors it, and its gun, by its health.
+ * 
  * A full Worm is probably the most dangerous enemy in the game.
  * 
  * @author Chris Molini
  *****************************************************************************/
 public class WormSegment extends StaticParentEntity implements Weapon
 {
+	/**
+	 * How far behind a WormSegment's center (before scaling) the segment 
+	 * following it is attached.
+	 **/
+	public static final float LINK_POINT = 26;
+	
+	/**
+	 * How far behind the link point a following WormSegment is placed.
+	 **/
+	public static final float SPACING = 60;
+	
+	/**
+	 * The Color of a WormSegment's bullets.
+	 **/
+	protected static final Color BULLET_COLOR = new Color(1f, 0.1f, 0);
+	
+	/**
+	 * What a WormSegment's bullets do to whatever they hit.
+	 **/
+	protected static final EffectChain BULLET_EFFECTS = 
+			Bullet.effects(10, 15, false);
+	
 	/**
 	 * The MatrixEntity being attacked.
 	 **/
 	protected MatrixEntity target;
 	
 	/**
-	 * The WormSegment this Segment is following (if any).
+	 * The turret on the back of this WormSegment.
 	 **/
-	protected WormSegment head;
+	protected WormGun gun;
 	
 	/**
-	 * The WormSegment following this one (if any).
+	 * The WormChain this WormSegment belongs to (if any).
 	 **/
-	protected WormSegment tail;
+	protected WormChain chain;
 	
 	/**
-	 * The SegmentLockController that is making this WormSegment follow another
-	 * (if one is active).
+	 * The position of this WormSegment in its chain; 0 is the head.
 	 **/
-	protected SegmentLockController lock;
+	protected int link;
 	
 	/*************************************************************************
 	 * Creates a WormSegment.
@@ -66,15 +87,13 @@ public class WormSegment extends StaticParentEntity implements Weapon
 	 * 			  The MatrixEntity to attack.
 	 * @param location
 	 * 			  The Vector2f at which to spawn the WormSegment.
-	 * @param tail
-	 * 			  The WormSegment that is this one's tail (if any).
 	 *************************************************************************/
-	public WormSegment(MatrixEntity target, Vector2f location, WormSegment tail)
+	public WormSegment(MatrixEntity target, Vector2f location)
 	{
 		super("Worm Segment");
 		this.location.set(location);
 		this.target = target;
-		this.tail = tail;
+		link = -1;
 		setFactionRatings(1, 0, -1);
 		setLayer("Enemies B");
 		setMass(30 + random().nextFloat() * 12);
@@ -83,23 +102,9 @@ public class WormSegment extends StaticParentEntity implements Weapon
 		setPoints(500);
 		setMaxSpeed(0.07f + 0.03f * random().nextFloat());
 		defineHealth(150 + random().nextFloat() * 100);
-		defineKeyPoints(new float[][] { {-11, 0}, {-26, 0} });
+		defineKeyPoints(new float[][] { {-11, 0} });
 		setGeometry(new float[][] {{-32, -22}, {16, -16}, {32, 0}, {16, 16}, {-32, 22}});
-		WormGun gun = new WormGun();
-		gun.addController(new HealthColorController(this, gun){
-			protected void setColor(float percent) {
-				target.color().set(1f, 
-						0.1f + (percent * percent) * 0.9f,
-						0.5f + percent / 2f);
-			}});
-		add(gun, 0, true);
-		addControllers(	new HealthColorController(this){
-							protected void setColor(float percent) {
-								target.color().set(1f, 
-										0.1f + (percent * percent) * 0.9f,
-										0.5f + percent / 2f);
-							}},
-						new HealingController(this, 0.003f, Integer.MAX_VALUE));
+		add(gun = new WormGun(), 0, true);
 		addDeathEffect(new DeathBurstEffect(Color.RED, 100, 0.1f));
 	}
 
@@ -113,8 +118,8 @@ public class WormSegment extends StaticParentEntity implements Weapon
 	 ***************************************************************/ @Override
 	public void fireAt(BaseVector2f location, Rotation rotation)
 	{
-		matrix.add(new Bullet(this, location,  rotation,  new Color(1f, 0.1f, 0),
-				10, 15, 0.2f, 8000, 8, 4, false, false));
+		matrix.add(matrix.projectiles().bullet(this, location,  rotation,  
+				BULLET_COLOR, BULLET_EFFECTS, 0.2f, 8000, 8, 4, false));
 	}
 	
 	/*************************************************************************
@@ -123,39 +128,114 @@ public class WormSegment extends StaticParentEntity implements Weapon
 	 *************************************************************************/
 	public void setAsHead()
 	{
-		head = null;
 		addControllers(	new VelocityRotationController(this),
 				new HomingController(this, target.location(), 0.03f, 0.5f),
 				new WanderingController(this, 0.15f, 25000, 50000, 0.5f));
-		if(lock != null)
-			lock.kill();
 	}
 	
 	/*************************************************************************
-	 * Tells this WormSegment that it should act as the Tail of another.
+	 * Colors this WormSegment and its gun to show how much health it has 
+	 * left.
 	 * 
-	 * @param head
-	 * 			  The WormSegment that will act as the Head of this one.
+	 * @param percent
+	 * 			  The percentage of its total health that the WormSegment has.
 	 *************************************************************************/
-	public void setAsTailTo(WormSegment head)
+	public void showHealth(float percent)
+	{
+		float green = 0.1f + (percent * percent) * 0.9f;
+		float blue = 0.5f + percent / 2f;
+		color.set(1f, green, blue);
+		gun.color().set(1f, green, blue);
+	}
+	
+	/*************************************************************************
+	 * Redefines which WormChain this WormSegment belongs to.
+	 * 
+	 * @param chain
+	 * 			  The new WormChain, or null if the segment is on its own.
+	 * @param link
+	 * 			  The position of the segment in the chain.
+	 *************************************************************************/
+	public void setChain(WormChain chain, int link)
+	{
+		this.chain = chain;
+		this.link = link;
+	}
+	
+	/*************************************************************************
+	 * Learns whether or not this WormSegment can be updated in parallel. Only
+	 * the head of a Worm can be, since it moves the rest of the chain.
+	 * 
+	 * @return True if the WormSegment is a head and nothing else prevents it.
+	 ***************************************************************/ @Override
+	public boolean updatesIndependently()
+	{
+		return link <= 0 && super.updatesIndependently();
+	}
+	
+	/*************************************************************************
+	 * Drifts the WormSegment, if it is the head of a Worm. The rest of the 
+	 * Worm is placed by its WormChain instead, so any force or torque pushed
+	 * onto those segments is simply dropped.
+	 * 
+	 * @param delta
+	 * 			  The amount of time that has passed since the last update.
+	 ***************************************************************/ @Override
+	protected void drift(int delta)
+	{
+		if(link <= 0)
+			super.drift(delta);
+		else
+		{
+			force.reset();
+			torque = 0;
+		}
+	}
+	
+	/*************************************************************************
+	 * Recalculates the WormSegment's keypoints. Behind the head, the direction
+	 * the WormChain found for the segment is used, rather than taking the 
+	 * cosine and sine of its rotation again.
+	 ***************************************************************/ @Override
+	protected void updateKeyPoints()
+	{
+		if(link > 0)
+			updateKeyPoints(chain.facingX[link], chain.facingY[link]);
+		else
+			super.updateKeyPoints();
+	}
+	
+	/*************************************************************************
+	 * Updates the WormSegment. If it is the head of a Worm, the rest of the 
+	 * Worm is then pulled along behind it.
+	 * 
+	 * @param delta
+	 * 			  The amount of time that has passed since the last update.
+	 ***************************************************************/ @Override
+	public void update(int delta)
 	{
-		this.head = head;
-		addController(lock = new SegmentLockController());
+		super.update(delta);
+		if(chain != null && link == 0)
+			chain.solve(delta);
 	}
 	
 	/*************************************************************************
-	 * When a WormSegment is killed, it both leaves debris and alerts any other
-	 * WormSegments in its chain that it has died.
+	 * When a WormSegment is killed, it both leaves debris and splits its chain,
+	 * so that any WormSegments behind it become a new Worm.
 	 *************************************************************************/
 	protected void onDeath()
 	{
 		super.onDeath();
-		if(head != null)
-			head.tail = null;
-		if(tail != null)
+		if(chain != null)
 		{
-			tail.setAsHead();
-			tail.velocity.setPolar(tail.rotation.theta(), velocity().magnitude());
+			WormChain rest = chain.split(link);
+			if(rest != null)
+			{
+				WormSegment tail = rest.head();
+				tail.setAsHead();
+				tail.velocity.setPolar(tail.rotation.theta(), 
+						velocity().magnitude());
+			}
 		}
 		if(matrix != null)
 		{
@@ -198,27 +278,4 @@ public class WormSegment extends StaticParentEntity implements Weapon
 			fireAt(pointAt(0), rotation);
 		}
 	}
-	
-	/*************************************************************************
-	 * A SegmentLockController ensures that a WormSegment that follows another
-	 * is positioned appropriately to follow it.
-	 * 
-	 * @author Chris Molini
-	 *************************************************************************/
-	protected class SegmentLockController extends Controller
-	{
-		/*********************************************************************
-		 * Updates the SegmentLockController.
-		 * 
-		 * @param delta
-		 * 			  The amount of time that has passed since the last update.
-		 ***********************************************************/ @Override
-		public void update(int delta)
-		{
-			rotation.set(location.angleTowards(head.pointAt(1)));
-			location.set(head.pointAt(1));
-			location.addPolar(-60, rotation.theta());
-			velocity.decrease(delta * 0.00001f);
-		}
-	}
 }
\ No newline at end of file
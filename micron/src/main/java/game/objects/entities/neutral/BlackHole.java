@@ -1,7 +1,5 @@
 package game.objects.entities.neutral;
 
-import static org.jrabbit.base.managers.Resources.random;
-
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.graphics.transforms.Vector2f;
 import org.jrabbit.base.graphics.types.Colored;
@@ -12,7 +10,8 @@ import game.objects.controllers.movement.HomingController;
 import game.objects.controllers.movement.WanderingController;
 import game.objects.controllers.rotation.CrazySpinController;
 import game.objects.debris.base.Debris;
-import game.objects.debris.base.Vacuum;
+import game.objects.debris.base.GravityWell;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.base.MatrixEffect;
 import game.objects.effects.base.StaticMatrixEffect;
 import game.objects.effects.effects.DistancedDoTEffect;
@@ -31,8 +30,18 @@ import game.world.Matrix;
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class BlackHole extends StaticMatrixEntity implements Vacuum
+public class BlackHole extends StaticMatrixEntity implements GravityWell
 {
+	/**
+	 * The strength with which a Black Hole pulls in Debris.
+	 **/
+	private static final float PULL = 100f;
+	
+	/**
+	 * How far a Black Hole's pull reaches, per unit of scale.
+	 **/
+	private static final float REACH = 150f;
+	
 	/**
 	 * The damaging aura of death surrounding this Black Hole.
 	 **/
@@ -97,11 +106,12 @@ public class BlackHole extends StaticMatrixEntity implements Vacuum
 										{ 0, 32 }, 	{ 24, 24 }});
 		
 		aura.setLayer("Black Hole Aura");
+		aura.setArea(true);
 		aura.color().setAlpha(0.35f);
 		float magnitude = scalar().xScale();
 		aura.scalar().setScale(magnitude * 1.5f);
 		DistancedDoTEffect doT = new DistancedDoTEffect(0.03f * magnitude, scaledWidth() / 2);
-		aura.addEffects(doT);
+		aura.setEffects(new EffectChain(doT));
 		aura.addControllers(doT, new CrazySpinController(aura),
 							new AnchoredController(aura, this.location),
 							new TargetedController<Colored>(aura) {
@@ -138,8 +148,37 @@ public class BlackHole extends StaticMatrixEntity implements Vacuum
 	 ***************************************************************/ @Override
 	public boolean shouldRemove(Debris debris)
 	{
-		float dist = debris.location().distanceTo(location());
-		debris.force().add(debris.location().unitVectorTowards(location()), 100f / dist);
-		return dist <= scaledWidth() / 4f;
+		float dx = location.x() - debris.location().x();
+		float dy = location.y() - debris.location().y();
+		float distSquared = dx * dx + dy * dy;
+		if(distSquared > 0)
+		{
+			float scale = PULL / distSquared;
+			debris.force().add(dx * scale, dy * scale);
+		}
+		float horizon = horizon();
+		return distSquared <= horizon * horizon;
 	}
+
+	/*************************************************************************
+	 * Learns how strongly the Black Hole pulls in Debris.
+	 * 
+	 * @return The strength of the pull.
+	 ***************************************************************/ @Override
+	public float pull() { return PULL; }
+
+	/*************************************************************************
+	 * Learns how far the Black Hole's pull reaches. Larger Black Holes reach
+	 * further.
+	 * 
+	 * @return The radius of influence.
+	 ***************************************************************/ @Override
+	public float influenceRadius() { return REACH * scalar.xScale(); }
+
+	/*************************************************************************
+	 * Learns the radius of the Black Hole's event horizon.
+	 * 
+	 * @return The distance at which Debris is consumed.
+	 ***************************************************************/ @Override
+	public float horizon() { return scaledWidth() / 4f; }
 }
\ No newline at end of file
@@ -1,7 +1,5 @@
 package game.objects.entities.neutral;
 
-import static org.jrabbit.base.managers.Resources.random;
-
 import org.jrabbit.base.graphics.transforms.BlendOp;
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.graphics.transforms.Vector2f;
@@ -15,6 +13,7 @@ import game.objects.controllers.rotation.CrazySpinController;
 import game.objects.controllers.rotation.RotatingController;
 import game.objects.death.DeathBurstEffect;
 import game.objects.death.DeathKillEffect;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.base.MatrixEffect;
 import game.objects.effects.base.StaticMatrixEffect;
 import game.objects.effects.effects.DistancedHoTEffect;
@@ -79,9 +78,10 @@ public class Healer extends StaticMatrixEntity implements Actor
 										{ -64, 0 }, { -48, 48 },
 										{ 0, 64 }, 	{ 48, 48 }});
 		aura.setLayer("Auras A");
+		aura.setArea(true);
 		aura.scalar().setScale(6.5f);
 		DistancedHoTEffect hoT = new DistancedHoTEffect(0.0066f, aura.scaledWidth() / 2);
-		aura.addEffects(hoT);
+		aura.setEffects(new EffectChain(hoT));
 		aura.addControllers(new CrazySpinController(aura), hoT,
 							new HealthColorController(this, aura){
 								protected void setColor(float percent) {
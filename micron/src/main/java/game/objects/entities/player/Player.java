@@ -2,8 +2,6 @@ package game.objects.entities.player;
 
 import org.jrabbit.base.graphics.transforms.Color;
 
-import static org.jrabbit.base.managers.Resources.*;
-
 import game.objects.controllers.rotation.InputRotationController;
 import game.objects.death.DeathBurstEffect;
 import game.objects.entities.base.StaticKeyPointEntity;
@@ -25,6 +25,11 @@ public class CameraController extends TargetedController<PhysSprite>
 	 **/
 	private static final float CAMERA_SPEED = 0.1f;
 
+	/**
+	 * The point the camera is moving towards. This is reused every update.
+	 **/
+	protected Vector2f focus;
+
 	/*************************************************************************
 	 * Creates a CameraController that will manage the camera to accommodate the
 	 * indicated PhysSprite.
@@ -33,7 +38,11 @@ public class CameraController extends TargetedController<PhysSprite>
 	 * 			  The PhysSprite who should be treated as the focus of the main
 	 * 			  viewpoint.
 	 *************************************************************************/
-	public CameraController(PhysSprite target) { super(target); }
+	public CameraController(PhysSprite target)
+	{
+		super(target);
+		focus = new Vector2f();
+	}
 
 	/*************************************************************************
 	 * Manages the camera.
@@ -44,7 +53,8 @@ public class CameraController extends TargetedController<PhysSprite>
 	public void update(int delta)
 	{
 		Vector2f cameraLoc = GameManager.camera().location();
-		Vector2f targetLoc = target.location().copy();
+		Vector2f targetLoc = focus;
+		targetLoc.set(target.location());
 		if(MicronGameSettings.userData().useLaptopControls())
 		{
 			cameraLoc.add(target.velocity(), delta);
@@ -66,10 +76,10 @@ public class CameraController extends TargetedController<PhysSprite>
 		else
 		{
 			cameraLoc.add(target.velocity(), delta * 0.66f);
-			Vector2f mouseLoc = MouseHandler.location(true).copy();
-			mouseLoc.add(-WindowManager.controller().width() / 2, 
-					-WindowManager.controller().height() / 2);
-			targetLoc.add(mouseLoc, 0.35f);
+			targetLoc.add((MouseHandler.location(true).x() - 
+					WindowManager.controller().width() / 2) * 0.35f, 
+					(MouseHandler.location(true).y() - 
+					WindowManager.controller().height() / 2) * 0.35f);
 			float distance = cameraLoc.distanceTo(targetLoc);
 			if(distance > 0)
 			{
@@ -78,4 +88,12 @@ public class CameraController extends TargetedController<PhysSprite>
 			}
 		}
 	}
+
+	/*************************************************************************
+	 * Learns whether or not this Controller can be updated in parallel. Since
+	 * it moves the camera and reads input, it must run on the main thread.
+	 * 
+	 * @return False.
+	 ***************************************************************/ @Override
+	public boolean isIndependent() { return false; }
 }
\ No newline at end of file
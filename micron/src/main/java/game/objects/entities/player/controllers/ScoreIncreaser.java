@@ -1,6 +1,6 @@
 package game.objects.entities.player.controllers;
 
-import game.objects.controllers.TargetedController;
+import game.objects.controllers.TimedController;
 import game.objects.sprite.MatrixSprite;
 
 /*****************************************************************************
@@ -9,14 +9,8 @@ import game.objects.sprite.MatrixSprite;
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class ScoreIncreaser extends TargetedController<MatrixSprite>
+public class ScoreIncreaser extends TimedController<MatrixSprite>
 {
-	/**
-	 * The value that keeps track of the time elapsed since the last score 
-	 * increment.
-	 **/
-	private int scoreIncreaseTimer;
-	
 	/**
 	 * The duration between each score increase.
 	 **/
@@ -38,21 +32,15 @@ public class ScoreIncreaser extends TargetedController<MatrixSprite>
 		super(target);
 		scoreIncreaseInterval = 3333;
 		scoreIncreaseAmount = 10;
+		delay = scoreIncreaseInterval;
 	}
 
 	/*************************************************************************
-	 * Updates the ScoreIncreaser.
-	 * 
-	 * @param delta
-	 * 			  The amount of time that has passed since the last update.
+	 * Increases the score, and schedules the next increase.
 	 ***************************************************************/ @Override
-	public void update(int delta)
+	protected void onTimer()
 	{
-		scoreIncreaseTimer += delta;
-		while(scoreIncreaseTimer >= scoreIncreaseInterval)
-		{
-			scoreIncreaseTimer -= scoreIncreaseInterval;
-			target.matrix().addPoints(scoreIncreaseAmount);
-		}
+		timers.repeat(timer, scoreIncreaseInterval);
+		target.matrix().addPoints(scoreIncreaseAmount);
 	}
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import game.objects.controllers.life.LifetimeController;
 import game.objects.controllers.rotation.RotatingController;
 import game.objects.death.DeathBurstEffect;
 import game.objects.effects.base.AnimatedMatrixEffect;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.effects.DoTEffect;
 import game.objects.effects.effects.HitCounterEffect;
 import game.objects.effects.effects.PushEffect;
@@ -248,9 +249,10 @@ public class ChargeBlaster implements PlayerWeapon
 						owner.rotation().theta());
 				DoTEffect doT = new DoTEffect(BASE_DAMAGE + (chargePercent * 
 						chargePercent * chargePercent * ADD_DAMAGE), true);
-				addEffects(new PushEffect(BASE_FORCE + (chargePercent * 
-						chargePercent * chargePercent * ADD_FORCE)), doT, 
-						new HitCounterEffect(BASE_HITS + (int) (chargePercent * ADD_HITS)));
+				setEffects(new EffectChain(new PushEffect(BASE_FORCE + 
+						(chargePercent * chargePercent * chargePercent * 
+						ADD_FORCE)), doT, new HitCounterEffect(BASE_HITS + 
+						(int) (chargePercent * ADD_HITS))));
 				addControllers(new LifetimeController(this, BASE_LIFETIME + 
 						(int) (chargePercent * ADD_LIFETIME)), doT);
 				addDeathEffect(new DeathBurstEffect(color.copy(), 
@@ -1,5 +1,6 @@
 package game.objects.entities.player.weapons;
 
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.projectiles.Bullet;
 import game.objects.entities.base.KeyPointEntity;
 
@@ -12,7 +13,7 @@ import org.lwjgl.input.Keyboard;
 
 import settings.MicronGameSettings;
 
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 /*****************************************************************************
  * A MachineGun rapidly fires bullets when the left mouse button is held down.
@@ -72,6 +73,12 @@ public class MachineGun implements PlayerWeapon
 	 **/
 	protected static final float BULLET_DAMAGE = 12;
 	
+	/**
+	 * What each bullet does to whatever it hits.
+	 **/
+	protected static final EffectChain BULLET_EFFECTS = 
+			Bullet.effects(19, 10, true);
+	
 	/**
 	 * Keeps track of the time since the last bullet was fired.
 	 **/
@@ -87,6 +94,12 @@ public class MachineGun implements PlayerWeapon
 	 **/
 	protected KeyPointEntity owner;
 
+	/**
+	 * The Rotation each shot is aimed with. This is reused for every shot, 
+	 * since each Bullet copies it.
+	 **/
+	protected Rotation aim;
+
 	/*************************************************************************
 	 * Creates a machine gun.
 	 * 
@@ -96,6 +109,7 @@ public class MachineGun implements PlayerWeapon
 	public MachineGun(KeyPointEntity owner)
 	{
 		this.owner = owner;
+		aim = owner.rotation().copy();
 	}
 
 	/*************************************************************************
@@ -132,8 +146,9 @@ public class MachineGun implements PlayerWeapon
 			inaccuracy -= Math.min(1f, dist / ADD_INACCURACY_RAD) * ADD_INACCURACY;
 		}
 		rotation.rotate((random().nextFloat() - 0.5f) * inaccuracy);
-		owner.matrix().add(new Bullet(owner, location,  rotation, Color.GREEN,
-				19, 10,  BULLET_VELOCITY, BULLET_LIFE_BASE + 
+		owner.matrix().add(owner.matrix().projectiles().bullet(owner, 
+				location, rotation, Color.GREEN, BULLET_EFFECTS, 
+				BULLET_VELOCITY, BULLET_LIFE_BASE + 
 				random().nextInt(BULLET_LIFE_RAND), 7f, 2f, true));
 	}
 
@@ -150,8 +165,8 @@ public class MachineGun implements PlayerWeapon
 			while(timer >= SHOT_INTERVAL)
 			{
 				timer -= SHOT_INTERVAL;
-				fireAt(owner.pointAt((phase = !phase) ? 1 : 2), 
-						owner.rotation().copy());
+				aim.set(owner.rotation());
+				fireAt(owner.pointAt((phase = !phase) ? 1 : 2), aim);
 			}
 	}
 }
\ No newline at end of file
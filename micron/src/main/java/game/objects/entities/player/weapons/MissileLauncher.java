@@ -1,7 +1,5 @@
 package game.objects.entities.player.weapons;
 
-import org.jrabbit.base.graphics.skins.animation.AnimatedSkin;
-import org.jrabbit.base.graphics.skins.animation.AnimationFactory;
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.graphics.transforms.Rotation;
 import org.jrabbit.base.input.KeyboardHandler;
@@ -10,9 +8,10 @@ import org.jrabbit.base.math.vector.BaseVector2f;
 import org.lwjgl.input.Keyboard;
 
 import game.objects.death.DeathBurstEffect;
-import game.objects.effects.base.MatrixEffect;
+import game.objects.death.DeathEffect;
+import game.objects.effects.base.EffectChain;
 import game.objects.effects.effects.ExplosiveDeathEffect;
-import game.objects.effects.projectiles.HomingBullet;
+import game.objects.effects.projectiles.Bullet;
 import game.objects.entities.base.KeyPointEntity;
 
 /*****************************************************************************
@@ -45,6 +44,19 @@ public class MissileLauncher implements PlayerWeapon
 	 **/
 	protected static final float MISSILE_TURN_RATE = 0.075f;
 	
+	/**
+	 * What happens when a missile dies. These are shared by every missile.
+	 **/
+	protected static final DeathEffect[] MISSILE_DEATH = {
+			new ExplosiveDeathEffect(6, 0.1f, 3.5f, true),
+			new DeathBurstEffect(Color.ORANGE, 150, 0.05f) };
+	
+	/**
+	 * What a missile does to whatever it hits.
+	 **/
+	protected static final EffectChain MISSILE_EFFECTS = 
+			Bullet.effects(100, 10, true);
+	
 	/**
 	 * Keeps track of the time since the last missile was fired.
 	 **/
@@ -91,15 +103,10 @@ public class MissileLauncher implements PlayerWeapon
 	 ***************************************************************/ @Override
 	public void fireAt(BaseVector2f location, Rotation rotation)
 	{
-		AnimatedSkin missileSkin = AnimationFactory.createLoop(	"Missile 1", 
-																"Missile 2", 
-																"Missile 3");
-		MatrixEffect missile = new HomingBullet(missileSkin, owner,
+		owner.matrix().add(owner.matrix().projectiles().missile(owner, 
 				location, rotation, Color.ORANGE, MouseHandler.location(false),
-				MISSILE_TURN_RATE, 1f, 0.2f, MISSILE_LIFETIME, 100, 10, true);
-		missile.addDeathEffects(new ExplosiveDeathEffect(6, 0.1f, 3.5f, true),
-								new DeathBurstEffect(Color.ORANGE, 150, 0.05f));
-		owner.matrix().add(missile);
+				MISSILE_TURN_RATE, 1f, 0.2f, MISSILE_LIFETIME, MISSILE_EFFECTS, 
+				true, MISSILE_DEATH));
 	}
 
 	/*************************************************************************
@@ -9,6 +9,9 @@ import game.objects.controllers.Controller;
 import game.objects.controllers.ControllerParent;
 import game.objects.death.DeathEffect;
 import game.world.Matrix;
+import game.world.MatrixRandom;
+import game.world.ParallelUpdate;
+import grid.TimerWheel;
 
 /*****************************************************************************
  * A MatrixSprite is a Sprite with some specialized functionality for existing
@@ -41,6 +44,46 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 	 **/
 	protected LockingList<Controller> controllers;
 
+	/**
+	 * The TimerWheel the Controllers are attached to, or null if the 
+	 * MatrixSprite isn't in a Matrix.
+	 **/
+	protected TimerWheel timers;
+
+	/**
+	 * The random stream the MatrixSprite draws from while it is updated. This
+	 * is split from the Matrix's stream when the MatrixSprite is added.
+	 **/
+	protected MatrixRandom random;
+	
+	/**
+	 * Whether or not the MatrixSprite is purely cosmetic.
+	 **/
+	protected boolean cosmetic;
+
+	/**
+	 * The number of Controllers that depend on other objects being updated 
+	 * first.
+	 **/
+	protected int dependentControllers;
+
+	/**
+	 * Whether or not the MatrixSprite is close enough to the camera to be 
+	 * seen. If not, cosmetic Controllers are skipped.
+	 **/
+	protected boolean visible;
+
+	/**
+	 * The number of updates between each update of the Controllers.
+	 **/
+	protected int controllerInterval;
+
+	/**
+	 * The number of updates, and the amount of time, since the Controllers 
+	 * were last updated.
+	 **/
+	protected int skippedUpdates, skippedDelta;
+
 	/**
 	 * The list of DeathEffects maintained by this MatrixSprite.
 	 **/
@@ -53,6 +96,8 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 	{
 		controllers = new LockingList<Controller>();
 		deathEffects = new LockingList<DeathEffect>();
+		visible = true;
+		controllerInterval = 1;
 	}
 
 	/*************************************************************************
@@ -65,6 +110,10 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 	{
 		controller.setParent(this);
 		controllers.add(controller);
+		if(!controller.isIndependent())
+			dependentControllers++;
+		if(timers != null)
+			attach(controller, timers);
 	}
 
 	/*************************************************************************
@@ -88,7 +137,70 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 	public void removeController(Controller controller)
 	{
 		if(controllers.remove(controller))
+		{
 			controller.setParent(null);
+			if(!controller.isIndependent())
+				dependentControllers--;
+			if(timers != null)
+				attach(controller, null);
+		}
+	}
+
+	/*************************************************************************
+	 * Attaches a Controller to a TimerWheel, or detaches it. Since TimerWheels
+	 * can only be used from the main thread, this is deferred during a 
+	 * parallel update.
+	 * 
+	 * @param controller
+	 * 			  The Controller to attach or detach.
+	 * @param timers
+	 * 			  The TimerWheel to attach to, or null to detach.
+	 *************************************************************************/
+	private void attach(final Controller controller, final TimerWheel timers)
+	{
+		if(ParallelUpdate.deferring())
+		{
+			ParallelUpdate.defer(new Runnable() {
+				public void run()
+				{
+					attach(controller, timers);
+				}});
+			return;
+		}
+		if(timers != null)
+			controller.attach(timers);
+		else
+			controller.detach();
+	}
+
+	/*************************************************************************
+	 * Attaches every Controller to the indicated TimerWheel, so that timed 
+	 * Controllers can schedule themselves.
+	 * 
+	 * @param timers
+	 * 			  The TimerWheel to attach to.
+	 *************************************************************************/
+	public void attachControllers(TimerWheel timers)
+	{
+		detachControllers();
+		this.timers = timers;
+		for(Controller controller : controllers)
+			controller.attach(timers);
+		controllers.unlock();
+	}
+
+	/*************************************************************************
+	 * Detaches every Controller from its TimerWheel, cancelling anything they
+	 * have scheduled.
+	 *************************************************************************/
+	public void detachControllers()
+	{
+		if(timers == null)
+			return;
+		timers = null;
+		for(Controller controller : controllers)
+			controller.detach();
+		controllers.unlock();
 	}
 
 	/*************************************************************************
@@ -154,6 +266,8 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 		if(this.matrix != null)
 			this.matrix.remove(this);
 		setMatrix(matrix);
+		random = (cosmetic ? matrix.cosmeticRandom() : matrix.random()).split();
+		attachControllers(matrix.timers());
 	}
 	
 	/*************************************************************************
@@ -165,6 +279,19 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 	public void removedFromMatrix(Matrix matrix)
 	{
 		this.matrix = null;
+		detachControllers();
+	}
+
+	/*************************************************************************
+	 * Accesses the random stream of the MatrixSprite. Until it is added to a
+	 * Matrix, it draws from whatever stream is current - that of the Matrix,
+	 * or of whatever created it.
+	 * 
+	 * @return The MatrixSprite's MatrixRandom.
+	 ***************************************************************/ @Override
+	public MatrixRandom random()
+	{
+		return random != null ? random : MatrixRandom.random();
 	}
 
 	/*************************************************************************
@@ -185,6 +312,28 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 		this.layer = layer;
 	}
 
+	/*************************************************************************
+	 * Learns whether or not this MatrixSprite is purely cosmetic.
+	 * 
+	 * @return True if the MatrixSprite has no effect on the game.
+	 *************************************************************************/
+	public boolean isCosmetic() { return cosmetic; }
+
+	/*************************************************************************
+	 * Defines whether or not this MatrixSprite is purely cosmetic. Whether or
+	 * not a cosmetic MatrixSprite is spawned can depend on how fast the game
+	 * is running, so the Matrix gives it a random stream split from its 
+	 * cosmetic stream and keeps it out of the way of everything else. It must
+	 * not hit, spawn or change anything that isn't cosmetic itself.
+	 * 
+	 * @param cosmetic
+	 * 			  Whether or not the MatrixSprite is purely cosmetic.
+	 *************************************************************************/
+	public void setCosmetic(boolean cosmetic)
+	{
+		this.cosmetic = cosmetic;
+	}
+
 	/*************************************************************************
 	 * Learns the culling radius of the MatrixSprite.
 	 * 
@@ -194,11 +343,63 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 	public float cullDistance() { return cullDistance; }
 
 	/*************************************************************************
-	 * Destroys this MatrixSprite and removes it from the Matrix.
+	 * Learns whether or not this MatrixSprite can be updated in parallel. This
+	 * is true unless one of its Controllers depends on another object.
+	 * 
+	 * @return True if the MatrixSprite can be updated in parallel.
+	 ***************************************************************/ @Override
+	public boolean updatesIndependently() 
+	{
+		return dependentControllers == 0;
+	}
+
+	/*************************************************************************
+	 * Redefines how much detail the MatrixSprite is simulated in.
+	 * 
+	 * @param visible
+	 * 			  Whether or not the MatrixSprite can be seen. If not, cosmetic
+	 * 			  Controllers are skipped.
+	 * @param controllerInterval
+	 * 			  The number of updates between each update of the Controllers;
+	 * 			  the time in between is accumulated and passed on all at once.
+	 *************************************************************************/
+	public void setDetail(boolean visible, int controllerInterval)
+	{
+		this.visible = visible;
+		this.controllerInterval = controllerInterval;
+	}
+
+	/*************************************************************************
+	 * In addition to coming to a standstill, the MatrixSprite forgets the 
+	 * random stream and detail it was given by its last Matrix.
+	 ***************************************************************/ @Override
+	public void recycle()
+	{
+		super.recycle();
+		random = null;
+		setDetail(true, 1);
+		skippedUpdates = skippedDelta = 0;
+	}
+
+	/*************************************************************************
+	 * Destroys this MatrixSprite and removes it from the Matrix. If this 
+	 * happens during a parallel update, it is deferred until the update is
+	 * complete, since death effects can spawn new objects.
 	 ***************************************************************/ @Override
 	public void kill()
 	{
+		if(ParallelUpdate.deferring())
+		{
+			ParallelUpdate.defer(new Runnable() {
+				public void run()
+				{
+					kill();
+				}});
+			return;
+		}
+		MatrixRandom previous = MatrixRandom.use(random());
 		onDeath();
+		MatrixRandom.use(previous);
 		if(matrix != null)
 			matrix.remove(this);
 	}
@@ -214,15 +415,23 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 	}
 	
 	/*************************************************************************
-	 * Updates the MatrixSprite's controllers.
+	 * Updates the MatrixSprite's controllers. Depending on the detail set for
+	 * the MatrixSprite, this might only happen every few updates, and cosmetic
+	 * Controllers might be skipped.
 	 * 
 	 * @param delta
 	 * 			  The amount of time that has passed since the last update.
 	 *************************************************************************/
 	protected void updateControllers(int delta)
 	{
+		skippedDelta += delta;
+		if(++skippedUpdates < controllerInterval)
+			return;
+		int elapsed = skippedDelta;
+		skippedUpdates = skippedDelta = 0;
 		for(Controller controller : controllers)
-			controller.update(delta);
+			if(visible || !controller.isCosmetic())
+				controller.update(elapsed);
 		controllers.unlock();
 	}
 
@@ -234,7 +443,9 @@ public abstract class MatrixSprite extends FactionedSprite implements Killable,
 	 ***************************************************************/ @Override
 	public void update(int delta)
 	{
+		MatrixRandom previous = MatrixRandom.use(random());
 		super.update(delta);
 		updateControllers(delta);
+		MatrixRandom.use(previous);
 	}
 }
\ No newline at end of file
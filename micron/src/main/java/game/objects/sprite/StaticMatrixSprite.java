@@ -25,6 +25,7 @@ public class StaticMatrixSprite extends MatrixSprite
 	public StaticMatrixSprite(String imageReference)
 	{
 		this(new ImageSkin(imageReference));
+		setBatchImage(imageReference);
 	}
 
 	/*************************************************************************
@@ -47,7 +48,8 @@ public class StaticMatrixSprite extends MatrixSprite
 	public Skin skin() { return skin; }
 
 	/*************************************************************************
-	 * Redefines the active Skin.
+	 * Redefines the active Skin. Since the new Skin may not simply draw an 
+	 * Image, the sprite stops being batched and renders itself.
 	 * 
 	 * @param skin
 	 * 			  The skin to use for rendering.
@@ -55,6 +57,7 @@ public class StaticMatrixSprite extends MatrixSprite
 	public void setSkin(Skin skin)
 	{
 		this.skin = skin;
+		batchImage = null;
 	}
 
 	/*************************************************************************
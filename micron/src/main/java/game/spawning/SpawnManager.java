@@ -4,7 +4,7 @@ import game.objects.entities.player.Player;
 import game.world.Matrix;
 
 import org.jrabbit.base.core.types.Updateable;
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 import static game.spawning.Spawner.*;
 
 /*****************************************************************************
@@ -2,12 +2,13 @@ package game.spawning;
 
 import org.jrabbit.base.graphics.transforms.Vector2f;
 import org.jrabbit.base.managers.window.WindowManager;
-import static org.jrabbit.base.managers.Resources.*;
+import static game.world.MatrixRandom.random;
 
 import game.objects.entities.base.MatrixEntity;
 import game.objects.entities.hostile.Assaulter;
 import game.objects.entities.hostile.Juggernaut;
 import game.objects.entities.hostile.MineLayer;
+import game.objects.entities.hostile.WormChain;
 import game.objects.entities.hostile.WormSegment;
 import game.objects.entities.neutral.BlackHole;
 import game.objects.entities.neutral.Healer;
@@ -216,17 +217,13 @@ public abstract class Spawner
 			{
 				Vector2f location = matrix.camera().location().copy();
 				location.addPolar(screenDiag(), theta);
-				WormSegment tail = null;
-				WormSegment head = null;
-				for(int i = 0; i < numSegments; i++)
+				WormSegment[] segments = new WormSegment[numSegments];
+				for(int i = numSegments - 1; i >= 0; i--)
 				{
-					head = new WormSegment(target, location, tail);
-					if(tail != null)
-						tail.setAsTailTo(head);
-					matrix.add(head);
-					tail = head;
+					segments[i] = new WormSegment(target, location);
+					matrix.add(segments[i]);
 				}
-				head.setAsHead();
+				new WormChain(segments, numSegments).head().setAsHead();
 			}
 		}
 	}
@@ -0,0 +1,70 @@
+package game.visual.anim;
+
+import game.world.Matrix;
+import game.world.Pool;
+import game.world.Poolable;
+
+import org.jrabbit.base.graphics.skins.animation.AnimatedSkin;
+import org.jrabbit.base.graphics.transforms.Color;
+
+/*****************************************************************************
+ * A BurstAnimation is a SingleCycleMatrixAnimation that is recycled through a
+ * Pool once it has been removed from its Matrix.
+ * 
+ * Since it is killed just as its animation loops back around, its skin is
+ * already on the first frame by the time it is released, and it can be played
+ * again without being rebuilt.
+ *****************************************************************************/
+public class BurstAnimation extends SingleCycleMatrixAnimation implements
+		Poolable
+{
+	/**
+	 * The Pool the BurstAnimation is returned to.
+	 **/
+	protected Pool<BurstAnimation> pool;
+
+	/**
+	 * Whether or not the BurstAnimation is waiting in its Pool.
+	 **/
+	protected boolean free;
+
+	/*************************************************************************
+	 * Creates a BurstAnimation.
+	 * 
+	 * @param animation
+	 * 			  The AnimatedSkin to use for rendering.
+	 * @param pool
+	 * 			  The Pool the BurstAnimation is returned to.
+	 *************************************************************************/
+	public BurstAnimation(AnimatedSkin animation, Pool<BurstAnimation> pool)
+	{
+		super(animation, null);
+		this.pool = pool;
+	}
+
+	/*************************************************************************
+	 * Prepares the BurstAnimation to be played.
+	 * 
+	 * @param matrix
+	 * 			  The Matrix this will be placed in.
+	 * @param color
+	 * 			  The Color to tint the BurstAnimation.
+	 *************************************************************************/
+	public void reset(Matrix matrix, Color color)
+	{
+		this.matrix = matrix;
+		color().set(color);
+		free = false;
+	}
+
+	/*************************************************************************
+	 * Returns the BurstAnimation to its Pool.
+	 ***************************************************************/ @Override
+	public void release()
+	{
+		if(free)
+			return;
+		free = true;
+		pool.release(this);
+	}
+}
\ No newline at end of file
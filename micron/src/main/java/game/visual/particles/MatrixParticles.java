@@ -1,66 +1,422 @@
 package game.visual.particles;
 
+import game.world.MatrixRandom;
+import grid.QualityGovernor;
+
+import org.jrabbit.base.core.types.Renderable;
+import org.jrabbit.base.core.types.Updateable;
+import org.jrabbit.base.graphics.image.Image;
 import org.jrabbit.base.graphics.transforms.BlendOp;
 import org.jrabbit.base.graphics.transforms.Color;
 import org.jrabbit.base.graphics.transforms.Vector2f;
-import static org.jrabbit.base.managers.Resources.*;
-import org.jrabbit.standard.game.objects.particles.ParticleSprite;
-import org.jrabbit.standard.game.objects.particles.generic.ExplosionParticle;
+import org.jrabbit.base.managers.Resources;
+import static org.lwjgl.opengl.GL11.*;
 
 /*****************************************************************************
  * MatrixParticles defines the default particle effect system for a Matrix.
  * 
  * Micron is designed so that each game world only needs a single instance of
- * this class to handle its particles. When a new set of particles is needed, 
- * game entities can simply call the "burstAt" method to add a new effect. 
+ * this class to handle its particles. When a new set of particles is needed,
+ * game entities can simply call the "burstAt" method to add a new effect.
+ * 
+ * Particles are not objects; each one is a slot in a set of parallel arrays
+ * that are allocated once, when the MatrixParticles is created. The slots are
+ * used as a ring buffer, so once every slot is taken, new particles overwrite
+ * the oldest ones. Updating is a single pass over the live slots, and
+ * rendering draws every particle that shares an image in a single batch.
+ * 
+ * Particles are moved by the Matrix's update steps, and rendered where the
+ * last step left them. Unlike the Matrix's sprites, they are not interpolated
+ * between steps, so at display rates above the step rate they visibly 
+ * stutter.
+ * 
+ * Bursts are thinned out by the Matrix's QualityGovernor when frames are
+ * running over budget. Since that depends on how fast the machine is, the
+ * particles draw from a random stream of their own, rather than from the 
+ * stream of whatever is bursting.
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class MatrixParticles extends ParticleSprite.Images
+public class MatrixParticles implements Updateable, Renderable
 {
+	/**
+	 * The default number of particles that can be alive at once.
+	 **/
+	public static final int CAPACITY = 4096;
+
+	/**
+	 * The references of the images used to render the particles.
+	 **/
+	private static final String[] IMAGES = { "Particle 1", "Particle 2",
+			"Particle 3", "Particle 4", "Particle 5", "Particle 6",
+			"Particle 7", "Particle 8" };
+
+	/**
+	 * The opacity particles start with. Since this is above 1, particles stay
+	 * fully opaque for a while before they begin to visibly fade.
+	 **/
+	private static final float START_ALPHA = 1.6f;
+
+	/**
+	 * The number of ticks of delta that the fade and acceleration given to 
+	 * jrabbit's ExplosionParticle were applied over.
+	 * 
+	 * Each particle used to be an ExplosionParticle, created with a starting
+	 * alpha of 1.6, a fade of 0.018 * (1 + r) and an acceleration of -0.0001 *
+	 * (1 + r), each with its own random r in [0, 1). An ExplosionParticle 
+	 * lowers its alpha by its fade, and its speed by the size of its 
+	 * acceleration (down to a standstill), for every 100 ticks that pass. 
+	 * The Matrix's ticks are 1e-4 s long, so a particle lasted 1.6 / (0.018 *
+	 * (1 + r)) hundredths of a second: 0.44 to 0.89 s. Taken per tick, the 
+	 * same fade would end every particle within 9 ms, before a single frame.
+	 **/
+	private static final float RATE_TICKS = 100;
+
+	/**
+	 * The slowest rate at which particles fade, per tick: 0.018 / 100. 
+	 **/
+	private static final float FADE_RATE = 0.018f / RATE_TICKS;
+
+	/**
+	 * The gentlest deceleration of particles, in speed lost per tick: 0.0001
+	 * / 100. Over its life, a particle launched at 0.1 loses 4 to 18% of its
+	 * speed.
+	 **/
+	private static final float DECELERATION = 0.0001f / RATE_TICKS;
+
+	/**
+	 * The smallest scale of a particle.
+	 **/
+	private static final float BASE_SCALE = 4f;
+
+	/**
+	 * The QualityGovernor that decides how many particles each burst creates.
+	 **/
+	protected QualityGovernor quality;
+
+	/**
+	 * The random stream the particles are scattered with.
+	 **/
+	protected MatrixRandom random;
+
+	/**
+	 * The Images used to render the particles.
+	 **/
+	protected Image[] images;
+
+	/**
+	 * The half-dimensions and texture extents of each Image, looked up once.
+	 **/
+	protected float[] halfWidth, halfHeight, texWidth, texHeight;
+
+	/**
+	 * The locations of the particles.
+	 **/
+	protected float[] x, y;
+
+	/**
+	 * The direction each particle moves in, as a unit vector.
+	 **/
+	protected float[] headingX, headingY;
+
+	/**
+	 * The speed of each particle, and how quickly it slows down.
+	 **/
+	protected float[] speed, deceleration;
+
+	/**
+	 * The opacity of each particle, and how quickly it fades.
+	 **/
+	protected float[] alpha, fade;
+
+	/**
+	 * The scale of each particle.
+	 **/
+	protected float[] scale;
+
+	/**
+	 * The color of each particle.
+	 **/
+	protected float[] red, green, blue;
+
+	/**
+	 * The index of the Image each particle is rendered with.
+	 **/
+	protected byte[] skin;
+
+	/**
+	 * The slots of the live particles, sorted by Image when rendering.
+	 **/
+	protected int[] order;
+
+	/**
+	 * The number of live particles using each Image, and where each Image's
+	 * particles are placed in the order array.
+	 **/
+	protected int[] skinCounts, skinStarts;
+
+	/**
+	 * The number of slots.
+	 **/
+	protected int capacity;
+
+	/**
+	 * The slot the next particle is placed in.
+	 **/
+	protected int head;
+
+	/**
+	 * The number of slots, counting back from the head, that may still hold
+	 * a live particle.
+	 **/
+	protected int count;
+
 	/*************************************************************************
-	 * Creates a MatrixParticles that uses the predefined images for its 
-	 * particles. 
+	 * Creates a MatrixParticles that uses the predefined images for its
+	 * particles, with the default capacity.
+	 * 
+	 * @param quality
+	 * 			  The QualityGovernor that decides how many particles each 
+	 * 			  burst creates.
+	 * @param random
+	 * 			  The random stream to scatter the particles with.
 	 *************************************************************************/
-	public MatrixParticles()
+	public MatrixParticles(QualityGovernor quality, MatrixRandom random)
 	{
-		super(	"Particle 1",
-				"Particle 2",
-				"Particle 3",
-				"Particle 4",
-				"Particle 5",
-				"Particle 6",
-				"Particle 7",
-				"Particle 8");
-		blending.set(BlendOp.ADDITIVE);
+		this(quality, random, CAPACITY);
 	}
-	
+
 	/*************************************************************************
-	 * Creates an explosion of particles at the indicated location.
+	 * Creates a MatrixParticles that uses the predefined images for its
+	 * particles.
+	 * 
+	 * @param quality
+	 * 			  The QualityGovernor that decides how many particles each 
+	 * 			  burst creates.
+	 * @param random
+	 * 			  The random stream to scatter the particles with.
+	 * @param capacity
+	 * 			  The most particles that can be alive at once.
+	 *************************************************************************/
+	public MatrixParticles(QualityGovernor quality, MatrixRandom random, 
+			int capacity)
+	{
+		this.quality = quality;
+		this.random = random;
+		this.capacity = capacity;
+		images = new Image[IMAGES.length];
+		halfWidth = new float[IMAGES.length];
+		halfHeight = new float[IMAGES.length];
+		texWidth = new float[IMAGES.length];
+		texHeight = new float[IMAGES.length];
+		for(int i = 0; i < images.length; i++)
+		{
+			images[i] = Resources.images().get(IMAGES[i]);
+			halfWidth[i] = images[i].width() / 2f;
+			halfHeight[i] = images[i].height() / 2f;
+			texWidth[i] = images[i].widthRatio();
+			texHeight[i] = images[i].heightRatio();
+		}
+		x = new float[capacity];
+		y = new float[capacity];
+		headingX = new float[capacity];
+		headingY = new float[capacity];
+		speed = new float[capacity];
+		deceleration = new float[capacity];
+		alpha = new float[capacity];
+		fade = new float[capacity];
+		scale = new float[capacity];
+		red = new float[capacity];
+		green = new float[capacity];
+		blue = new float[capacity];
+		skin = new byte[capacity];
+		order = new int[capacity];
+		skinCounts = new int[IMAGES.length];
+		skinStarts = new int[IMAGES.length];
+	}
+
+	/*************************************************************************
+	 * Creates an explosion of particles at the indicated location. If there
+	 * isn't room for them, the oldest particles are replaced. Fewer particles
+	 * are created while the QualityGovernor has lowered the level of detail.
 	 * 
 	 * @param location
 	 * 			  The location to spawn the particles at.
 	 * @param color
 	 * 			  The color of the particles to create.
 	 * @param number
-	 * 			  The number of particles to create.
+	 * 			  The number of particles to create at full detail.
 	 * @param speed
 	 * 			  How quickly the spawned particles should move away from the
 	 * 			  center of the explosion.
 	 *************************************************************************/
 	public void burstAt(Vector2f location, Color color, int number, float speed)
 	{
-		this.color.set(color);
-		this.location.set(location);
-		
+		float cX = location.x();
+		float cY = location.y();
+		float r = color.red();
+		float g = color.green();
+		float b = color.blue();
+		number = quality.scale(number);
 		for(int i = 0; i < number; i++)
 		{
-			ExplosionParticle particle = new ExplosionParticle(speed * 
-					random().nextFloat(),  -0.0001f * (random().nextFloat() + 1f),
-					0.018f * (random().nextFloat() + 1f), 1.6f);
-			particle.setSkinID(random().nextInt(skins.length));
-			particle.scalar().setScale(4f * (random().nextFloat() + 1f));
-			add(particle);
+			int slot = head;
+			double angle = random.nextFloat() * Math.PI * 2;
+			x[slot] = cX;
+			y[slot] = cY;
+			headingX[slot] = (float) Math.cos(angle);
+			headingY[slot] = (float) Math.sin(angle);
+			this.speed[slot] = speed * random.nextFloat();
+			deceleration[slot] = DECELERATION * (random.nextFloat() + 1f);
+			alpha[slot] = START_ALPHA;
+			fade[slot] = FADE_RATE * (random.nextFloat() + 1f);
+			scale[slot] = BASE_SCALE * (random.nextFloat() + 1f);
+			red[slot] = r;
+			green[slot] = g;
+			blue[slot] = b;
+			skin[slot] = (byte) random.nextInt(IMAGES.length);
+			head = (head + 1) % capacity;
+		}
+		count = Math.min(count + number, capacity);
+	}
+
+	/*************************************************************************
+	 * Learns how many slots may still hold a live particle.
+	 * 
+	 * @return The number of particles being updated.
+	 *************************************************************************/
+	public int size() { return count; }
+
+	/*************************************************************************
+	 * Learns how many particles can be alive at once.
+	 * 
+	 * @return The number of slots.
+	 *************************************************************************/
+	public int capacity() { return capacity; }
+
+	/*************************************************************************
+	 * Removes every particle.
+	 *************************************************************************/
+	public void clear()
+	{
+		count = 0;
+	}
+
+	/*************************************************************************
+	 * Moves, slows and fades every live particle, as an ExplosionParticle 
+	 * would have been over the same number of ticks. Once the oldest particles
+	 * have faded out, their slots stop being updated.
+	 * 
+	 * @param delta
+	 * 			  The number of clock ticks since the last update.
+	 ***************************************************************/ @Override
+	public void update(int delta)
+	{
+		int slot = head - count;
+		if(slot < 0)
+			slot += capacity;
+		for(int i = 0; i < count; i++)
+		{
+			if(alpha[slot] > 0)
+			{
+				float step = speed[slot] * delta;
+				x[slot] += headingX[slot] * step;
+				y[slot] += headingY[slot] * step;
+				speed[slot] = Math.max(speed[slot] - 
+						deceleration[slot] * delta, 0);
+				alpha[slot] -= fade[slot] * delta;
+			}
+			if(++slot == capacity)
+				slot = 0;
+		}
+		int tail = head - count;
+		if(tail < 0)
+			tail += capacity;
+		while(count > 0 && alpha[tail] <= 0)
+		{
+			count--;
+			if(++tail == capacity)
+				tail = 0;
+		}
+	}
+
+	/*************************************************************************
+	 * Renders every live particle. The particles are sorted by Image, and
+	 * each Image is bound once and draws all of its particles in one batch.
+	 ***************************************************************/ @Override
+	public void render()
+	{
+		if(count == 0)
+			return;
+		sort();
+		BlendOp.ADDITIVE.bind();
+		int start = 0;
+		for(int s = 0; s < images.length; s++)
+		{
+			int end = start + skinCounts[s];
+			if(end == start)
+				continue;
+			float w = halfWidth[s];
+			float h = halfHeight[s];
+			float tW = texWidth[s];
+			float tH = texHeight[s];
+			images[s].bind();
+			glBegin(GL_QUADS);
+			for(int i = start; i < end; i++)
+			{
+				int p = order[i];
+				float sW = w * scale[p];
+				float sH = h * scale[p];
+				glColor4f(red[p], green[p], blue[p], Math.min(alpha[p], 1f));
+				glTexCoord2f(0, 0);
+				glVertex2f(x[p] - sW, y[p] - sH);
+				glTexCoord2f(tW, 0);
+				glVertex2f(x[p] + sW, y[p] - sH);
+				glTexCoord2f(tW, tH);
+				glVertex2f(x[p] + sW, y[p] + sH);
+				glTexCoord2f(0, tH);
+				glVertex2f(x[p] - sW, y[p] + sH);
+			}
+			glEnd();
+			start = end;
+		}
+		glColor4f(1, 1, 1, 1);
+		BlendOp.ADDITIVE.release();
+	}
+
+	/*************************************************************************
+	 * Fills the order array with the slots of the live particles, grouped by
+	 * Image. This is a counting sort, so it takes two passes and allocates
+	 * nothing.
+	 *************************************************************************/
+	private void sort()
+	{
+		for(int s = 0; s < skinCounts.length; s++)
+			skinCounts[s] = 0;
+		int first = head - count;
+		if(first < 0)
+			first += capacity;
+		int slot = first;
+		for(int i = 0; i < count; i++)
+		{
+			if(alpha[slot] > 0)
+				skinCounts[skin[slot]]++;
+			if(++slot == capacity)
+				slot = 0;
+		}
+		int offset = 0;
+		for(int s = 0; s < skinCounts.length; s++)
+		{
+			skinStarts[s] = offset;
+			offset += skinCounts[s];
+		}
+		slot = first;
+		for(int i = 0; i < count; i++)
+		{
+			if(alpha[slot] > 0)
+				order[skinStarts[skin[slot]]++] = slot;
+			if(++slot == capacity)
+				slot = 0;
 		}
 	}
 }
\ No newline at end of file
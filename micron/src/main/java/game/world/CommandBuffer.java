@@ -0,0 +1,163 @@
+package game.world;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/*****************************************************************************
+ * A CommandBuffer records additions to and removals from a world while it is 
+ * being updated, so that they can all be performed at once at a safe point.
+ * This lets the world's lists be iterated over freely, with no need for them
+ * to lock themselves.
+ * 
+ * Commands are kept in the order they were recorded. Removing an object that
+ * is already waiting to be removed does nothing, so an object that is killed
+ * several times in the same update is only taken out once.
+ * 
+ * The buffer is meant to be reused every update; once its arrays have grown 
+ * to fit a busy update, recording commands does no allocation.
+ *****************************************************************************/
+public class CommandBuffer
+{
+	/**
+	 * The object each command applies to.
+	 **/
+	protected Object[] objects;
+	
+	/**
+	 * The layer each added object should be placed on (null for removals, or 
+	 * for additions that use the default).
+	 **/
+	protected String[] layers;
+	
+	/**
+	 * Whether each command is an addition (true) or a removal (false).
+	 **/
+	protected boolean[] additions;
+	
+	/**
+	 * The number of commands recorded.
+	 **/
+	protected int count;
+	
+	/**
+	 * The objects that are currently waiting to be removed.
+	 **/
+	protected Map<Object, Boolean> removing;
+	
+	/*************************************************************************
+	 * Creates an empty CommandBuffer.
+	 * 
+	 * @param capacity
+	 * 			  The number of commands to make room for in advance.
+	 *************************************************************************/
+	public CommandBuffer(int capacity)
+	{
+		objects = new Object[capacity];
+		layers = new String[capacity];
+		additions = new boolean[capacity];
+		removing = new IdentityHashMap<Object, Boolean>(capacity);
+	}
+	
+	/*************************************************************************
+	 * Records that an object should be added.
+	 * 
+	 * @param layer
+	 * 			  The layer to add the object to, or null for its default.
+	 * @param object
+	 * 			  The object to add.
+	 *************************************************************************/
+	public void add(String layer, Object object)
+	{
+		removing.remove(object);
+		record(layer, object, true);
+	}
+	
+	/*************************************************************************
+	 * Records that an object should be removed, unless it already will be.
+	 * 
+	 * @param object
+	 * 			  The object to remove.
+	 * 
+	 * @return True if the removal was recorded, false if it was a duplicate.
+	 *************************************************************************/
+	public boolean remove(Object object)
+	{
+		if(removing.put(object, Boolean.TRUE) != null)
+			return false;
+		record(null, object, false);
+		return true;
+	}
+	
+	/*************************************************************************
+	 * Learns how many commands are waiting to be performed.
+	 * 
+	 * @return The number of commands recorded since the last clear().
+	 *************************************************************************/
+	public int size() { return count; }
+	
+	/*************************************************************************
+	 * Accesses the object of a recorded command.
+	 * 
+	 * @param index
+	 * 			  Which command to access; must be less than size().
+	 * 
+	 * @return The object to add or remove.
+	 *************************************************************************/
+	public Object object(int index) { return objects[index]; }
+	
+	/*************************************************************************
+	 * Accesses the layer of a recorded command.
+	 * 
+	 * @param index
+	 * 			  Which command to access; must be less than size().
+	 * 
+	 * @return The layer to add the object to, or null.
+	 *************************************************************************/
+	public String layer(int index) { return layers[index]; }
+	
+	/*************************************************************************
+	 * Learns whether a recorded command is an addition or a removal.
+	 * 
+	 * @param index
+	 * 			  Which command to check; must be less than size().
+	 * 
+	 * @return True if the object should be added, false if it should be 
+	 * 		   removed.
+	 *************************************************************************/
+	public boolean isAddition(int index) { return additions[index]; }
+	
+	/*************************************************************************
+	 * Forgets every recorded command, keeping the buffer's capacity.
+	 *************************************************************************/
+	public void clear()
+	{
+		Arrays.fill(objects, 0, count, null);
+		Arrays.fill(layers, 0, count, null);
+		count = 0;
+		removing.clear();
+	}
+	
+	/*************************************************************************
+	 * Appends a command to the buffer.
+	 * 
+	 * @param layer
+	 * 			  The layer of the command.
+	 * @param object
+	 * 			  The object of the command.
+	 * @param addition
+	 * 			  True for an addition, false for a removal.
+	 *************************************************************************/
+	private void record(String layer, Object object, boolean addition)
+	{
+		if(count == objects.length)
+		{
+			objects = Arrays.copyOf(objects, count * 2);
+			layers = Arrays.copyOf(layers, count * 2);
+			additions = Arrays.copyOf(additions, count * 2);
+		}
+		objects[count] = object;
+		layers[count] = layer;
+		additions[count++] = addition;
+	}
+}
\ No newline at end of file
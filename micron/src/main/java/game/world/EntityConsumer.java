@@ -0,0 +1,21 @@
+package game.world;
+
+import game.objects.entities.base.MatrixEntity;
+
+/*****************************************************************************
+ * An EntityConsumer is handed each MatrixEntity found by a radial query of a
+ * Matrix, along with how far it is from the center of the query.
+ *****************************************************************************/
+public interface EntityConsumer
+{
+	/*************************************************************************
+	 * Acts upon a MatrixEntity found by the query.
+	 * 
+	 * @param entity
+	 * 			  The MatrixEntity that was found.
+	 * @param distanceSquared
+	 * 			  The squared distance from the center of the query to the 
+	 * 			  MatrixEntity's location.
+	 *************************************************************************/
+	public void accept(MatrixEntity entity, float distanceSquared);
+}
\ No newline at end of file
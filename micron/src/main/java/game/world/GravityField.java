@@ -0,0 +1,127 @@
+package game.world;
+
+import java.util.Arrays;
+
+import org.jrabbit.base.graphics.transforms.Vector2f;
+
+import game.objects.debris.base.Debris;
+import game.objects.debris.base.GravityWell;
+import game.objects.debris.base.Vacuum;
+
+/*****************************************************************************
+ * The GravityField handles the interaction between the Vacuums and the Debris
+ * in a Matrix.
+ * 
+ * Each update, all Debris is sorted into a coarse SpatialHash. A GravityWell 
+ * then only visits the Debris in the cells within its radius of influence,
+ * and the pull is calculated from squared distances without creating any 
+ * temporary vectors. Any other kind of Vacuum is still checked against every
+ * piece of Debris.
+ *****************************************************************************/
+public class GravityField
+{
+	/**
+	 * The size of the cells that Debris is sorted into.
+	 **/
+	private static final float CELL_SIZE = 256f;
+	
+	/**
+	 * The Matrix whose Debris is being handled.
+	 **/
+	protected Matrix matrix;
+	
+	/**
+	 * Sorts the Debris by location.
+	 **/
+	protected SpatialHash debrisHash;
+	
+	/**
+	 * The Debris that was inserted into the SpatialHash, indexed by its ID in
+	 * the hash.
+	 **/
+	protected Debris[] hashedDebris;
+	
+	/*************************************************************************
+	 * Creates a GravityField for the indicated Matrix.
+	 * 
+	 * @param matrix
+	 * 			  The Matrix whose Debris will be pulled and removed.
+	 *************************************************************************/
+	public GravityField(Matrix matrix)
+	{
+		this.matrix = matrix;
+		debrisHash = new SpatialHash(512);
+		hashedDebris = new Debris[64];
+	}
+	
+	/*************************************************************************
+	 * Applies every Vacuum to the Debris around it, removing any Debris that
+	 * gets consumed.
+	 * 
+	 * @param vacuums
+	 * 			  The Vacuums in the Matrix.
+	 * @param debris
+	 * 			  The Debris in the Matrix.
+	 *************************************************************************/
+	public void apply(Iterable<Vacuum> vacuums, Iterable<Debris> debris)
+	{
+		int count = 0;
+		debrisHash.clear(CELL_SIZE);
+		for(Debris chunk : debris)
+		{
+			if(count == hashedDebris.length)
+				hashedDebris = Arrays.copyOf(hashedDebris, count * 2);
+			hashedDebris[count] = chunk;
+			debrisHash.insert(count++, chunk.location().x(), 
+					chunk.location().y(), 0);
+		}
+		for(Vacuum vacuum : vacuums)
+		{
+			if(vacuum instanceof GravityWell)
+				pull((GravityWell) vacuum);
+			else
+				for(int i = 0; i < count; i++)
+					if(vacuum.shouldRemove(hashedDebris[i]))
+						matrix.remove(hashedDebris[i]);
+		}
+		Arrays.fill(hashedDebris, 0, count, null);
+	}
+	
+	/*************************************************************************
+	 * Pulls all Debris within reach of the GravityWell towards it, and removes
+	 * any that has crossed its event horizon.
+	 * 
+	 * @param well
+	 * 			  The GravityWell to apply.
+	 *************************************************************************/
+	private void pull(GravityWell well)
+	{
+		float x = well.location().x();
+		float y = well.location().y();
+		float reach = well.influenceRadius();
+		float reachSquared = reach * reach;
+		float horizon = well.horizon();
+		float horizonSquared = horizon * horizon;
+		float pull = well.pull();
+		int found = debrisHash.query(x, y, reach);
+		for(int i = 0; i < found; i++)
+		{
+			Debris chunk = hashedDebris[debrisHash.found(i)];
+			Vector2f location = chunk.location();
+			float dx = x - location.x();
+			float dy = y - location.y();
+			float distSquared = dx * dx + dy * dy;
+			if(distSquared > reachSquared)
+				continue;
+			
+			// The pull is (pull / dist) along the unit vector (dx, dy) / dist.
+			if(distSquared > 0)
+			{
+				float scale = pull / distSquared;
+				chunk.force().add(dx * scale, dy * scale);
+			}
+			if(distSquared <= horizonSquared)
+				matrix.remove(chunk);
+		}
+	}
+}
\ No newline at end of file
@@ -1,11 +1,18 @@
 package game.world;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.jrabbit.base.core.types.Renderable;
 import org.jrabbit.base.core.types.Updateable;
-import org.jrabbit.base.data.structures.LockingList;
 import org.jrabbit.base.graphics.layers.types.BlendedLayer;
 import org.jrabbit.base.graphics.transforms.BlendOp;
 import org.jrabbit.base.input.KeyboardHandler;
+import org.jrabbit.base.managers.window.WindowManager;
+import org.jrabbit.base.math.vector.BaseVector2f;
 import org.lwjgl.input.Keyboard;
 
 import settings.MicronGameSettings;
@@ -13,8 +20,11 @@ import settings.MicronGameSettings;
 import loading.MicronCursors;
 import game.objects.ComplexObject;
 import game.objects.Cullable;
+import game.objects.FactionedSprite;
+import game.objects.PhysSprite;
 import game.objects.debris.base.*;
 import game.objects.effects.base.MatrixEffect;
+import game.objects.effects.projectiles.ProjectilePools;
 import game.objects.entities.base.MatrixEntity;
 import game.objects.entities.player.Player;
 import game.objects.entities.player.gui.PlayerGUI;
@@ -36,7 +46,7 @@ public class Matrix extends GridWorld
 	/**
 	 * The maximum possible complexity a Matrix can have.
 	 **/
-	private static final int MAX_COMPLEXITY = 500;
+	static final int MAX_COMPLEXITY = 500;
 	
 	/**
 	 * The initial complexity a Matrix will have.
@@ -47,6 +57,72 @@ public class Matrix extends GridWorld
 	 * The rate at which a Matrix's max complexity will increase.
 	 **/
 	private static final float COMPLEXITY_INCR_RATE = 0.00005f;
+
+	/**
+	 * A faction mask that includes every faction.
+	 **/
+	public static final int ALL_FACTIONS = -1;
+
+	/**
+	 * The length of each simulation step (a hundredth of a second).
+	 **/
+	private static final int STEP_LENGTH = 100;
+
+	/**
+	 * The smallest allowed size of the cells used to find potential collisions.
+	 **/
+	static final float MIN_CELL_SIZE = 32f;
+
+	/**
+	 * The most updates an object can go without being checked for culling.
+	 **/
+	private static final int CULL_INTERVAL = 8;
+
+	/**
+	 * Objects further than this fraction of their culling radius from the 
+	 * camera are checked for culling on every update.
+	 **/
+	private static final float CULL_MARGIN = 0.75f;
+
+	/**
+	 * The number of commands the CommandBuffer makes room for in advance.
+	 **/
+	private static final int COMMAND_CAPACITY = 256;
+
+	/**
+	 * MatrixSprites within this many screen diagonals of the camera are 
+	 * treated as visible.
+	 **/
+	private static final float VISIBLE_RANGE = 0.75f;
+
+	/**
+	 * MatrixSprites further than this many screen diagonals from the camera 
+	 * only update their Controllers every FAR_INTERVAL updates.
+	 **/
+	private static final float FAR_RANGE = 1.25f;
+
+	/**
+	 * The number of updates between each Controller update for far away 
+	 * MatrixSprites.
+	 **/
+	private static final int FAR_INTERVAL = 4;
+
+	/**
+	 * The IDs of the Registries a Matrix keeps its objects in.
+	 **/
+	private static final int SPRITES = 0, LAYERED = 1, ENTITIES = 2, 
+			EFFECTS = 3, DEBRIS = 4, VACUUMS = 5, COSMETICS = 6;
+
+	/**
+	 * The number of low bits of each placement key that hold the MatrixEntity's
+	 * position in its Registry. A Registry never holds more than 2^20 objects.
+	 **/
+	private static final int POSITION_BITS = 20;
+
+	/**
+	 * Masks out the position from a placement key.
+	 **/
+	private static final long POSITION_MASK = (1 << POSITION_BITS) - 1;
 	
 	/**
 	 * Whether or not Micron to exit to the main menu once the Matrix finishes 
@@ -60,25 +136,140 @@ public class Matrix extends GridWorld
 	 **/
 	protected float timeRate;
 
+	/**
+	 * The PhysSprites in the world. These are updated by the Matrix itself, 
+	 * rather than through the world's list of Updateables.
+	 **/
+	protected Registry<PhysSprite> sprites;
+
+	/**
+	 * The cosmetic MatrixSprites in the world. They are kept apart from the
+	 * other PhysSprites, so that whether or not they were spawned never 
+	 * changes the order in which the rest are updated.
+	 **/
+	protected Registry<PhysSprite> cosmeticSprites;
+
+	/**
+	 * The SpriteLayers that render the PhysSprites, by layer name.
+	 **/
+	protected Map<String, SpriteLayer> spriteLayers;
+
+	/**
+	 * Updates the PhysSprites that can be updated in parallel.
+	 **/
+	protected ParallelUpdate parallel;
+
+	/**
+	 * The PhysSprites that must be updated on the main thread, after those 
+	 * that are updated in parallel.
+	 **/
+	protected List<PhysSprite> serialSprites;
+
+	/**
+	 * Records additions and removals made while the Matrix is being updated.
+	 **/
+	protected CommandBuffer commands;
+
+	/**
+	 * The root random stream of the Matrix. Each MatrixSprite is given a 
+	 * stream split from this one when it is added.
+	 **/
+	protected MatrixRandom random;
+
+	/**
+	 * The random stream that cosmetic objects draw from. It is split from the
+	 * root stream once, as the Matrix is created, so that however much detail
+	 * the QualityGovernor allows, the root stream is drawn from the same way.
+	 **/
+	protected MatrixRandom cosmeticRandom;
+
+	/**
+	 * The Pools that projectiles and their bursts are recycled through.
+	 **/
+	protected ProjectilePools projectiles;
+
+	/**
+	 * Whether or not the Matrix is in the middle of an update, in which case 
+	 * additions and removals are recorded and performed at the next flush().
+	 **/
+	protected boolean stepping;
+
 	/**
 	 * The current Debris in the world.
 	 **/
-	protected LockingList<Debris> debris;
+	protected Registry<Debris> debris;
 
 	/**
 	 * The current Vacuums that can destroy Debris.
 	 **/
-	protected LockingList<Vacuum> vacuums;
+	protected Registry<Vacuum> vacuums;
+
+	/**
+	 * Pulls Debris towards the Vacuums near it.
+	 **/
+	protected GravityField gravity;
 
 	/**
 	 * The list of MatrixEntities that are considered "actors" in the gameworld.
 	 **/
-	protected LockingList<MatrixEntity> entities;
+	protected Registry<MatrixEntity> entities;
+
+	/**
+	 * The sequence number given to the next MatrixEntity placed in the Matrix.
+	 **/
+	protected long nextSequence;
 
 	/**
 	 * The list of MatrixEffects that act upon the list of MatrixEntities.
 	 **/
-	protected LockingList<MatrixEffect> effects;
+	protected Registry<MatrixEffect> effects;
+
+	/**
+	 * Sorts the MatrixEntities of each faction by location, so that each
+	 * MatrixEffect only has to be checked against the MatrixEntities near it
+	 * that belong to factions it can affect.
+	 **/
+	protected SpatialHash[] entityHashes;
+
+	/**
+	 * For each faction, a bitmask of the factions that at least one of its
+	 * hashed MatrixEntities is hostile to.
+	 **/
+	protected int[] factionHostility;
+
+	/**
+	 * The MatrixEntities that were inserted into the SpatialHashes, indexed by
+	 * their ID in the hashes.
+	 **/
+	protected MatrixEntity[] hashedEntities;
+
+	/**
+	 * For each MatrixEntity, its sequence number and its position in the 
+	 * Registry packed into a single key, so that sorting the keys puts the 
+	 * MatrixEntities in the order they were placed.
+	 **/
+	protected long[] placementKeys;
+
+	/**
+	 * The IDs of the MatrixEntities that the current MatrixEffect might affect.
+	 **/
+	protected int[] candidates;
+
+	/**
+	 * The IDs of the MatrixEntities that the current radial query might find.
+	 **/
+	protected int[] nearby;
+
+	/**
+	 * The number of MatrixEntities in hashedEntities.
+	 **/
+	protected int hashedCount;
+
+	/**
+	 * Whether or not the SpatialHashes are up to date, which is only the case
+	 * while MatrixEffects are being checked.
+	 **/
+	protected boolean indexed;
 	
 	/**
 	 * The player.
@@ -104,13 +295,39 @@ public class Matrix extends GridWorld
 	 * The sum of the complexity of all ComplexObjects in the Matrix.
 	 **/
 	protected int currentComplexity;
+
+	/**
+	 * Used to stagger when objects are next checked for culling, so that their
+	 * checks are spread out evenly over time.
+	 **/
+	protected int cullStagger;
+
+	/**
+	 * The location of the camera at the start of the last simulation step.
+	 **/
+	protected float previousCameraX, previousCameraY;
 	
 	/*************************************************************************
-	 * Creates a Matrix. It is ready for play once created; simply make it the
-	 * active world and it will handle everything else.
+	 * Creates a Matrix with a random seed. It is ready for play once created; 
+	 * simply make it the active world and it will handle everything else.
 	 *************************************************************************/
 	public Matrix()
 	{
+		this(System.nanoTime());
+	}
+
+	/*************************************************************************
+	 * Creates a Matrix whose random events are all decided by the indicated
+	 * seed, so that the same seed and input always play out the same way.
+	 * 
+	 * @param seed
+	 * 			  The seed of the Matrix's root random stream.
+	 *************************************************************************/
+	public Matrix(long seed)
+	{
+		random = new MatrixRandom(seed);
+		cosmeticRandom = random.split();
+		MatrixRandom previous = MatrixRandom.use(random);
 		timeRate = 1f;
 		maxComplexity = START_COMPLEXITY;
 		layers.add(	"Debris");
@@ -126,138 +343,312 @@ public class Matrix extends GridWorld
 					new BlendedLayer("Black Hole Aura", new BlendOp.Additive()));
 		layers.add(	"Black Hole",
 					"GUI");
-		debris = new LockingList<Debris>();
-		vacuums = new LockingList<Vacuum>();
-		entities = new LockingList<MatrixEntity>();
-		effects = new LockingList<MatrixEffect>();
+		sprites = new Registry<PhysSprite>(SPRITES);
+		cosmeticSprites = new Registry<PhysSprite>(COSMETICS);
+		spriteLayers = new HashMap<String, SpriteLayer>();
+		parallel = new ParallelUpdate();
+		serialSprites = new ArrayList<PhysSprite>();
+		commands = new CommandBuffer(COMMAND_CAPACITY);
+		projectiles = new ProjectilePools(this);
+		debris = new Registry<Debris>(DEBRIS);
+		vacuums = new Registry<Vacuum>(VACUUMS);
+		gravity = new GravityField(this);
+		entities = new Registry<MatrixEntity>(ENTITIES);
+		effects = new Registry<MatrixEffect>(EFFECTS);
+		entityHashes = new SpatialHash[FactionedSprite.FACTIONS];
+		for(int i = 0; i < entityHashes.length; i++)
+			entityHashes[i] = new SpatialHash(1024);
+		factionHostility = new int[FactionedSprite.FACTIONS];
+		hashedEntities = new MatrixEntity[64];
+		placementKeys = new long[64];
+		candidates = new int[64];
+		nearby = new int[64];
+		setStepLength(STEP_LENGTH);
 		add(new SpawnManager(this));
 		add(player = new Player());
 		add(new PlayerGUI(player), "GUI");
-		add("Burst", particles = new MatrixParticles());
+		add(new ProfileDisplay(this), "GUI");
+		add("Burst", particles = new MatrixParticles(quality, 
+				cosmeticRandom));
+		MatrixRandom.use(previous);
 	}
 
 	/*************************************************************************
 	 * Adds the object to the world. The object is added to all appropriate 
-	 * lists, based on its type.
+	 * lists, based on its type. During a parallel update, this is deferred 
+	 * until the update is complete.
 	 * 
 	 * @param object
 	 * 			  The object to add. 
 	 ***************************************************************/ @Override
-	public void add(Object object)
+	public void add(final Object object)
 	{
-		boolean cantAdd = false;
-		if(object instanceof ComplexObject)
-		{
-			int comp = ((ComplexObject) object).complexity();
-			if(currentComplexity + comp <= maxComplexity)
-				currentComplexity += comp;
-			else
-				cantAdd = true;
-		}
-		if(cantAdd)
-			return;
-		
-		if(object instanceof MatrixSprite)
-		{
-			((MatrixSprite) object).addedToMatrix(this);
-			layers.add((Renderable) object, ((MatrixSprite) object).layer());
-			updated.add(((MatrixSprite) object));
-			if(object instanceof MatrixEntity)
-				entities.add((MatrixEntity) object);
-			else if(object instanceof MatrixEffect)
-				effects.add((MatrixEffect) object);
-		}
+		if(ParallelUpdate.deferring())
+			ParallelUpdate.defer(new Runnable() {
+				public void run()
+				{
+					register(null, object);
+				}});
 		else
-		{
-			if(object instanceof Renderable)
-				layers.add((Renderable) object);
-			if(object instanceof Updateable)
-				updated.add((Updateable) object);
-		}
-		if(object instanceof Vacuum)
-			vacuums.add((Vacuum) object);
-		if(object instanceof Debris)
-			debris.add((Debris) object);
+			register(null, object);
 	}
 
 	/*************************************************************************
 	 * Adds the object to the world. The object is added to all appropriate 
-	 * lists, based on its type.
+	 * lists, based on its type. During a parallel update, this is deferred 
+	 * until the update is complete.
 	 * 
 	 * @param layer
 	 * 			  The layer to add the object to, if it is Renderable. 
 	 * @param object
 	 * 			  The object to add. 
 	 ***************************************************************/ @Override
-	public void add(String layer, Object object)
+	public void add(final String layer, final Object object)
+	{
+		if(ParallelUpdate.deferring())
+			ParallelUpdate.defer(new Runnable() {
+				public void run()
+				{
+					register(layer, object);
+				}});
+		else
+			register(layer, object);
+	}
+
+	/*************************************************************************
+	 * Adds the object to the Matrix. Its complexity is counted and it is told
+	 * about the Matrix right away, but while the Matrix is being updated, the
+	 * object is only placed in the Matrix's lists at the next flush().
+	 * 
+	 * @param layer
+	 * 			  The layer to add the object to, if it is Renderable.
+	 * @param object
+	 * 			  The object to add. 
+	 *************************************************************************/
+	private void register(String layer, Object object)
 	{
-		boolean cantAdd = false;
-		if(object instanceof ComplexObject)
+		RegistrationPlan plan = RegistrationPlan.of(object);
+		if(plan.complex && !isCosmetic(object))
 		{
 			int comp = ((ComplexObject) object).complexity();
-			if(currentComplexity + comp <= maxComplexity)
-				currentComplexity += comp;
-			else
-				cantAdd = true;
+			if(currentComplexity + comp > maxComplexity)
+				return;
+			currentComplexity += comp;
 		}
-		if(cantAdd)
-			return;
-		
-		if(object instanceof MatrixSprite)
-		{
+		if(plan.matrixSprite)
 			((MatrixSprite) object).addedToMatrix(this);
-			layers.add((Renderable) object, layer);
-			updated.add(((MatrixSprite) object));
-			if(object instanceof MatrixEntity)
-				entities.add((MatrixEntity) object);
-			else if(object instanceof MatrixEffect)
+		if(stepping)
+			commands.add(layer, object);
+		else
+			insert(plan, layer, object);
+	}
+
+	/*************************************************************************
+	 * Places the object in all appropriate lists, as decided by the 
+	 * RegistrationPlan of its class.
+	 * 
+	 * @param plan
+	 * 			  The RegistrationPlan of the object's class.
+	 * @param layer
+	 * 			  The layer to add the object to, if it is Renderable. If this
+	 * 			  is null, MatrixSprites use their own target layer, and 
+	 * 			  anything else is placed on the default layer.
+	 * @param object
+	 * 			  The object to add. 
+	 *************************************************************************/
+	private void insert(RegistrationPlan plan, String layer, Object object)
+	{
+		if(plan.matrixSprite)
+		{
+			MatrixSprite sprite = (MatrixSprite) object;
+			addSprite(sprite, layer == null ? sprite.layer() : layer);
+			if(plan.entity)
+				addEntity((MatrixEntity) object);
+			else if(plan.effect)
 				effects.add((MatrixEffect) object);
 		}
+		else if(plan.physSprite && layer != null)
+			addSprite((PhysSprite) object, layer);
 		else
 		{
-			if(object instanceof Renderable)
-				layers.add((Renderable) object, layer);
-			if(object instanceof Updateable)
+			if(plan.renderable)
+			{
+				if(layer == null)
+					layers.add((Renderable) object);
+				else
+					layers.add((Renderable) object, layer);
+			}
+			if(plan.updateable)
 				updated.add((Updateable) object);
 		}
-		if(object instanceof Vacuum)
+		if(plan.vacuum)
 			vacuums.add((Vacuum) object);
-		if(object instanceof Debris)
+		if(plan.debris)
 			debris.add((Debris) object);
 	}
 
 	/*************************************************************************
 	 * Removes the object from the world. The object is removed from all 
-	 * appropriate lists, based on its type.
+	 * appropriate lists, based on its type. During a parallel update, this is
+	 * deferred until the update is complete. While the Matrix is being 
+	 * updated, the object is only taken out of the lists at the next flush(),
+	 * and removing it again before then does nothing.
 	 * 
 	 * @param object
 	 * 			  The object to remove. 
 	 ***************************************************************/ @Override
-	public void remove(Object object)
+	public void remove(final Object object)
 	{
-		if(object instanceof ComplexObject)
+		if(ParallelUpdate.deferring())
+		{
+			ParallelUpdate.defer(new Runnable() {
+				public void run()
+				{
+					remove(object);
+				}});
+			return;
+		}
+		if(stepping && !commands.remove(object))
+			return;
+		RegistrationPlan plan = RegistrationPlan.of(object);
+		if(plan.complex && !isCosmetic(object))
 		{
 			currentComplexity -= ((ComplexObject) object).complexity();
 			currentComplexity = Math.max(currentComplexity, 0);
 		}
-		if(object instanceof Renderable)
-			layers.remove((Renderable) object);
-		if(object instanceof Updateable)
-			updated.remove((Updateable) object);
-		if(object instanceof MatrixSprite)
-		{
+		if(plan.matrixSprite)
 			((MatrixSprite) object).removedFromMatrix(this);
-			if(object instanceof MatrixEntity)
-				entities.remove((MatrixEntity) object);
-			if(object instanceof MatrixEffect)
-				effects.remove((MatrixEffect) object);
+		if(!stepping)
+			extract(plan, object);
+	}
+
+	/*************************************************************************
+	 * Takes the object out of all appropriate lists, as decided by the 
+	 * RegistrationPlan of its class. Poolable objects are then released, since
+	 * nothing in the Matrix refers to them any more.
+	 * 
+	 * @param plan
+	 * 			  The RegistrationPlan of the object's class.
+	 * @param object
+	 * 			  The object to remove. 
+	 *************************************************************************/
+	private void extract(RegistrationPlan plan, Object object)
+	{
+		if(!(plan.physSprite && removeSprite((PhysSprite) object)))
+		{
+			if(plan.renderable)
+				layers.remove((Renderable) object);
+			if(plan.updateable)
+				updated.remove((Updateable) object);
 		}
-		if(object instanceof Vacuum)
+		if(plan.entity)
+			entities.remove((MatrixEntity) object);
+		if(plan.effect)
+			effects.remove((MatrixEffect) object);
+		if(plan.vacuum)
 			vacuums.remove((Vacuum) object);
-		if(object instanceof Debris)
+		if(plan.debris)
 			debris.remove((Debris) object);
+		if(plan.poolable)
+			((Poolable) object).release();
 	}
 	
+	/*************************************************************************
+	 * Performs every addition and removal that was recorded since the last 
+	 * flush, in the order they were made.
+	 *************************************************************************/
+	private void flush()
+	{
+		for(int i = 0; i < commands.size(); i++)
+		{
+			Object object = commands.object(i);
+			if(commands.isAddition(i))
+				insert(RegistrationPlan.of(object), commands.layer(i), object);
+			else
+				extract(RegistrationPlan.of(object), object);
+		}
+		commands.clear();
+	}
+
+	/*************************************************************************
+	 * Places a PhysSprite in the Matrix, so that it is updated every update and
+	 * rendered on the indicated layer.
+	 * 
+	 * @param sprite
+	 * 			  The PhysSprite to add.
+	 * @param layer
+	 * 			  The name of the layer to render the PhysSprite on.
+	 *************************************************************************/
+	private void addSprite(PhysSprite sprite, String layer)
+	{
+		sprite.snapshot();
+		if(isCosmetic(sprite))
+			cosmeticSprites.add(sprite);
+		else
+			sprites.add(sprite);
+		SpriteLayer spriteLayer = spriteLayers.get(layer);
+		if(spriteLayer == null)
+		{
+			spriteLayers.put(layer, spriteLayer = new SpriteLayer(LAYERED));
+			layers.add(spriteLayer, layer);
+		}
+		spriteLayer.add(sprite);
+	}
+
+	/*************************************************************************
+	 * Places a MatrixEntity in the Matrix's list of actors, and stamps it with
+	 * the next sequence number so that the order in which MatrixEntities were
+	 * placed can be recovered; the Registry itself reorders them whenever one
+	 * is removed.
+	 * 
+	 * @param entity
+	 * 			  The MatrixEntity to add.
+	 *************************************************************************/
+	private void addEntity(MatrixEntity entity)
+	{
+		if(entities.contains(entity))
+			return;
+		entity.setSequence(nextSequence++);
+		entities.add(entity);
+	}
+
+	/*************************************************************************
+	 * Takes a PhysSprite out of the Matrix. Since a PhysSprite is only ever on
+	 * one layer, and a Registry can tell immediately whether or not it contains
+	 * an object, this just asks each SpriteLayer to remove it.
+	 * 
+	 * @param sprite
+	 * 			  The PhysSprite to remove.
+	 * 
+	 * @return True if the PhysSprite was on one of the SpriteLayers, false if
+	 * 		   it was added in some other way.
+	 *************************************************************************/
+	private boolean removeSprite(PhysSprite sprite)
+	{
+		if(!sprites.remove(sprite))
+			cosmeticSprites.remove(sprite);
+		for(SpriteLayer spriteLayer : spriteLayers.values())
+			if(spriteLayer.remove(sprite))
+				return true;
+		return false;
+	}
+
+	/*************************************************************************
+	 * Learns whether or not an object is a cosmetic MatrixSprite. These don't
+	 * count towards the Matrix's complexity, and are updated apart from the
+	 * other PhysSprites.
+	 * 
+	 * @param object
+	 * 			  The object to check.
+	 * 
+	 * @return True if the object is a cosmetic MatrixSprite.
+	 *************************************************************************/
+	private static boolean isCosmetic(Object object)
+	{
+		return object instanceof MatrixSprite && 
+				((MatrixSprite) object).isCosmetic();
+	}
+
 	/*************************************************************************
 	 * Causes the Matrix to begin fading out. Once it completely fades out, it
 	 * will either spawn a new play session (i.e., create a new Matrix and 
@@ -268,6 +659,20 @@ public class Matrix extends GridWorld
 		fade.fadeOut();
 	}
 
+	/*************************************************************************
+	 * Updates the Matrix, drawing from its root random stream for anything 
+	 * that doesn't have a stream of its own.
+	 * 
+	 * @param delta
+	 * 			  The amount of time that has elapsed since the last call.
+	 ***************************************************************/ @Override
+	public void update(int delta)
+	{
+		MatrixRandom previous = MatrixRandom.use(random);
+		super.update(delta);
+		MatrixRandom.use(previous);
+	}
+
 	/*************************************************************************
 	 * Updates the Matrix and its settings. Also provides general checking 
 	 * between different game objects.
@@ -282,22 +687,311 @@ public class Matrix extends GridWorld
 			quitToMenu = true;
 			exit();
 		}
+		previousCameraX = camera.location().x();
+		previousCameraY = camera.location().y();
+		stepping = true;
+		updateSprites(delta);
+		flush();
 		maxComplexity = Math.min(maxComplexity + COMPLEXITY_INCR_RATE * delta, 
 				MAX_COMPLEXITY);
-		for(Vacuum vacuum : vacuums)
-			for(Debris chunk : debris)
-				if(vacuum.shouldRemove(chunk))
-					remove(chunk);
-		for(MatrixEffect effect : effects)
-			for(MatrixEntity entity : entities)
-				effect.checkAgainst(entity);
+		gravity.apply(vacuums, debris);
+		checkEffects();
 		cull(debris);
 		cull(effects);
 		cull(entities);
-		vacuums.unlock();
-		debris.unlock();
-		effects.unlock();
-		entities.unlock();
+		flush();
+		stepping = false;
+	}
+
+	/*************************************************************************
+	 * Updates every PhysSprite in the Matrix.
+	 * 
+	 * Each PhysSprite first records its state for interpolation, and each 
+	 * MatrixSprite is given a level of detail based on its distance from the
+	 * camera: those out of sight skip cosmetic Controllers, and those that 
+	 * are well out of sight only update their Controllers every few updates.
+	 * 
+	 * The player is updated next, since most other objects track it. After 
+	 * that, every PhysSprite that updates independently is updated in 
+	 * parallel; anything they add, remove or kill is deferred and applied in
+	 * order once they are done. Last come the PhysSprites that depend on 
+	 * others, such as auras anchored to their owners, which are updated in 
+	 * order. Cosmetic MatrixSprites come last, on their own, so that nothing 
+	 * else depends on whether or not they were spawned.
+	 * 
+	 * @param delta
+	 * 			  The amount of time that has elapsed since the last call.
+	 *************************************************************************/
+	private void updateSprites(int delta)
+	{
+		float cameraX = camera.location().x();
+		float cameraY = camera.location().y();
+		float width = WindowManager.controller().width();
+		float height = WindowManager.controller().height();
+		float diagonalSquared = width * width + height * height;
+		float visibleSquared = diagonalSquared * VISIBLE_RANGE * VISIBLE_RANGE;
+		float farSquared = diagonalSquared * FAR_RANGE * FAR_RANGE;
+		for(int i = 0; i < sprites.size(); i++)
+		{
+			PhysSprite sprite = sprites.get(i);
+			sprite.snapshot();
+			if(sprite instanceof MatrixSprite)
+			{
+				float dx = sprite.location().x() - cameraX;
+				float dy = sprite.location().y() - cameraY;
+				float distSquared = dx * dx + dy * dy;
+				((MatrixSprite) sprite).setDetail(distSquared < visibleSquared,
+						distSquared > farSquared && 
+						sprite.updatesIndependently() ? FAR_INTERVAL : 1);
+			}
+		}
+		if(player != null && sprites.contains(player))
+			player.update(delta);
+		for(int i = 0; i < sprites.size(); i++)
+		{
+			PhysSprite sprite = sprites.get(i);
+			if(sprite == player)
+				continue;
+			if(sprite.updatesIndependently())
+				parallel.add(sprite);
+			else
+				serialSprites.add(sprite);
+		}
+		parallel.update(delta);
+		for(int i = 0; i < serialSprites.size(); i++)
+			serialSprites.get(i).update(delta);
+		serialSprites.clear();
+		for(int i = 0; i < cosmeticSprites.size(); i++)
+		{
+			PhysSprite sprite = cosmeticSprites.get(i);
+			sprite.snapshot();
+			sprite.update(delta);
+		}
+	}
+
+	/*************************************************************************
+	 * Checks every MatrixEffect against the MatrixEntities it might collide 
+	 * with.
+	 * 
+	 * The MatrixEntities are first sorted by faction into SpatialHashes, with a
+	 * cell size based on their average size. A MatrixEffect only acts on 
+	 * MatrixEntities it is hostile to, or that are hostile to it, so it skips
+	 * the hashes of factions where neither can be true. In the rest, it is only
+	 * checked against those MatrixEntities whose bounding circles share a cell
+	 * with its own. MatrixEntities are numbered in the order they were placed 
+	 * in the Matrix (see gatherEntities()), and the candidates are checked in
+	 * that order; a MatrixEffect that stops after its first hit, such as a 
+	 * SingleHitEffect, hits the same MatrixEntity it would if it were checked
+	 * against every MatrixEntity.
+	 * 
+	 * Each MatrixEffect searches with a circle around its whole path through
+	 * this update, so that one that moves fast enough to cross a MatrixEntity
+	 * in a single update is still checked against it.
+	 * 
+	 * Area MatrixEffects skip the geometry test entirely; they are handed 
+	 * every MatrixEntity that reaches within their areaRadius() by 
+	 * forEachWithin(). That is as far as their distanced effects reach, so 
+	 * effects without falloff, such as the RepulsionEffect of an Explosion,
+	 * reach no further than its damage.
+	 *************************************************************************/
+	private void checkEffects()
+	{
+		int count = gatherEntities();
+		float totalSize = 0;
+		for(int i = 0; i < count; i++)
+			totalSize += hashedEntities[i].boundsRadius() * 2;
+		float cellSize = Math.max(MIN_CELL_SIZE, 
+				totalSize / Math.max(count, 1));
+		for(int i = 0; i < entityHashes.length; i++)
+		{
+			entityHashes[i].clear(cellSize);
+			factionHostility[i] = 0;
+		}
+		for(int i = 0; i < count; i++)
+		{
+			MatrixEntity entity = hashedEntities[i];
+			factionHostility[entity.faction()] |= entity.hostileFactions();
+			entityHashes[entity.faction()].insert(i, entity.boundsX(), 
+					entity.boundsY(), entity.boundsRadius());
+		}
+		indexed = true;
+		for(MatrixEffect effect : effects)
+		{
+			int factionMask = 0;
+			for(int i = 0; i < entityHashes.length; i++)
+				if((effect.hostileFactions() & (1 << i)) != 0 || 
+						(factionHostility[i] & (1 << effect.faction())) != 0)
+					factionMask |= 1 << i;
+			if(effect.isArea())
+			{
+				forEachWithin(effect.boundsX(), effect.boundsY(), 
+						effect.areaRadius(), factionMask, effect);
+				continue;
+			}
+			int found = 0;
+			int hashesSearched = 0;
+			for(int i = 0; i < entityHashes.length; i++)
+			{
+				if((factionMask & (1 << i)) == 0)
+					continue;
+				SpatialHash hash = entityHashes[i];
+				int inHash = hash.query(effect.sweepX(), effect.sweepY(), 
+						effect.sweepRadius());
+				if(found + inHash > candidates.length)
+					candidates = Arrays.copyOf(candidates, 
+							Math.max(found + inHash, candidates.length * 2));
+				for(int j = 0; j < inHash; j++)
+					candidates[found++] = hash.found(j);
+				hashesSearched++;
+			}
+			if(hashesSearched > 1)
+				Arrays.sort(candidates, 0, found);
+			for(int i = 0; i < found; i++)
+				effect.checkAgainst(hashedEntities[candidates[i]]);
+		}
+		indexed = false;
+		releaseEntities();
+	}
+
+	/*************************************************************************
+	 * Copies the MatrixEntities into hashedEntities, in the order they were 
+	 * placed in the Matrix.
+	 * 
+	 * The Registry fills the hole left by each removal with its last object, 
+	 * so its own order drifts away from the order of placement. Instead, each
+	 * MatrixEntity's sequence number is packed together with its position in
+	 * the Registry, and the packed keys are sorted as plain longs.
+	 * 
+	 * @return The number of MatrixEntities.
+	 *************************************************************************/
+	private int gatherEntities()
+	{
+		int count = entities.size();
+		if(count > hashedEntities.length)
+		{
+			int length = Math.max(count, hashedEntities.length * 2);
+			hashedEntities = new MatrixEntity[length];
+			placementKeys = new long[length];
+		}
+		for(int i = 0; i < count; i++)
+			placementKeys[i] = entities.get(i).sequence() << POSITION_BITS | i;
+		Arrays.sort(placementKeys, 0, count);
+		for(int i = 0; i < count; i++)
+			hashedEntities[i] = entities.get(
+					(int) (placementKeys[i] & POSITION_MASK));
+		return hashedCount = count;
+	}
+
+	/*************************************************************************
+	 * Clears hashedEntities, so that it doesn't keep MatrixEntities that have
+	 * left the Matrix from being collected.
+	 *************************************************************************/
+	private void releaseEntities()
+	{
+		Arrays.fill(hashedEntities, 0, hashedCount, null);
+		hashedCount = 0;
+	}
+
+	/*************************************************************************
+	 * Finds every MatrixEntity of the indicated factions whose bounding circle
+	 * overlaps a circle, and hands each one to the consumer along with its 
+	 * squared distance from the center.
+	 * 
+	 * @param center
+	 * 			  The center of the circle.
+	 * @param radius
+	 * 			  The radius of the circle.
+	 * @param factionMask
+	 * 			  A bitmask of the factions to search; bit i includes faction 
+	 * 			  i. ALL_FACTIONS searches every faction.
+	 * @param consumer
+	 * 			  The EntityConsumer to hand each MatrixEntity to.
+	 *************************************************************************/
+	public void forEachWithin(BaseVector2f center, float radius, 
+			int factionMask, EntityConsumer consumer)
+	{
+		forEachWithin(center.x(), center.y(), radius, factionMask, consumer);
+	}
+
+	/*************************************************************************
+	 * Finds every MatrixEntity of the indicated factions whose bounding circle
+	 * overlaps a circle, and hands each one to the consumer along with its 
+	 * squared distance from the center.
+	 * 
+	 * While MatrixEffects are being checked, this searches the SpatialHashes 
+	 * that were built for them; at any other time, every MatrixEntity is 
+	 * checked. Either way, nothing is square rooted. The consumer should not 
+	 * start another query.
+	 * 
+	 * @param x
+	 * 			  The x coordinate of the center of the circle.
+	 * @param y
+	 * 			  The y coordinate of the center of the circle.
+	 * @param radius
+	 * 			  The radius of the circle.
+	 * @param factionMask
+	 * 			  A bitmask of the factions to search; bit i includes faction 
+	 * 			  i. ALL_FACTIONS searches every faction.
+	 * @param consumer
+	 * 			  The EntityConsumer to hand each MatrixEntity to.
+	 *************************************************************************/
+	public void forEachWithin(float x, float y, float radius, int factionMask,
+			EntityConsumer consumer)
+	{
+		if(!indexed)
+		{
+			int count = gatherEntities();
+			for(int i = 0; i < count; i++)
+				if((factionMask & (1 << hashedEntities[i].faction())) != 0)
+					visitWithin(hashedEntities[i], x, y, radius, consumer);
+			releaseEntities();
+			return;
+		}
+		int found = 0;
+		int hashesSearched = 0;
+		for(int i = 0; i < entityHashes.length; i++)
+		{
+			if((factionMask & (1 << i)) == 0)
+				continue;
+			SpatialHash hash = entityHashes[i];
+			int inHash = hash.query(x, y, radius);
+			if(found + inHash > nearby.length)
+				nearby = Arrays.copyOf(nearby, 
+						Math.max(found + inHash, nearby.length * 2));
+			for(int j = 0; j < inHash; j++)
+				nearby[found++] = hash.found(j);
+			hashesSearched++;
+		}
+		if(hashesSearched > 1)
+			Arrays.sort(nearby, 0, found);
+		for(int i = 0; i < found; i++)
+			visitWithin(hashedEntities[nearby[i]], x, y, radius, consumer);
+	}
+
+	/*************************************************************************
+	 * Hands a MatrixEntity to the consumer if its bounding circle overlaps a
+	 * circle.
+	 * 
+	 * @param entity
+	 * 			  The MatrixEntity to check.
+	 * @param x
+	 * 			  The x coordinate of the center of the circle.
+	 * @param y
+	 * 			  The y coordinate of the center of the circle.
+	 * @param radius
+	 * 			  The radius of the circle.
+	 * @param consumer
+	 * 			  The EntityConsumer to hand the MatrixEntity to.
+	 *************************************************************************/
+	private void visitWithin(MatrixEntity entity, float x, float y, 
+			float radius, EntityConsumer consumer)
+	{
+		float dx = entity.location().x() - x;
+		float dy = entity.location().y() - y;
+		float distanceSquared = dx * dx + dy * dy;
+		float reach = radius + entity.boundsRadius();
+		if(distanceSquared < reach * reach)
+			consumer.accept(entity, distanceSquared);
 	}
 
 	/*************************************************************************
@@ -305,17 +999,71 @@ public class Matrix extends GridWorld
 	 * viewpoint. This is important because it allows the gameworld to remain
 	 * more free of "junk" that is offscreen.
 	 * 
+	 * Since culling distances are large, most objects are nowhere near them. 
+	 * Objects well within their culling distance are only checked again after
+	 * several updates, and only those near the edge are checked every update;
+	 * an object is never kept more than CULL_INTERVAL updates after it moves
+	 * out of range.
+	 * 
 	 * @param toCull
 	 * 			  The list of Cullable objects to check.
 	 *************************************************************************/
 	private void cull(Iterable<? extends Cullable> toCull)
 	{
+		float cameraX = camera.location().x();
+		float cameraY = camera.location().y();
 		for(Cullable cull : toCull)
-			if(cull.location().distanceTo(camera.location()) >= 
-					cull.cullDistance())
+		{
+			int delay = cull.cullDelay();
+			if(delay > 0)
+			{
+				cull.setCullDelay(delay - 1);
+				continue;
+			}
+			float dx = cull.location().x() - cameraX;
+			float dy = cull.location().y() - cameraY;
+			float distSquared = dx * dx + dy * dy;
+			float limitSquared = cull.cullDistance() * cull.cullDistance();
+			if(distSquared >= limitSquared)
 				remove(cull);
+			else if(distSquared < limitSquared * CULL_MARGIN * CULL_MARGIN)
+			{
+				cullStagger = (cullStagger + 1) % (CULL_INTERVAL / 2);
+				cull.setCullDelay(CULL_INTERVAL / 2 - 1 + cullStagger);
+			}
+		}
 	}
 	
+	/*************************************************************************
+	 * Renders the Matrix. Since the Matrix is simulated in fixed steps, frames
+	 * usually fall somewhere between two steps; all PhysSprites and the camera
+	 * are placed between their last two states for rendering, and then put 
+	 * back.
+	 ***************************************************************/ @Override
+	public void render()
+	{
+		float alpha = interpolation();
+		if(alpha >= 1f)
+		{
+			super.render();
+			return;
+		}
+		float cameraX = camera.location().x();
+		float cameraY = camera.location().y();
+		camera.location().set(previousCameraX + (cameraX - previousCameraX) * 
+				alpha, previousCameraY + (cameraY - previousCameraY) * alpha);
+		for(int i = 0; i < sprites.size(); i++)
+			sprites.get(i).interpolate(alpha);
+		for(int i = 0; i < cosmeticSprites.size(); i++)
+			cosmeticSprites.get(i).interpolate(alpha);
+		super.render();
+		for(int i = 0; i < sprites.size(); i++)
+			sprites.get(i).restore();
+		for(int i = 0; i < cosmeticSprites.size(); i++)
+			cosmeticSprites.get(i).restore();
+		camera.location().set(cameraX, cameraY);
+	}
+
 	/*************************************************************************
 	 * Learns the amount that the Matrix should update itself by.
 	 * 
@@ -376,6 +1124,29 @@ public class Matrix extends GridWorld
 	 *         explosions, etc.
 	 *************************************************************************/
 	public MatrixParticles particles() { return particles; }
+
+	/*************************************************************************
+	 * Accesses the Matrix's root random stream.
+	 * 
+	 * @return The MatrixRandom that all other streams in the Matrix are split
+	 * 		   from.
+	 *************************************************************************/
+	public MatrixRandom random() { return random; }
+
+	/*************************************************************************
+	 * Accesses the random stream for cosmetic objects, which may or may not 
+	 * be spawned depending on the level of detail.
+	 * 
+	 * @return The MatrixRandom that cosmetic streams are split from.
+	 *************************************************************************/
+	public MatrixRandom cosmeticRandom() { return cosmeticRandom; }
+
+	/*************************************************************************
+	 * Accesses the Pools that projectiles are recycled through.
+	 * 
+	 * @return The Matrix's ProjectilePools.
+	 *************************************************************************/
+	public ProjectilePools projectiles() { return projectiles; }
 	
 	/************************************************************************
 	 * Learns the current score.
@@ -390,9 +1161,16 @@ public class Matrix extends GridWorld
 	 * @param points
 	 * 			  The number of points to add.
 	 ************************************************************************/
-	public void addPoints(int points)
+	public void addPoints(final int points)
 	{
-		score += points;
+		if(ParallelUpdate.deferring())
+			ParallelUpdate.defer(new Runnable() {
+				public void run()
+				{
+					score += points;
+				}});
+		else
+			score += points;
 	}
 
 	/************************************************************************
@@ -415,6 +1193,12 @@ public class Matrix extends GridWorld
 	public void clear()
 	{
 		super.clear();
+		commands.clear();
+		sprites.clear();
+		cosmeticSprites.clear();
+		for(SpriteLayer spriteLayer : spriteLayers.values())
+			spriteLayer.clear();
+		spriteLayers.clear();
 		debris.clear();
 		vacuums.clear();
 		entities.clear();
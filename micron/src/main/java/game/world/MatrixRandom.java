@@ -0,0 +1,136 @@
+package game.world;
+
+import java.util.Random;
+
+/*****************************************************************************
+ * MatrixRandom is a fast, seeded stream of random numbers that can be split
+ * into independent child streams.
+ * 
+ * Each Matrix owns a root stream, and every MatrixSprite is given a stream
+ * split from it when it is added. Whoever is being updated makes its stream
+ * the current one for its thread, and random() always draws from the current
+ * stream; so objects draw from their own streams without having to pass them
+ * around, parallel updates never contend for a shared generator, and a given
+ * seed plays out the same way every time.
+ * 
+ * The numbers are generated with SplitMix64, which keeps a single long of
+ * state. Unlike java.util.Random, a MatrixRandom is not thread-safe; it
+ * should only be drawn from by one thread at a time.
+ *****************************************************************************/
+public class MatrixRandom extends Random
+{
+	/**
+	 * The amount the state advances by for each number generated.
+	 **/
+	private static final long GAMMA = 0x9e3779b97f4a7c15L;
+
+	/**
+	 * The stream each thread is currently drawing from. Threads that have not
+	 * been given one draw from a stream of their own, seeded from the clock.
+	 **/
+	private static final ThreadLocal<MatrixRandom> CURRENT =
+			new ThreadLocal<MatrixRandom>() {
+				protected MatrixRandom initialValue()
+				{
+					return new MatrixRandom(System.nanoTime() ^
+							Thread.currentThread().getId());
+				}};
+
+	/**
+	 * The state of the generator.
+	 **/
+	private long state;
+
+	/*************************************************************************
+	 * Creates a MatrixRandom with the indicated seed.
+	 * 
+	 * @param seed
+	 * 			  The initial state of the stream.
+	 *************************************************************************/
+	public MatrixRandom(long seed)
+	{
+		super(seed);
+	}
+
+	/*************************************************************************
+	 * Accesses the stream the current thread is drawing from.
+	 * 
+	 * @return The current MatrixRandom.
+	 *************************************************************************/
+	public static MatrixRandom random() { return CURRENT.get(); }
+
+	/*************************************************************************
+	 * Makes the indicated stream the current one for this thread.
+	 * 
+	 * @param random
+	 * 			  The MatrixRandom to draw from.
+	 * 
+	 * @return The stream that was current before, so that it can be restored.
+	 *************************************************************************/
+	public static MatrixRandom use(MatrixRandom random)
+	{
+		MatrixRandom previous = CURRENT.get();
+		CURRENT.set(random);
+		return previous;
+	}
+
+	/*************************************************************************
+	 * Creates a new stream that is independent of this one. The new stream is
+	 * seeded by this one, so it is just as reproducible.
+	 * 
+	 * @return A new MatrixRandom.
+	 *************************************************************************/
+	public MatrixRandom split()
+	{
+		return new MatrixRandom(nextLong());
+	}
+
+	/*************************************************************************
+	 * Redefines the state of the stream.
+	 * 
+	 * @param seed
+	 * 			  The new state.
+	 ***************************************************************/ @Override
+	public synchronized void setSeed(long seed)
+	{
+		super.setSeed(seed);
+		state = seed;
+	}
+
+	/*************************************************************************
+	 * Generates the next 64 random bits.
+	 * 
+	 * @return A random long.
+	 ***************************************************************/ @Override
+	public long nextLong()
+	{
+		long z = state += GAMMA;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/*************************************************************************
+	 * Generates the indicated number of random bits. Every other method in
+	 * Random is built on this.
+	 * 
+	 * @param bits
+	 * 			  The number of bits to generate, up to 32.
+	 * 
+	 * @return An int with the indicated number of random low bits.
+	 ***************************************************************/ @Override
+	protected int next(int bits)
+	{
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	/*************************************************************************
+	 * Generates a random float, evenly distributed between 0 and 1.
+	 * 
+	 * @return A float in [0, 1).
+	 ***************************************************************/ @Override
+	public float nextFloat()
+	{
+		return (nextLong() >>> 40) / (float) (1 << 24);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,251 @@
+package game.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.jrabbit.base.core.types.Updateable;
+
+/*****************************************************************************
+ * ParallelUpdate updates a batch of PhysSprites across all available cores.
+ * 
+ * The batch is split into fixed-size chunks, which are updated by a shared
+ * fork-join pool. This is only safe for PhysSprites that update independently
+ * (see PhysSprite.updatesIndependently()); anything they do to the rest of the
+ * world, such as adding objects, removing them or killing themselves, must be
+ * deferred with defer(). Deferred actions are run on the calling thread once
+ * every chunk has finished, in the order the PhysSprites appear in the batch,
+ * so the results don't depend on how the chunks were scheduled.
+ * 
+ * Any Updateable can be batched, which lets the scaling be measured without 
+ * building PhysSprites.
+ * 
+ * Small batches aren't worth the overhead, and are simply updated in order on
+ * the calling thread.
+ *****************************************************************************/
+public class ParallelUpdate
+{
+	/**
+	 * The pool of worker threads shared by all ParallelUpdates.
+	 **/
+	private static final ForkJoinPool POOL = new ForkJoinPool();
+	
+	/**
+	 * The number of PhysSprites updated by each task.
+	 **/
+	private static final int CHUNK_SIZE = 64;
+	
+	/**
+	 * Batches smaller than this are updated on the calling thread.
+	 **/
+	private static final int PARALLEL_THRESHOLD = 256;
+	
+	/**
+	 * The chunk being updated by the current worker thread, if any.
+	 **/
+	private static final ThreadLocal<Chunk> CURRENT = new ThreadLocal<Chunk>();
+	
+	/**
+	 * The pool the batch is updated with.
+	 **/
+	protected ForkJoinPool pool;
+	
+	/**
+	 * The PhysSprites to update.
+	 **/
+	protected Updateable[] batch;
+	
+	/**
+	 * The number of PhysSprites in the batch.
+	 **/
+	protected int batchSize;
+	
+	/**
+	 * The chunks the batch is split into. These are kept between updates, so 
+	 * their lists of deferred actions can be reused.
+	 **/
+	protected List<Chunk> chunks;
+	
+	/**
+	 * The amount of time the current batch is being updated by.
+	 **/
+	protected int delta;
+	
+	/*************************************************************************
+	 * Creates an empty ParallelUpdate that uses the shared pool.
+	 *************************************************************************/
+	public ParallelUpdate()
+	{
+		this(POOL);
+	}
+	
+	/*************************************************************************
+	 * Creates an empty ParallelUpdate.
+	 * 
+	 * @param pool
+	 * 			  The pool of worker threads to update batches with.
+	 *************************************************************************/
+	public ParallelUpdate(ForkJoinPool pool)
+	{
+		this.pool = pool;
+		batch = new Updateable[PARALLEL_THRESHOLD];
+		chunks = new ArrayList<Chunk>();
+	}
+	
+	/*************************************************************************
+	 * Adds a PhysSprite to the next batch.
+	 * 
+	 * @param sprite
+	 * 			  The PhysSprite to update.
+	 *************************************************************************/
+	public void add(Updateable sprite)
+	{
+		if(batchSize == batch.length)
+			batch = Arrays.copyOf(batch, batchSize * 2);
+		batch[batchSize++] = sprite;
+	}
+	
+	/*************************************************************************
+	 * Updates every PhysSprite in the batch, runs all deferred actions, and 
+	 * empties the batch.
+	 * 
+	 * @param delta
+	 * 			  The amount of time that has passed since the last update.
+	 *************************************************************************/
+	public void update(int delta)
+	{
+		this.delta = delta;
+		if(batchSize < PARALLEL_THRESHOLD)
+		{
+			for(int i = 0; i < batchSize; i++)
+				step(batch[i]);
+		}
+		else
+		{
+			int chunkCount = (batchSize + CHUNK_SIZE - 1) / CHUNK_SIZE;
+			while(chunks.size() < chunkCount)
+				chunks.add(new Chunk());
+			pool.invoke(new Split(0, chunkCount));
+			for(int i = 0; i < chunkCount; i++)
+				chunks.get(i).runDeferred();
+		}
+		Arrays.fill(batch, 0, batchSize, null);
+		batchSize = 0;
+	}
+	
+	/*************************************************************************
+	 * Updates a single PhysSprite.
+	 * 
+	 * @param sprite
+	 * 			  The PhysSprite to update.
+	 *************************************************************************/
+	private void step(Updateable sprite)
+	{
+		sprite.update(delta);
+	}
+	
+	/*************************************************************************
+	 * Defers an action if the current thread is in the middle of a parallel 
+	 * update.
+	 * 
+	 * @param action
+	 * 			  The action to defer.
+	 * 
+	 * @return True if the action was deferred and will be run later, false if
+	 * 		   there is no parallel update in progress and the caller should go
+	 * 		   ahead immediately.
+	 *************************************************************************/
+	public static boolean defer(Runnable action)
+	{
+		Chunk chunk = CURRENT.get();
+		if(chunk == null)
+			return false;
+		chunk.deferred.add(action);
+		return true;
+	}
+	
+	/*************************************************************************
+	 * Learns whether the current thread is in the middle of a parallel update.
+	 * 
+	 * @return True if actions that affect the world must be deferred.
+	 *************************************************************************/
+	public static boolean deferring()
+	{
+		return CURRENT.get() != null;
+	}
+	
+	/*************************************************************************
+	 * A Chunk keeps the actions deferred while updating one slice of a batch.
+	 *************************************************************************/
+	protected static class Chunk
+	{
+		/**
+		 * The deferred actions, in the order they were requested.
+		 **/
+		protected List<Runnable> deferred = new ArrayList<Runnable>();
+		
+		/*********************************************************************
+		 * Runs and then forgets all deferred actions.
+		 *********************************************************************/
+		public void runDeferred()
+		{
+			for(int i = 0; i < deferred.size(); i++)
+				deferred.get(i).run();
+			deferred.clear();
+		}
+	}
+	
+	/*************************************************************************
+	 * A Split is a fork-join task that updates a range of chunks, splitting 
+	 * itself in half until it only covers one.
+	 *************************************************************************/
+	@SuppressWarnings("serial")
+	protected class Split extends RecursiveAction
+	{
+		/**
+		 * The first chunk covered, and the chunk after the last.
+		 **/
+		protected int start, end;
+		
+		/*********************************************************************
+		 * Creates a Split covering the indicated chunks.
+		 * 
+		 * @param start
+		 * 			  The index of the first chunk.
+		 * @param end
+		 * 			  The index after the last chunk.
+		 *********************************************************************/
+		public Split(int start, int end)
+		{
+			this.start = start;
+			this.end = end;
+		}
+		
+		/*********************************************************************
+		 * Updates the PhysSprites in the covered chunks.
+		 ***********************************************************/ @Override
+		protected void compute()
+		{
+			if(end - start > 1)
+			{
+				int middle = (start + end) >>> 1;
+				invokeAll(new Split(start, middle), new Split(middle, end));
+				return;
+			}
+			Chunk chunk = chunks.get(start);
+			CURRENT.set(chunk);
+			try
+			{
+				int last = Math.min((start + 1) * CHUNK_SIZE, batchSize);
+				for(int i = start * CHUNK_SIZE; i < last; i++)
+					step(batch[i]);
+			}
+			finally
+			{
+				CURRENT.remove();
+			}
+		}
+	}
+}
\ No newline at end of file
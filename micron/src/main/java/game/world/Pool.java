@@ -0,0 +1,155 @@
+package game.world;
+
+import java.util.Arrays;
+
+/*****************************************************************************
+ * A Pool keeps hold of objects that are no longer in use, so that they can be
+ * reused instead of allocating new ones. This matters for objects that are
+ * created and thrown away many times a second, such as projectiles; each one
+ * drags along its own graph of effects and controllers, and letting them all
+ * go to the garbage collector causes noticeable pauses.
+ * 
+ * A Pool only holds up to its capacity; objects released once it is full are
+ * discarded. It also counts how many objects it has had to create, how many
+ * it was able to reuse, and how many it discarded, so that its capacity can
+ * be tuned - sampling created() over time gives the allocation rate.
+ * 
+ * Objects may be acquired from any thread, so acquiring and releasing are
+ * synchronized. Objects are handed out as they were released; whoever
+ * acquires one is responsible for resetting it.
+ * 
+ * @param <T>
+ * 			  The type of object to pool.
+ *****************************************************************************/
+public abstract class Pool<T>
+{
+	/**
+	 * The objects that are waiting to be reused.
+	 **/
+	protected Object[] free;
+
+	/**
+	 * The number of objects waiting to be reused.
+	 **/
+	protected int size;
+
+	/**
+	 * The most objects the Pool will hold onto.
+	 **/
+	protected int capacity;
+
+	/**
+	 * The number of objects that have been created, reused, and discarded.
+	 **/
+	protected int created, reused, discarded;
+
+	/*************************************************************************
+	 * Creates an empty Pool.
+	 * 
+	 * @param capacity
+	 * 			  The most objects the Pool will hold onto.
+	 *************************************************************************/
+	public Pool(int capacity)
+	{
+		free = new Object[Math.min(capacity, 64)];
+		setCapacity(capacity);
+	}
+
+	/*************************************************************************
+	 * Takes an object from the Pool, or creates a new one if it is empty.
+	 * 
+	 * @return An object that is not in use.
+	 *************************************************************************/
+	@SuppressWarnings("unchecked")
+	public synchronized T acquire()
+	{
+		if(size == 0)
+		{
+			created++;
+			return create();
+		}
+		reused++;
+		T object = (T) free[--size];
+		free[size] = null;
+		return object;
+	}
+
+	/*************************************************************************
+	 * Hands an object back to the Pool. If the Pool is full, the object is
+	 * discarded.
+	 * 
+	 * @param object
+	 * 			  The object that is no longer in use.
+	 *************************************************************************/
+	public synchronized void release(T object)
+	{
+		if(size == capacity)
+		{
+			discarded++;
+			return;
+		}
+		if(size == free.length)
+			free = Arrays.copyOf(free, 
+					Math.min(Math.max(size * 2, 16), capacity));
+		free[size++] = object;
+	}
+
+	/*************************************************************************
+	 * Creates a new object for the Pool to hand out.
+	 * 
+	 * @return A new object.
+	 *************************************************************************/
+	protected abstract T create();
+
+	/*************************************************************************
+	 * Learns the capacity of the Pool.
+	 * 
+	 * @return The most objects the Pool will hold onto.
+	 *************************************************************************/
+	public int capacity() { return capacity; }
+
+	/*************************************************************************
+	 * Redefines the capacity of the Pool. If it is holding more objects than
+	 * this, the extras are discarded.
+	 * 
+	 * @param capacity
+	 * 			  The most objects the Pool will hold onto.
+	 *************************************************************************/
+	public synchronized void setCapacity(int capacity)
+	{
+		this.capacity = Math.max(capacity, 0);
+		while(size > this.capacity)
+		{
+			free[--size] = null;
+			discarded++;
+		}
+	}
+
+	/*************************************************************************
+	 * Learns how many objects are waiting to be reused.
+	 * 
+	 * @return The number of objects in the Pool.
+	 *************************************************************************/
+	public synchronized int size() { return size; }
+
+	/*************************************************************************
+	 * Learns how many objects the Pool has had to create.
+	 * 
+	 * @return The number of times acquire() found the Pool empty.
+	 *************************************************************************/
+	public synchronized int created() { return created; }
+
+	/*************************************************************************
+	 * Learns how many objects the Pool has reused.
+	 * 
+	 * @return The number of times acquire() found an object to reuse.
+	 *************************************************************************/
+	public synchronized int reused() { return reused; }
+
+	/*************************************************************************
+	 * Learns how many objects the Pool has had to discard.
+	 * 
+	 * @return The number of objects released while the Pool was full.
+	 *************************************************************************/
+	public synchronized int discarded() { return discarded; }
+}
\ No newline at end of file
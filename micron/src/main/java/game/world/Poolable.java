@@ -0,0 +1,16 @@
+package game.world;
+
+/*****************************************************************************
+ * A Poolable object is one that was taken from a Pool, and can be handed back
+ * to it once it is no longer in use. A Matrix releases Poolable objects as
+ * soon as they have been taken out of it, so anything that might still refer
+ * to the object afterwards should not be holding onto it.
+ *****************************************************************************/
+public interface Poolable
+{
+	/*************************************************************************
+	 * Hands the object back to the Pool it came from, if any. Releasing an
+	 * object more than once before it is reused should do nothing.
+	 *************************************************************************/
+	public void release();
+}
\ No newline at end of file
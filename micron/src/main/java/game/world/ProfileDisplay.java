@@ -0,0 +1,172 @@
+package game.world;
+
+import game.objects.effects.projectiles.ProjectilePools;
+import grid.QualityGovernor;
+
+import org.jrabbit.base.core.types.Renderable;
+import org.jrabbit.base.core.types.Updateable;
+import org.jrabbit.base.managers.window.WindowManager;
+import org.jrabbit.standard.game.objects.specialized.TextSprite;
+
+import settings.MicronGameSettings;
+
+/*****************************************************************************
+ * A ProfileDisplay adds the Matrix's own figures to the Profiler. While the
+ * Profiler is visible (see MicronGameSettings.profiling()), it shows how
+ * quickly the projectile Pools are creating, reusing and discarding objects,
+ * and the level of detail the QualityGovernor has settled on along with the
+ * frame times that led to it; otherwise it neither samples nor draws 
+ * anything.
+ * 
+ * Rates are sampled over a fixed window of real time, rather than shown as
+ * running totals, so that a burst of allocation stands out as it happens.
+ *****************************************************************************/
+public class ProfileDisplay implements Renderable, Updateable
+{
+	/**
+	 * The length of the window the rates are sampled over, in nanoseconds.
+	 **/
+	private static final long SAMPLE_WINDOW = 1000000000L;
+
+	/**
+	 * The spacing between lines of text. The first line sits one line below
+	 * the score.
+	 **/
+	private static final float LINE_HEIGHT = 30;
+
+	/**
+	 * The Matrix being profiled.
+	 **/
+	protected Matrix matrix;
+
+	/**
+	 * Renders the rates of the projectile Pools.
+	 **/
+	protected TextSprite poolDisplay;
+
+	/**
+	 * Renders the level of detail and the average frame time.
+	 **/
+	protected TextSprite qualityDisplay;
+
+	/**
+	 * When the current window began, or -1 if sampling has stopped.
+	 **/
+	protected long windowStart;
+
+	/**
+	 * The totals of the projectile Pools when the current window began.
+	 **/
+	protected int created, reused, discarded;
+
+	/**
+	 * Whether or not a full window has been sampled since the Profiler was
+	 * last shown.
+	 **/
+	protected boolean sampled;
+
+	/*************************************************************************
+	 * Creates a ProfileDisplay for a Matrix.
+	 * 
+	 * @param matrix
+	 * 			  The Matrix to report on.
+	 *************************************************************************/
+	public ProfileDisplay(Matrix matrix)
+	{
+		this.matrix = matrix;
+		poolDisplay = new TextSprite("", "Score");
+		poolDisplay.color().setAlpha(0.5f);
+		poolDisplay.screenCoords().setEnabled(true);
+		qualityDisplay = new TextSprite("", "Score");
+		qualityDisplay.color().setAlpha(0.5f);
+		qualityDisplay.screenCoords().setEnabled(true);
+		windowStart = -1;
+	}
+
+	/*************************************************************************
+	 * Samples the Matrix, if the Profiler is visible and the current window
+	 * has ended.
+	 * 
+	 * @param delta
+	 * 			  The amount of time that has passed since the last update.
+	 ***************************************************************/ @Override
+	public void update(int delta)
+	{
+		if(!MicronGameSettings.profiling())
+		{
+			windowStart = -1;
+			sampled = false;
+			return;
+		}
+		long now = System.nanoTime();
+		if(windowStart < 0)
+			startWindow(now);
+		else if(now - windowStart >= SAMPLE_WINDOW)
+		{
+			ProjectilePools pools = matrix.projectiles();
+			float seconds = (now - windowStart) / 1000000000f;
+			poolDisplay.textSkin().setText("Pools: " +
+					rate(pools.created() - created, seconds) + " new, " +
+					rate(pools.reused() - reused, seconds) + " reused, " +
+					rate(pools.discarded() - discarded, seconds) +
+					" discarded /s");
+			poolDisplay.textSkin().checkFormat();
+			QualityGovernor quality = matrix.quality();
+			qualityDisplay.textSkin().setText("Quality " + quality.level() +
+					"/" + QualityGovernor.MAX_LEVEL + ": " + 
+					Math.round(quality.averageFrameTime()) + " of " + 
+					quality.budget() + " ticks per frame");
+			qualityDisplay.textSkin().checkFormat();
+			startWindow(now);
+			sampled = true;
+		}
+		float screenWidth = WindowManager.controller().width();
+		poolDisplay.location().set(screenWidth - 15 -
+				poolDisplay.textSkin().textWidth(), 15 + LINE_HEIGHT);
+		qualityDisplay.location().set(screenWidth - 15 -
+				qualityDisplay.textSkin().textWidth(), 15 + LINE_HEIGHT * 2);
+	}
+
+	/*************************************************************************
+	 * Begins a new window, recording the current totals.
+	 * 
+	 * @param now
+	 * 			  The time the window begins, in nanoseconds.
+	 *************************************************************************/
+	private void startWindow(long now)
+	{
+		ProjectilePools pools = matrix.projectiles();
+		created = pools.created();
+		reused = pools.reused();
+		discarded = pools.discarded();
+		windowStart = now;
+	}
+
+	/*************************************************************************
+	 * Finds how many times per second something happened over a window.
+	 * 
+	 * @param count
+	 * 			  The number of times it happened.
+	 * @param seconds
+	 * 			  The length of the window, in seconds.
+	 * 
+	 * @return The rate, rounded to the nearest whole number.
+	 *************************************************************************/
+	private static int rate(int count, float seconds)
+	{
+		return Math.round(count / seconds);
+	}
+
+	/*************************************************************************
+	 * Renders the figures, if the Profiler is visible and they have been
+	 * sampled.
+	 ***************************************************************/ @Override
+	public void render()
+	{
+		if(sampled && MicronGameSettings.profiling())
+		{
+			poolDisplay.render();
+			qualityDisplay.render();
+		}
+	}
+}
\ No newline at end of file
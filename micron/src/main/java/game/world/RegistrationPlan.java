@@ -0,0 +1,118 @@
+package game.world;
+
+import org.jrabbit.base.core.types.Renderable;
+import org.jrabbit.base.core.types.Updateable;
+
+import game.objects.ComplexObject;
+import game.objects.PhysSprite;
+import game.objects.debris.base.Debris;
+import game.objects.debris.base.Vacuum;
+import game.objects.effects.base.MatrixEffect;
+import game.objects.entities.base.MatrixEntity;
+import game.objects.sprite.MatrixSprite;
+
+/*****************************************************************************
+ * A RegistrationPlan records which of a Matrix's roles objects of a certain 
+ * class fill, and therefore which lists and Registries they belong in.
+ * 
+ * Plans are worked out once per concrete class and then cached, so adding or
+ * removing an object doesn't need to test it against every type the Matrix 
+ * knows about.
+ *****************************************************************************/
+public class RegistrationPlan
+{
+	/**
+	 * The cached plan of every class that has been added to a Matrix.
+	 **/
+	private static final ClassValue<RegistrationPlan> PLANS = 
+			new ClassValue<RegistrationPlan>() {
+				protected RegistrationPlan computeValue(Class<?> type)
+				{
+					return new RegistrationPlan(type);
+				}};
+	
+	/**
+	 * Whether or not the object counts towards the Matrix's complexity.
+	 **/
+	public final boolean complex;
+	
+	/**
+	 * Whether or not the object is a PhysSprite, which the Matrix updates and 
+	 * renders itself when it is given a layer.
+	 **/
+	public final boolean physSprite;
+	
+	/**
+	 * Whether or not the object is a MatrixSprite.
+	 **/
+	public final boolean matrixSprite;
+	
+	/**
+	 * Whether or not the object is a MatrixEntity.
+	 **/
+	public final boolean entity;
+	
+	/**
+	 * Whether or not the object is a MatrixEffect.
+	 **/
+	public final boolean effect;
+	
+	/**
+	 * Whether or not the object is a Vacuum.
+	 **/
+	public final boolean vacuum;
+	
+	/**
+	 * Whether or not the object is Debris.
+	 **/
+	public final boolean debris;
+	
+	/**
+	 * Whether or not the object is Renderable.
+	 **/
+	public final boolean renderable;
+	
+	/**
+	 * Whether or not the object is Updateable.
+	 **/
+	public final boolean updateable;
+	
+	/**
+	 * Whether or not the object is Poolable, and should be released once it 
+	 * has been taken out.
+	 **/
+	public final boolean poolable;
+	
+	/*************************************************************************
+	 * Works out the plan for the indicated class.
+	 * 
+	 * @param type
+	 * 			  The concrete class of the objects to plan for.
+	 *************************************************************************/
+	private RegistrationPlan(Class<?> type)
+	{
+		complex = ComplexObject.class.isAssignableFrom(type);
+		physSprite = PhysSprite.class.isAssignableFrom(type);
+		matrixSprite = MatrixSprite.class.isAssignableFrom(type);
+		entity = MatrixEntity.class.isAssignableFrom(type);
+		effect = MatrixEffect.class.isAssignableFrom(type);
+		vacuum = Vacuum.class.isAssignableFrom(type);
+		debris = Debris.class.isAssignableFrom(type);
+		renderable = Renderable.class.isAssignableFrom(type);
+		updateable = Updateable.class.isAssignableFrom(type);
+		poolable = Poolable.class.isAssignableFrom(type);
+	}
+	
+	/*************************************************************************
+	 * Accesses the plan for the indicated object.
+	 * 
+	 * @param object
+	 * 			  The object being added to or removed from a Matrix.
+	 * 
+	 * @return The plan for the object's class.
+	 *************************************************************************/
+	public static RegistrationPlan of(Object object)
+	{
+		return PLANS.get(object.getClass());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,256 @@
+package game.world;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/*****************************************************************************
+ * A Registry is an unordered collection of Slotted objects that supports 
+ * adding and removing in constant time, while keeping its contents packed 
+ * densely into a single array for fast iteration.
+ * 
+ * It is built as a generational slot map. Each object is given a handle that
+ * is made of a slot number and a generation; the slot records where in the 
+ * dense array the object currently lives. When an object is removed, the last
+ * object in the array is moved into its place, and the slot's generation is
+ * advanced so that the old handle can no longer be resolved.
+ * 
+ * A Registry does not lock itself while being iterated over, unlike a 
+ * LockingList; changes made in the middle of an iteration should be recorded
+ * in a CommandBuffer and performed afterwards.
+ *****************************************************************************/
+public class Registry<T extends Slotted> implements Iterable<T>
+{
+	/**
+	 * The number of bits of a handle that are used to store the slot.
+	 **/
+	private static final int SLOT_BITS = 20;
+	
+	/**
+	 * Masks out the slot from a handle.
+	 **/
+	private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+	
+	/**
+	 * Masks out the generation, once shifted out of a handle.
+	 **/
+	private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+	
+	/**
+	 * The ID of this Registry, used to look up an object's handle.
+	 **/
+	protected final int id;
+	
+	/**
+	 * The registered objects.
+	 **/
+	protected Object[] dense;
+	
+	/**
+	 * The slot of each registered object.
+	 **/
+	protected int[] denseSlots;
+	
+	/**
+	 * The number of registered objects.
+	 **/
+	protected int size;
+	
+	/**
+	 * For each slot in use, the index of its object in the dense array; for 
+	 * each free slot, the next free slot (or -1).
+	 **/
+	protected int[] slotIndices;
+	
+	/**
+	 * The current generation of each slot.
+	 **/
+	protected int[] slotGenerations;
+	
+	/**
+	 * The number of slots that have ever been used.
+	 **/
+	protected int slotCount;
+	
+	/**
+	 * The first free slot, or -1 if there are none.
+	 **/
+	protected int freeSlot;
+	
+	/*************************************************************************
+	 * Creates an empty Registry.
+	 * 
+	 * @param id
+	 * 			  The ID used to store handles in registered objects. Registries
+	 * 			  that may hold the same object must have different IDs.
+	 *************************************************************************/
+	public Registry(int id)
+	{
+		this.id = id;
+		dense = new Object[16];
+		denseSlots = new int[16];
+		slotIndices = new int[16];
+		slotGenerations = new int[16];
+		freeSlot = -1;
+	}
+	
+	/*************************************************************************
+	 * Adds the indicated object, unless it has already been added.
+	 * 
+	 * @param object
+	 * 			  The object to add.
+	 *************************************************************************/
+	public void add(T object)
+	{
+		if(!contains(object))
+		{
+			int slot = freeSlot;
+			if(slot != -1)
+				freeSlot = slotIndices[slot];
+			else
+			{
+				slot = slotCount++;
+				if(slot == slotIndices.length)
+				{
+					slotIndices = Arrays.copyOf(slotIndices, slot * 2);
+					slotGenerations = Arrays.copyOf(slotGenerations, slot * 2);
+				}
+			}
+			if(size == dense.length)
+			{
+				dense = Arrays.copyOf(dense, size * 2);
+				denseSlots = Arrays.copyOf(denseSlots, size * 2);
+			}
+			dense[size] = object;
+			denseSlots[size] = slot;
+			slotIndices[slot] = size++;
+			object.setHandle(id, (slotGenerations[slot] << SLOT_BITS) | slot);
+		}
+	}
+	
+	/*************************************************************************
+	 * Removes the indicated object.
+	 * 
+	 * @param object
+	 * 			  The object to remove.
+	 * 
+	 * @return True if the object was registered, false if not.
+	 *************************************************************************/
+	public boolean remove(T object)
+	{
+		if(!contains(object))
+			return false;
+		int slot = object.handle(id) & SLOT_MASK;
+		int index = slotIndices[slot];
+		int last = --size;
+		if(index != last)
+		{
+			dense[index] = dense[last];
+			denseSlots[index] = denseSlots[last];
+			slotIndices[denseSlots[index]] = index;
+		}
+		dense[last] = null;
+		slotGenerations[slot] = (slotGenerations[slot] + 1) & GENERATION_MASK;
+		slotIndices[slot] = freeSlot;
+		freeSlot = slot;
+		object.setHandle(id, -1);
+		return true;
+	}
+	
+	/*************************************************************************
+	 * Determines if the object is currently registered.
+	 * 
+	 * @param object
+	 * 			  The object to look for.
+	 * 
+	 * @return True if the object is in the Registry, false if not.
+	 *************************************************************************/
+	public boolean contains(T object)
+	{
+		return resolve(object.handle(id)) == object;
+	}
+	
+	/*************************************************************************
+	 * Finds the object that a handle refers to.
+	 * 
+	 * @param handle
+	 * 			  The handle given to the object.
+	 * 
+	 * @return The object, or null if the handle is no longer valid.
+	 *************************************************************************/
+	@SuppressWarnings("unchecked")
+	public T resolve(int handle)
+	{
+		if(handle < 0)
+			return null;
+		int slot = handle & SLOT_MASK;
+		if(slot >= slotCount || 
+				slotGenerations[slot] != handle >>> SLOT_BITS)
+			return null;
+		int index = slotIndices[slot];
+		if(index < 0 || index >= size || denseSlots[index] != slot)
+			return null;
+		return (T) dense[index];
+	}
+	
+	/*************************************************************************
+	 * Learns how many objects are registered.
+	 * 
+	 * @return The number of objects in the Registry.
+	 *************************************************************************/
+	public int size() { return size; }
+	
+	/*************************************************************************
+	 * Accesses a registered object by its position in the dense array. The 
+	 * order of objects changes whenever one is removed.
+	 * 
+	 * @param index
+	 * 			  The position of the object; must be less than size().
+	 * 
+	 * @return The object at that position.
+	 *************************************************************************/
+	@SuppressWarnings("unchecked")
+	public T get(int index) { return (T) dense[index]; }
+	
+	/*************************************************************************
+	 * Removes every object from the Registry.
+	 *************************************************************************/
+	public void clear()
+	{
+		for(int i = 0; i < size; i++)
+			((Slotted) dense[i]).setHandle(id, -1);
+		Arrays.fill(dense, 0, size, null);
+		size = slotCount = 0;
+		freeSlot = -1;
+	}
+	
+	/*************************************************************************
+	 * Iterates over the registered objects. The Registry must not be changed
+	 * until the iteration is finished.
+	 * 
+	 * @return An Iterator over the registered objects.
+	 ***************************************************************/ @Override
+	public Iterator<T> iterator()
+	{
+		return new Iterator<T>() {
+			private int index;
+			
+			public boolean hasNext()
+			{
+				return index < size;
+			}
+			
+			public T next()
+			{
+				if(index >= size)
+					throw new NoSuchElementException();
+				return get(index++);
+			}
+			
+			public void remove()
+			{
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package game.world;
+
+/*****************************************************************************
+ * A Slotted object can be stored in Registries. It remembers the handle it was
+ * given by each Registry it belongs to, which is what allows a Registry to 
+ * find and remove it without searching.
+ *****************************************************************************/
+public interface Slotted
+{
+	/*************************************************************************
+	 * Learns the handle this object was given by a Registry.
+	 * 
+	 * @param registry
+	 * 			  The ID of the Registry.
+	 * 
+	 * @return The handle, or -1 if the object has none.
+	 *************************************************************************/
+	public int handle(int registry);
+	
+	/*************************************************************************
+	 * Redefines the handle this object has been given by a Registry.
+	 * 
+	 * @param registry
+	 * 			  The ID of the Registry.
+	 * @param handle
+	 * 			  The new handle, or -1 if the object is no longer registered.
+	 *************************************************************************/
+	public void setHandle(int registry, int handle);
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package game.world;
+
+import java.util.Arrays;
+
+/*****************************************************************************
+ * A SpatialHash is a uniform grid of square cells that is used to quickly find
+ * which objects might overlap a given region. Objects are identified by the
+ * integer IDs they are inserted with; these should be small, dense indices
+ * (i.e., 0, 1, 2...) into an array maintained by whatever uses the hash.
+ * 
+ * Cells are not stored explicitly - instead, each cell coordinate is hashed
+ * into a fixed-size table of buckets. Two distant cells may share a bucket, so
+ * a query can return objects that don't actually overlap the searched region;
+ * the hash is only a broad phase, and any result should still be checked with
+ * an exact test.
+ * 
+ * The hash is intended to be cleared and refilled every update, so it is built
+ * from flat arrays and does no allocation once its arrays have grown to fit.
+ *****************************************************************************/
+public class SpatialHash
+{
+	/**
+	 * If an object would span more than this many cells, it is instead stored
+	 * in a separate list that is returned by every query.
+	 **/
+	private static final int MAX_CELL_SPAN = 64;
+
+	/**
+	 * The width and height of each cell.
+	 **/
+	protected float cellSize;
+
+	/**
+	 * Used to wrap hashed cell coordinates into the table of buckets.
+	 **/
+	protected int mask;
+
+	/**
+	 * The index of the first entry in each bucket, or -1 if it is empty.
+	 **/
+	protected int[] buckets;
+
+	/**
+	 * The ID of the object stored in each entry.
+	 **/
+	protected int[] entryIDs;
+
+	/**
+	 * The index of the next entry in the same bucket, or -1 if there is none.
+	 **/
+	protected int[] entryNext;
+
+	/**
+	 * The number of entries currently in use.
+	 **/
+	protected int entries;
+
+	/**
+	 * The IDs of objects that are too large to be stored in cells.
+	 **/
+	protected int[] oversized;
+
+	/**
+	 * The number of oversized objects.
+	 **/
+	protected int oversizedCount;
+
+	/**
+	 * The query on which each ID was last found. This is used to prevent the
+	 * same object from being returned twice by a single query.
+	 **/
+	protected int[] stamps;
+
+	/**
+	 * The number of the current query.
+	 **/
+	protected int stamp;
+
+	/**
+	 * The IDs found by the last query.
+	 **/
+	protected int[] found;
+
+	/**
+	 * The number of IDs found by the last query.
+	 **/
+	protected int foundCount;
+
+	/*************************************************************************
+	 * Creates a SpatialHash with the indicated number of buckets.
+	 * 
+	 * @param bucketCount
+	 * 			  The number of buckets to hash cells into. This is rounded up to
+	 * 			  the nearest power of two.
+	 *************************************************************************/
+	public SpatialHash(int bucketCount)
+	{
+		int size = Integer.highestOneBit(Math.max(bucketCount - 1, 1)) << 1;
+		buckets = new int[size];
+		mask = size - 1;
+		entryIDs = new int[size];
+		entryNext = new int[size];
+		oversized = new int[16];
+		stamps = new int[size];
+		found = new int[size];
+		clear(1f);
+	}
+
+	/*************************************************************************
+	 * Empties the SpatialHash and redefines the size of its cells.
+	 * 
+	 * @param cellSize
+	 * 			  The new width and height of each cell.
+	 *************************************************************************/
+	public void clear(float cellSize)
+	{
+		this.cellSize = cellSize;
+		Arrays.fill(buckets, -1);
+		entries = 0;
+		oversizedCount = 0;
+	}
+
+	/*************************************************************************
+	 * Learns the size of the cells.
+	 * 
+	 * @return The width and height of each cell.
+	 *************************************************************************/
+	public float cellSize() { return cellSize; }
+
+	/*************************************************************************
+	 * Inserts a circular region into every cell it overlaps.
+	 * 
+	 * @param id
+	 * 			  The ID of the object that occupies the region.
+	 * @param x
+	 * 			  The x coordinate of the center of the region.
+	 * @param y
+	 * 			  The y coordinate of the center of the region.
+	 * @param radius
+	 * 			  The radius of the region.
+	 *************************************************************************/
+	public void insert(int id, float x, float y, float radius)
+	{
+		if(id >= stamps.length)
+			stamps = Arrays.copyOf(stamps, Math.max(id + 1, stamps.length * 2));
+		int minX = cell(x - radius), maxX = cell(x + radius);
+		int minY = cell(y - radius), maxY = cell(y + radius);
+		if(maxX - minX >= MAX_CELL_SPAN || maxY - minY >= MAX_CELL_SPAN)
+		{
+			if(oversizedCount == oversized.length)
+				oversized = Arrays.copyOf(oversized, oversizedCount * 2);
+			oversized[oversizedCount++] = id;
+			return;
+		}
+		for(int cx = minX; cx <= maxX; cx++)
+			for(int cy = minY; cy <= maxY; cy++)
+			{
+				if(entries == entryIDs.length)
+				{
+					entryIDs = Arrays.copyOf(entryIDs, entries * 2);
+					entryNext = Arrays.copyOf(entryNext, entries * 2);
+				}
+				int bucket = bucket(cx, cy);
+				entryIDs[entries] = id;
+				entryNext[entries] = buckets[bucket];
+				buckets[bucket] = entries++;
+			}
+	}
+
+	/*************************************************************************
+	 * Finds all objects that might overlap the indicated circular region. The
+	 * results can be read with found(); they are sorted by ID, so that they are
+	 * visited in the same order they were inserted.
+	 * 
+	 * @param x
+	 * 			  The x coordinate of the center of the region.
+	 * @param y
+	 * 			  The y coordinate of the center of the region.
+	 * @param radius
+	 * 			  The radius of the region.
+	 * 
+	 * @return The number of objects found.
+	 *************************************************************************/
+	public int query(float x, float y, float radius)
+	{
+		if(++stamp == 0)
+		{
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+		foundCount = 0;
+		for(int i = 0; i < oversizedCount; i++)
+			addFound(oversized[i]);
+		int minX = cell(x - radius), maxX = cell(x + radius);
+		int minY = cell(y - radius), maxY = cell(y + radius);
+		if(maxX - minX >= MAX_CELL_SPAN || maxY - minY >= MAX_CELL_SPAN)
+		{
+			for(int i = 0; i < entries; i++)
+				addFound(entryIDs[i]);
+		}
+		else
+		{
+			for(int cx = minX; cx <= maxX; cx++)
+				for(int cy = minY; cy <= maxY; cy++)
+					for(int i = buckets[bucket(cx, cy)]; i != -1;
+							i = entryNext[i])
+						addFound(entryIDs[i]);
+		}
+		Arrays.sort(found, 0, foundCount);
+		return foundCount;
+	}
+
+	/*************************************************************************
+	 * Accesses the results of the last query.
+	 * 
+	 * @param index
+	 * 			  Which result to access; must be less than the count returned
+	 * 			  by query().
+	 * 
+	 * @return The ID of the found object.
+	 *************************************************************************/
+	public int found(int index) { return found[index]; }
+
+	/*************************************************************************
+	 * Records an ID as found by the current query, unless it already has been.
+	 * 
+	 * @param id
+	 * 			  The ID of the object that was found.
+	 *************************************************************************/
+	private void addFound(int id)
+	{
+		if(stamps[id] == stamp)
+			return;
+		stamps[id] = stamp;
+		if(foundCount == found.length)
+			found = Arrays.copyOf(found, foundCount * 2);
+		found[foundCount++] = id;
+	}
+
+	/*************************************************************************
+	 * Learns which cell the indicated coordinate falls into.
+	 * 
+	 * @param coordinate
+	 * 			  The coordinate along one axis.
+	 * 
+	 * @return The index of the cell along that axis.
+	 *************************************************************************/
+	private int cell(float coordinate)
+	{
+		return (int) Math.floor(coordinate / cellSize);
+	}
+
+	/*************************************************************************
+	 * Learns which bucket the indicated cell is stored in.
+	 * 
+	 * @param cx
+	 * 			  The x index of the cell.
+	 * @param cy
+	 * 			  The y index of the cell.
+	 * 
+	 * @return The index of the bucket.
+	 *************************************************************************/
+	private int bucket(int cx, int cy)
+	{
+		return ((cx * 73856093) ^ (cy * 19349663)) & mask;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,330 @@
+package game.world;
+
+import java.util.Arrays;
+
+/*****************************************************************************
+ * A SpriteBatch collects textured quads so that a whole layer can be drawn
+ * with a handful of calls, rather than one transform and one quad per sprite.
+ * 
+ * Each quad is transformed on the CPU from a location, rotation and scale as
+ * it is added, straight into a single stream of vertices, and build() makes
+ * sure a stream of triangle indices covers them all. Quads are never
+ * reordered, since sprites on the same layer may overlap: each run of quads
+ * added one after another with the same texture and blend op forms a group,
+ * a contiguous run of indices that can be drawn with a single call once its
+ * texture and blend op are bound. A quad with a different texture or blend op
+ * from the one before it starts a new group, even if an earlier group shares
+ * them.
+ * 
+ * The SpriteBatch itself never touches OpenGL; textures and blend ops are
+ * only compared by identity, and drawing the streams is left to whoever built
+ * them. All arrays are reused from one frame to the next.
+ *****************************************************************************/
+public class SpriteBatch
+{
+	/**
+	 * The number of floats per vertex: x, y, u, v, red, green, blue, alpha.
+	 **/
+	public static final int VERTEX_SIZE = 8;
+
+	/**
+	 * The number of floats per quad.
+	 **/
+	private static final int QUAD_SIZE = VERTEX_SIZE * 4;
+
+	/**
+	 * The number of indices per quad; each quad is two triangles.
+	 **/
+	public static final int QUAD_INDICES = 6;
+
+	/**
+	 * The number of quads that have been added.
+	 **/
+	protected int quads;
+
+	/**
+	 * The texture and blend op of each group.
+	 **/
+	protected Object[] groupTextures, groupBlends;
+
+	/**
+	 * The number of quads in each group.
+	 **/
+	protected int[] groupQuads;
+
+	/**
+	 * The first quad of each group in the vertex stream.
+	 **/
+	protected int[] groupStarts;
+
+	/**
+	 * The number of groups.
+	 **/
+	protected int groups;
+
+	/**
+	 * The stream of vertices, in the order the quads were added.
+	 **/
+	protected float[] vertices;
+
+	/**
+	 * The stream of triangle indices. Since every quad is laid out the same
+	 * way, this only ever grows.
+	 **/
+	protected int[] indices;
+
+	/**
+	 * The number of quads the index stream covers.
+	 **/
+	protected int indexedQuads;
+
+	/*************************************************************************
+	 * Creates an empty SpriteBatch.
+	 *************************************************************************/
+	public SpriteBatch()
+	{
+		vertices = new float[QUAD_SIZE * 64];
+		indices = new int[0];
+		groupTextures = new Object[8];
+		groupBlends = new Object[8];
+		groupQuads = new int[8];
+		groupStarts = new int[8];
+	}
+
+	/*************************************************************************
+	 * Removes every quad and group, so that a new batch can be collected.
+	 *************************************************************************/
+	public void clear()
+	{
+		quads = 0;
+		Arrays.fill(groupTextures, 0, groups, null);
+		Arrays.fill(groupBlends, 0, groups, null);
+		groups = 0;
+	}
+
+	/*************************************************************************
+	 * Adds a quad, centered on a location, to the batch.
+	 * 
+	 * @param texture
+	 * 			  The texture to draw the quad with.
+	 * @param blend
+	 * 			  The blend op to draw the quad with, or null for whatever is
+	 * 			  already bound.
+	 * @param x
+	 * 			  The x coordinate of the center of the quad.
+	 * @param y
+	 * 			  The y coordinate of the center of the quad.
+	 * @param theta
+	 * 			  The rotation of the quad, in radians.
+	 * @param halfWidth
+	 * 			  Half of the scaled width of the quad. This is negative if
+	 * 			  the quad is flipped horizontally.
+	 * @param halfHeight
+	 * 			  Half of the scaled height of the quad. This is negative if
+	 * 			  the quad is flipped vertically.
+	 * @param texWidth
+	 * 			  The horizontal extent of the image within the texture.
+	 * @param texHeight
+	 * 			  The vertical extent of the image within the texture.
+	 * @param red
+	 * 			  The red value to tint the quad.
+	 * @param green
+	 * 			  The green value to tint the quad.
+	 * @param blue
+	 * 			  The blue value to tint the quad.
+	 * @param alpha
+	 * 			  The opacity of the quad.
+	 *************************************************************************/
+	public void add(Object texture, Object blend, float x, float y,
+			float theta, float halfWidth, float halfHeight, float texWidth,
+			float texHeight, float red, float green, float blue, float alpha)
+	{
+		if((quads + 1) * QUAD_SIZE > vertices.length)
+			vertices = Arrays.copyOf(vertices, vertices.length * 2);
+		group(texture, blend);
+		float cos = (float) Math.cos(theta);
+		float sin = (float) Math.sin(theta);
+		float wCos = halfWidth * cos, wSin = halfWidth * sin;
+		float hCos = halfHeight * cos, hSin = halfHeight * sin;
+		int i = quads * QUAD_SIZE;
+		i = vertex(i, x - wCos + hSin, y - hCos - wSin, 0, 0,
+				red, green, blue, alpha);
+		i = vertex(i, x + wCos + hSin, y - hCos + wSin, texWidth, 0,
+				red, green, blue, alpha);
+		i = vertex(i, x + wCos - hSin, y + hCos + wSin, texWidth, texHeight,
+				red, green, blue, alpha);
+		vertex(i, x - wCos - hSin, y + hCos - wSin, 0, texHeight,
+				red, green, blue, alpha);
+		quads++;
+	}
+
+	/*************************************************************************
+	 * Writes one vertex into the vertex stream.
+	 * 
+	 * @param i
+	 * 			  The position of the vertex.
+	 * @param x
+	 * 			  The x coordinate of the vertex.
+	 * @param y
+	 * 			  The y coordinate of the vertex.
+	 * @param u
+	 * 			  The horizontal texture coordinate.
+	 * @param v
+	 * 			  The vertical texture coordinate.
+	 * @param red
+	 * 			  The red value of the vertex.
+	 * @param green
+	 * 			  The green value of the vertex.
+	 * @param blue
+	 * 			  The blue value of the vertex.
+	 * @param alpha
+	 * 			  The opacity of the vertex.
+	 * 
+	 * @return The position of the next vertex.
+	 *************************************************************************/
+	private int vertex(int i, float x, float y, float u, float v, float red,
+			float green, float blue, float alpha)
+	{
+		vertices[i] = x;
+		vertices[i + 1] = y;
+		vertices[i + 2] = u;
+		vertices[i + 3] = v;
+		vertices[i + 4] = red;
+		vertices[i + 5] = green;
+		vertices[i + 6] = blue;
+		vertices[i + 7] = alpha;
+		return i + VERTEX_SIZE;
+	}
+
+	/*************************************************************************
+	 * Counts the next quad in the last group, if it has the same texture and
+	 * blend op, or otherwise starts a new group with it.
+	 * 
+	 * @param texture
+	 * 			  The texture of the quad.
+	 * @param blend
+	 * 			  The blend op of the quad.
+	 *************************************************************************/
+	private void group(Object texture, Object blend)
+	{
+		int last = groups - 1;
+		if(last >= 0 && groupTextures[last] == texture &&
+				groupBlends[last] == blend)
+		{
+			groupQuads[last]++;
+			return;
+		}
+		if(groups == groupTextures.length)
+		{
+			groupTextures = Arrays.copyOf(groupTextures, groups * 2);
+			groupBlends = Arrays.copyOf(groupBlends, groups * 2);
+			groupQuads = Arrays.copyOf(groupQuads, groups * 2);
+			groupStarts = Arrays.copyOf(groupStarts, groups * 2);
+		}
+		groupTextures[groups] = texture;
+		groupBlends[groups] = blend;
+		groupQuads[groups] = 1;
+		groupStarts[groups++] = quads;
+	}
+
+	/*************************************************************************
+	 * Makes sure the index stream covers every quad that has been added.
+	 *************************************************************************/
+	public void build()
+	{
+		if(indexedQuads < quads)
+		{
+			int covered = Math.max(quads, indexedQuads * 2);
+			indices = Arrays.copyOf(indices, covered * QUAD_INDICES);
+			for(int q = indexedQuads; q < covered; q++)
+			{
+				int i = q * QUAD_INDICES;
+				int base = q * 4;
+				indices[i] = base;
+				indices[i + 1] = base + 1;
+				indices[i + 2] = base + 2;
+				indices[i + 3] = base + 2;
+				indices[i + 4] = base + 3;
+				indices[i + 5] = base;
+			}
+			indexedQuads = covered;
+		}
+	}
+
+	/*************************************************************************
+	 * Learns how many quads have been added.
+	 * 
+	 * @return The number of quads in the batch.
+	 *************************************************************************/
+	public int quads() { return quads; }
+
+	/*************************************************************************
+	 * Accesses the vertex stream. Only the first quads() * 4 vertices belong
+	 * to this batch.
+	 * 
+	 * @return The vertices, VERTEX_SIZE floats each, in the order the quads
+	 * 		   were added.
+	 *************************************************************************/
+	public float[] vertices() { return vertices; }
+
+	/*************************************************************************
+	 * Accesses the index stream. Only the first quads() * QUAD_INDICES
+	 * indices belong to this batch.
+	 * 
+	 * @return The indices of the triangles, into the vertex stream.
+	 *************************************************************************/
+	public int[] indices() { return indices; }
+
+	/*************************************************************************
+	 * Learns how many groups the quads fell into.
+	 * 
+	 * @return The number of groups.
+	 *************************************************************************/
+	public int groups() { return groups; }
+
+	/*************************************************************************
+	 * Accesses the texture of a group.
+	 * 
+	 * @param group
+	 * 			  The index of the group.
+	 * 
+	 * @return The texture every quad in the group is drawn with.
+	 *************************************************************************/
+	public Object groupTexture(int group) { return groupTextures[group]; }
+
+	/*************************************************************************
+	 * Accesses the blend op of a group.
+	 * 
+	 * @param group
+	 * 			  The index of the group.
+	 * 
+	 * @return The blend op every quad in the group is drawn with, or null.
+	 *************************************************************************/
+	public Object groupBlend(int group) { return groupBlends[group]; }
+
+	/*************************************************************************
+	 * Learns where a group begins in the index stream.
+	 * 
+	 * @param group
+	 * 			  The index of the group.
+	 * 
+	 * @return The position of the group's first index.
+	 *************************************************************************/
+	public int groupStart(int group)
+	{
+		return groupStarts[group] * QUAD_INDICES;
+	}
+
+	/*************************************************************************
+	 * Learns how many indices a group covers.
+	 * 
+	 * @param group
+	 * 			  The index of the group.
+	 * 
+	 * @return The number of indices to draw for the group.
+	 *************************************************************************/
+	public int groupLength(int group)
+	{
+		return groupQuads[group] * QUAD_INDICES;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,248 @@
+package game.world;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+import org.jrabbit.base.core.types.Renderable;
+import org.jrabbit.base.graphics.image.Image;
+import org.jrabbit.base.graphics.transforms.BlendOp;
+import org.lwjgl.BufferUtils;
+
+import game.objects.PhysSprite;
+
+import static org.lwjgl.opengl.GL11.*;
+
+/*****************************************************************************
+ * A SpriteLayer renders all of the PhysSprites that have been placed on one
+ * of a Matrix's layers.
+ * 
+ * Instead of every PhysSprite being added to the layer itself (which makes
+ * removing one a search through the entire layer), each layer holds a single
+ * SpriteLayer, which keeps its PhysSprites in a Registry.
+ * 
+ * The Registry fills the hole left by a removed PhysSprite with its last one,
+ * so it can't be drawn from directly without sprites jumping above or below 
+ * their neighbours. The layer also lists its PhysSprites in the order they 
+ * were placed; a removal only leaves a stale entry behind, and the list is 
+ * compacted in a single pass, keeping its order, before it is next drawn.
+ * 
+ * PhysSprites that are drawn with a single static Image are collected into a
+ * SpriteBatch and drawn with vertex arrays, one call per run of sprites that
+ * share a texture, instead of each binding its own transforms and drawing 
+ * its own quad. A PhysSprite that can't be batched first draws whatever has
+ * been collected before it, and then renders itself, so the order of the
+ * layer is kept.
+ *****************************************************************************/
+public class SpriteLayer implements Renderable
+{
+	/**
+	 * The PhysSprites on this layer.
+	 **/
+	protected Registry<PhysSprite> sprites;
+	
+	/**
+	 * The ID of the Registry, which the PhysSprites' handles are kept under.
+	 **/
+	protected int registryID;
+	
+	/**
+	 * The PhysSprites on this layer in the order they were placed, possibly
+	 * along with some that have since been removed.
+	 **/
+	protected PhysSprite[] drawOrder;
+	
+	/**
+	 * The handle each PhysSprite in the draw order had when it was placed. An
+	 * entry is stale once the handle no longer resolves to its PhysSprite.
+	 **/
+	protected int[] drawHandles;
+	
+	/**
+	 * The number of entries in the draw order.
+	 **/
+	protected int drawSize;
+	
+	/**
+	 * Whether or not any PhysSprite has been removed since the draw order was
+	 * last compacted.
+	 **/
+	protected boolean removed;
+	
+	/**
+	 * Collects the PhysSprites that can be batched.
+	 **/
+	protected SpriteBatch batch;
+	
+	/**
+	 * The buffer the batch's vertices are copied into for drawing.
+	 **/
+	protected FloatBuffer vertexBuffer;
+	
+	/**
+	 * The buffer the batch's indices are copied into for drawing.
+	 **/
+	protected IntBuffer indexBuffer;
+	
+	/*************************************************************************
+	 * Creates an empty SpriteLayer.
+	 * 
+	 * @param registryID
+	 * 			  The ID of the Registry that will store the PhysSprites.
+	 *************************************************************************/
+	public SpriteLayer(int registryID)
+	{
+		sprites = new Registry<PhysSprite>(registryID);
+		this.registryID = registryID;
+		drawOrder = new PhysSprite[16];
+		drawHandles = new int[16];
+		batch = new SpriteBatch();
+	}
+	
+	/*************************************************************************
+	 * Places a PhysSprite on this layer, above every PhysSprite already there,
+	 * unless it has already been placed.
+	 * 
+	 * @param sprite
+	 * 			  The PhysSprite to add.
+	 *************************************************************************/
+	public void add(PhysSprite sprite)
+	{
+		if(sprites.contains(sprite))
+			return;
+		sprites.add(sprite);
+		if(drawSize == drawOrder.length)
+		{
+			compact();
+			if(drawSize == drawOrder.length)
+			{
+				drawOrder = Arrays.copyOf(drawOrder, drawSize * 2);
+				drawHandles = Arrays.copyOf(drawHandles, drawSize * 2);
+			}
+		}
+		drawOrder[drawSize] = sprite;
+		drawHandles[drawSize++] = sprite.handle(registryID);
+	}
+	
+	/*************************************************************************
+	 * Takes a PhysSprite off this layer. Its entry in the draw order is left 
+	 * until the next compaction.
+	 * 
+	 * @param sprite
+	 * 			  The PhysSprite to remove.
+	 * 
+	 * @return True if the PhysSprite was on this layer, false if not.
+	 *************************************************************************/
+	public boolean remove(PhysSprite sprite)
+	{
+		if(!sprites.remove(sprite))
+			return false;
+		removed = true;
+		return true;
+	}
+	
+	/*************************************************************************
+	 * Takes every PhysSprite off this layer.
+	 *************************************************************************/
+	public void clear()
+	{
+		sprites.clear();
+		Arrays.fill(drawOrder, 0, drawSize, null);
+		drawSize = 0;
+		removed = false;
+	}
+	
+	/*************************************************************************
+	 * Drops the stale entries from the draw order, if there are any, sliding
+	 * the rest down so that they keep the order they were placed in. An entry
+	 * is stale if its PhysSprite has been removed, including when it has been
+	 * placed again since, in which case its newer entry is the one kept.
+	 *************************************************************************/
+	private void compact()
+	{
+		if(!removed)
+			return;
+		int kept = 0;
+		for(int i = 0; i < drawSize; i++)
+			if(sprites.resolve(drawHandles[i]) == drawOrder[i])
+			{
+				drawOrder[kept] = drawOrder[i];
+				drawHandles[kept++] = drawHandles[i];
+			}
+		Arrays.fill(drawOrder, kept, drawSize, null);
+		drawSize = kept;
+		removed = false;
+	}
+	
+	/*************************************************************************
+	 * Renders every PhysSprite on this layer, in the order they were placed.
+	 ***************************************************************/ @Override
+	public void render()
+	{
+		batch.clear();
+		compact();
+		for(int i = 0; i < drawSize; i++)
+		{
+			PhysSprite sprite = drawOrder[i];
+			if(sprite.canBatch())
+				sprite.batch(batch);
+			else
+			{
+				drawBatch();
+				sprite.render();
+			}
+		}
+		drawBatch();
+	}
+
+	/*************************************************************************
+	 * Draws every PhysSprite collected in the SpriteBatch, then empties it.
+	 * Each group of the batch is drawn with a single call, after binding its
+	 * texture and blend op.
+	 *************************************************************************/
+	private void drawBatch()
+	{
+		if(batch.quads() == 0)
+			return;
+		batch.build();
+		int floats = batch.quads() * 4 * SpriteBatch.VERTEX_SIZE;
+		int indices = batch.quads() * SpriteBatch.QUAD_INDICES;
+		if(vertexBuffer == null || vertexBuffer.capacity() < floats)
+			vertexBuffer = BufferUtils.createFloatBuffer(Math.max(floats, 
+					vertexBuffer == null ? 0 : vertexBuffer.capacity() * 2));
+		if(indexBuffer == null || indexBuffer.capacity() < indices)
+			indexBuffer = BufferUtils.createIntBuffer(Math.max(indices, 
+					indexBuffer == null ? 0 : indexBuffer.capacity() * 2));
+		vertexBuffer.clear();
+		vertexBuffer.put(batch.vertices(), 0, floats).flip();
+		indexBuffer.clear();
+		indexBuffer.put(batch.indices(), 0, indices).flip();
+		int stride = SpriteBatch.VERTEX_SIZE * 4;
+		glEnableClientState(GL_VERTEX_ARRAY);
+		glEnableClientState(GL_TEXTURE_COORD_ARRAY);
+		glEnableClientState(GL_COLOR_ARRAY);
+		vertexBuffer.position(0);
+		glVertexPointer(2, stride, vertexBuffer);
+		vertexBuffer.position(2);
+		glTexCoordPointer(2, stride, vertexBuffer);
+		vertexBuffer.position(4);
+		glColorPointer(4, stride, vertexBuffer);
+		for(int g = 0; g < batch.groups(); g++)
+		{
+			BlendOp blend = (BlendOp) batch.groupBlend(g);
+			if(blend != null)
+				blend.bind();
+			((Image) batch.groupTexture(g)).bind();
+			indexBuffer.limit(batch.groupStart(g) + batch.groupLength(g));
+			indexBuffer.position(batch.groupStart(g));
+			glDrawElements(GL_TRIANGLES, indexBuffer);
+			if(blend != null)
+				blend.release();
+		}
+		glDisableClientState(GL_COLOR_ARRAY);
+		glDisableClientState(GL_TEXTURE_COORD_ARRAY);
+		glDisableClientState(GL_VERTEX_ARRAY);
+		glColor4f(1, 1, 1, 1);
+		batch.clear();
+	}
+}
\ No newline at end of file
@@ -47,6 +47,11 @@ public class Grid implements Updateable, Renderable, Colored
 	 * The list of objects that render pieces of the Grid.
 	 **/
 	protected LockingList<GridUnit> units;
+	
+	/**
+	 * The QualityGovernor that decides how many GridUnits to render.
+	 **/
+	protected QualityGovernor quality;
 
 	/*************************************************************************
 	 * Creates a Grid.
@@ -54,15 +59,22 @@ public class Grid implements Updateable, Renderable, Colored
 	 * NOTE: The number of GridUnits that are used is based on screen size; that
 	 * way, the overall effect is roughly the same, even if run by different 
 	 * computers on different resolutions.
+	 * 
+	 * @param timers
+	 * 			  The TimerWheel that the GridUnits and colors are timed by.
+	 * @param quality
+	 * 			  The QualityGovernor that decides how many GridUnits to 
+	 * 			  render.
 	 *************************************************************************/
-	public Grid()
+	public Grid(TimerWheel timers, QualityGovernor quality)
 	{
-		colors = new GridColorManager();
+		this.quality = quality;
+		colors = new GridColorManager(timers);
 		units = new LockingList<GridUnit>();
 		int num = (int) ((WindowManager.controller().width() * WindowManager
 				.controller().height()) / 2000);
 		for (int i = 0; i < num; i++)
-			units.add(new GridUnit());
+			units.add(new GridUnit(timers));
 	}
 
 	/*************************************************************************
@@ -86,7 +98,8 @@ public class Grid implements Updateable, Renderable, Colored
 	}
 
 	/*************************************************************************
-	 * Updates the Grid.
+	 * Updates the Grid. The GridUnits are timed by the TimerWheel, so only 
+	 * the colors need to be updated.
 	 * 
 	 * @param delta
 	 * 			  The number of clock ticks since the last update.
@@ -94,16 +107,17 @@ public class Grid implements Updateable, Renderable, Colored
 	public void update(int delta)
 	{
 		colors.update(delta);
-		for (GridUnit unit : units)
-			unit.update(delta);
-		units.unlock();
 	}
 
 	/*************************************************************************
-	 * Renders the grid.
+	 * Renders the grid. When the QualityGovernor lowers the level of detail, 
+	 * GridUnits are skipped evenly throughout the list, so the Grid thins out
+	 * rather than leaving gaps.
 	 ***************************************************************/ @Override
 	public void render()
 	{
+		float detail = quality.detail();
+		float shown = 0;
 		float x = GameManager.camera().location().x();
 		float y = GameManager.camera().location().y();
 		float r = colors.color().red();
@@ -111,7 +125,14 @@ public class Grid implements Updateable, Renderable, Colored
 		float b = colors.color().blue();
 		BlendOp.ADDITIVE.bind();
 		for (GridUnit unit : units)
-			unit.render(x, y, r, g, b);
+		{
+			shown += detail;
+			if(shown >= 1)
+			{
+				shown -= 1;
+				unit.render(x, y, r, g, b);
+			}
+		}
 		units.unlock();
 		BlendOp.ADDITIVE.release();
 	}
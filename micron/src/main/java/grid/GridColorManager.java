@@ -41,10 +41,9 @@ public class GridColorManager implements Updateable, Colored
 	protected int next;
 	
 	/**
-	 * The amount of time the GridColorManager has spent on its current blending
-	 * phase.
+	 * Fires at the end of each blending phase.
 	 **/
-	protected int timer;
+	protected TimerWheel.Timer timer;
 	
 	/**
 	 * The total duration of each blending phase.
@@ -63,8 +62,11 @@ public class GridColorManager implements Updateable, Colored
 	
 	/*************************************************************************
 	 * Creates a default GridColorManager. The initial colors are random.
+	 * 
+	 * @param timers
+	 * 			  The TimerWheel used to time the blending phases.
 	 *************************************************************************/
-	public GridColorManager()
+	public GridColorManager(final TimerWheel timers)
 	{
 		current = Resources.random().nextInt(palette.length);
 		next = Resources.random().nextInt(palette.length);
@@ -72,6 +74,14 @@ public class GridColorManager implements Updateable, Colored
 		color = palette[current].copy();
 		backgroundColor = color.copy();
 		backgroundColor.darken(0.2f);
+		timer = new TimerWheel.Timer() {
+			protected void fire()
+			{
+				current = next;
+				next = Resources.random().nextInt(palette.length);
+				timers.skip(this, interval);
+			}};
+		timers.scheduleIn(timer, interval);
 	}
 	
 	/*************************************************************************
@@ -89,22 +99,17 @@ public class GridColorManager implements Updateable, Colored
 	public Color backgroundColor() { return backgroundColor; }
 	
 	/*************************************************************************
-	 * Updates the GridColorManager, allowing its hue to shift over time.
+	 * Updates the GridColorManager, allowing its hue to shift over time. The
+	 * switch to a new pair of colors is made by the timer.
 	 * 
 	 * @param delta
 	 * 			  The amount of time that has passed since the last update.
 	 ***************************************************************/ @Override
 	public void update(int delta)
 	{
-		timer += delta;
-		if(timer >= interval)
-		{
-			current = next;
-			next = Resources.random().nextInt(palette.length);
-			timer %= interval;
-		}
-		color.set(Color.blend(palette[current], palette[next], (float) timer / 
-				interval));
+		float phase = Math.min((float) (interval - timer.remaining()) / 
+				interval, 1f);
+		color.set(Color.blend(palette[current], palette[next], phase));
 		backgroundColor.set(color);
 		backgroundColor.darken(0.12f);
 	}
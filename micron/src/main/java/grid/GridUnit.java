@@ -1,6 +1,5 @@
 package grid;
 
-import org.jrabbit.base.core.types.Updateable;
 import org.jrabbit.base.graphics.skins.image.ImageSkin;
 import org.jrabbit.base.managers.Resources;
 import org.jrabbit.base.managers.window.WindowManager;
@@ -8,11 +7,12 @@ import org.jrabbit.base.managers.window.WindowManager;
 import static org.lwjgl.opengl.GL11.*;
 
 /*****************************************************************************
- * A GridUnit manages and renders one of the pieces of the Grid.
+ * A GridUnit manages and renders one of the pieces of the Grid. It is also a
+ * Timer, which picks a new transparency each time it fires.
  * 
  * @author Chris Molini
  *****************************************************************************/
-public class GridUnit implements Updateable
+public class GridUnit extends TimerWheel.Timer
 {
 	/**
 	 * This is the base scale for each GridUnit.
@@ -69,9 +69,9 @@ public class GridUnit implements Updateable
 	protected float delta;
 	
 	/**
-	 * The amount of time that has elapsed on the current transparency phase.
+	 * The TimerWheel that schedules the transparency phases.
 	 **/
-	protected int timer;
+	protected TimerWheel timers;
 	
 	/**
 	 * The duration of the current transparency phase.
@@ -85,9 +85,13 @@ public class GridUnit implements Updateable
 	
 	/*************************************************************************
 	 * Creates a random GridUnit.
+	 * 
+	 * @param timers
+	 * 			  The TimerWheel to schedule transparency changes with.
 	 *************************************************************************/
-	public GridUnit()
+	public GridUnit(TimerWheel timers)
 	{
+		this.timers = timers;
 		distance = (Resources.random().nextFloat() * 8) + 2f;
 		randomizeImage();
 		randomizeAlpha();
@@ -95,6 +99,7 @@ public class GridUnit implements Updateable
 		interval = (int) (intervalBase * (Resources.random().nextFloat() + 1));
 		x = (Resources.random().nextFloat() - 0.5f) * 2 * delta;
 		y = (Resources.random().nextFloat() - 0.5f) * 2 * delta;
+		timers.scheduleIn(this, interval);
 	}
 	
 	/*************************************************************************
@@ -120,19 +125,13 @@ public class GridUnit implements Updateable
 	}
 	
 	/*************************************************************************
-	 * Varies the GridUnit's transparency over time.
-	 * 
-	 * @param delta
-	 * 			  The amount of time passed since the last update.
+	 * Varies the GridUnit's transparency over time. Only one change is made,
+	 * however many phases have passed.
 	 ***************************************************************/ @Override
-	public void update(int delta)
+	protected void fire()
 	{
-		timer += delta;
-		if(timer >= interval)
-		{
-			timer %= interval;
-			randomizeAlpha();
-		}
+		timers.skip(this, interval);
+		randomizeAlpha();
 	}
 	
 	/*************************************************************************
@@ -20,16 +20,51 @@ import org.lwjgl.opengl.GL11;
  *****************************************************************************/
 public class GridWorld extends World
 {
+	/**
+	 * The most simulation steps that will be run for a single frame. If the
+	 * simulation falls further behind than this, the extra time is dropped
+	 * rather than letting it pile up.
+	 **/
+	private static final int MAX_STEPS_PER_FRAME = 5;
+	
 	/**
 	 * The Grid controls the background of the GridWorld.
 	 **/
 	protected Grid grid;
 	
+	/**
+	 * The TimerWheel used by objects in the GridWorld that act every so often.
+	 **/
+	protected TimerWheel timers;
+	
 	/**
 	 * The Fade controls how the GridWorld fades in and out.
 	 **/
 	protected Fade fade;
 	
+	/**
+	 * The QualityGovernor that sets the level of cosmetic detail, based on how
+	 * long frames are taking.
+	 **/
+	protected QualityGovernor quality;
+	
+	/**
+	 * The time, in nanoseconds, at which the current frame began updating, or
+	 * 0 if it has already been recorded.
+	 **/
+	protected long frameStart;
+	
+	/**
+	 * The length of each fixed simulation step, or 0 if the GridWorld is 
+	 * simply updated by the amount of time that passed each frame.
+	 **/
+	protected int stepLength;
+	
+	/**
+	 * The amount of time that has passed but has not yet been simulated.
+	 **/
+	protected int accumulator;
+	
 	/*************************************************************************
 	 * Creates a GridWorld with a random Grid and a fully opaque Fade that is 
 	 * told to fade in. The background is also made somewhat transparent, so
@@ -37,7 +72,9 @@ public class GridWorld extends World
 	 *************************************************************************/
 	public GridWorld()
 	{
-		add(grid = new Grid());
+		timers = new TimerWheel();
+		quality = new QualityGovernor();
+		add(grid = new Grid(timers, quality));
 		fade = new Fade();
 		fade.fadeIn();
 		background.color().setAlpha(0.6f);
@@ -51,25 +88,105 @@ public class GridWorld extends World
 	public Grid grid() { return grid; }
 
 	/*************************************************************************
-	 * Updates the GridWorld and its fade effect.
+	 * Accesses this GridWorld's TimerWheel. It is advanced along with the 
+	 * world itself.
+	 * 
+	 * @return The TimerWheel that schedules timed events.
+	 *************************************************************************/
+	public TimerWheel timers() { return timers; }
+
+	/*************************************************************************
+	 * Accesses this GridWorld's QualityGovernor.
+	 * 
+	 * @return The QualityGovernor that decides how much cosmetic detail to 
+	 * 		   draw.
+	 *************************************************************************/
+	public QualityGovernor quality() { return quality; }
+
+	/*************************************************************************
+	 * Learns the length of the GridWorld's simulation steps.
+	 * 
+	 * @return The length of each fixed step, or 0 if the GridWorld is updated
+	 * 		   by a variable amount each frame.
+	 *************************************************************************/
+	public int stepLength() { return stepLength; }
+
+	/*************************************************************************
+	 * Redefines the length of the GridWorld's simulation steps. With a fixed
+	 * step length, the world is always simulated in steps of exactly that 
+	 * length, however fast or slow frames are being rendered; any time left
+	 * over is carried into the next frame.
+	 * 
+	 * @param stepLength
+	 * 			  The length of each step, or 0 to update by the amount of time
+	 * 			  that passed each frame.
+	 *************************************************************************/
+	public void setStepLength(int stepLength)
+	{
+		this.stepLength = stepLength;
+		accumulator = 0;
+	}
+
+	/*************************************************************************
+	 * Learns how far between the last two simulation steps the current frame
+	 * lies.
+	 * 
+	 * @return A value between 0 (the second-to-last step) and 1 (the last
+	 * 		   step). This is always 1 when no step length is set.
+	 *************************************************************************/
+	public float interpolation()
+	{
+		return stepLength > 0 ? (float) accumulator / stepLength : 1f;
+	}
+
+	/*************************************************************************
+	 * Updates the GridWorld and its fade effect. If a step length is set, the
+	 * world itself is only updated in whole steps. The TimerWheel is advanced
+	 * after each update of the world. The frame is timed from here until it
+	 * has been rendered.
 	 * 
 	 * @param delta
 	 * 			  The amount of time since the last update.
 	 ***************************************************************/ @Override
 	public void update(int delta)
 	{
+		frameStart = System.nanoTime();
 		fade.update(delta);
-		super.update(delta);
+		if(stepLength <= 0)
+		{
+			super.update(delta);
+			timers.advance(delta);
+		}
+		else
+		{
+			accumulator += delta;
+			int steps = 0;
+			while(accumulator >= stepLength && steps < MAX_STEPS_PER_FRAME)
+			{
+				super.update(stepLength);
+				timers.advance(stepLength);
+				accumulator -= stepLength;
+				steps++;
+			}
+			if(accumulator >= stepLength)
+				accumulator = stepLength - 1;
+		}
 	}
 
 	/*************************************************************************
-	 * Renders the GridWorld and its fade.
+	 * Renders the GridWorld and its fade, then tells the QualityGovernor how 
+	 * long the frame took.
 	 ***************************************************************/ @Override
 	public void render()
 	{
 		background.color().set(grid.backgroundColor());
 		super.render();
 		fade.render();
+		if(frameStart != 0)
+		{
+			quality.frame((System.nanoTime() - frameStart) / 100000f);
+			frameStart = 0;
+		}
 	}
 
 	/*************************************************************************
@@ -0,0 +1,214 @@
+package grid;
+
+/*****************************************************************************
+ * A QualityGovernor watches how long each frame takes to update and render,
+ * and lowers the level of cosmetic detail when frames run over budget. Once
+ * frames are comfortably under budget again, the detail is restored one level
+ * at a time.
+ * 
+ * Frame times are averaged over a window of frames, so a single slow frame
+ * doesn't change anything. The level drops as soon as a window runs over
+ * budget, but only rises after several windows in a row have had headroom to
+ * spare; that way, the level doesn't flicker back and forth at the edge of the
+ * budget.
+ * 
+ * Objects that draw purely cosmetic effects consult the QualityGovernor to
+ * decide how much to draw. Nothing that affects gameplay should.
+ *****************************************************************************/
+public class QualityGovernor
+{
+	/**
+	 * The lowest level of detail.
+	 **/
+	public static final int MIN_LEVEL = 1;
+
+	/**
+	 * The highest level of detail, at which everything is drawn.
+	 **/
+	public static final int MAX_LEVEL = 4;
+
+	/**
+	 * The lowest level at which purely cosmetic animations are still shown.
+	 **/
+	public static final int COSMETIC_LEVEL = 3;
+
+	/**
+	 * The default budget, in clock ticks, for updating and rendering a frame.
+	 * This leaves some room in a 60 Hz frame for everything else.
+	 **/
+	public static final int DEFAULT_BUDGET = 120;
+
+	/**
+	 * The number of frames averaged before the level is reconsidered.
+	 **/
+	private static final int WINDOW = 30;
+
+	/**
+	 * The fraction of the budget that frames must stay under before detail is
+	 * restored.
+	 **/
+	private static final float HEADROOM = 0.7f;
+
+	/**
+	 * The number of windows in a row that must have headroom before the level
+	 * rises.
+	 **/
+	private static final int RECOVERY_WINDOWS = 3;
+
+	/**
+	 * The budget, in clock ticks, for each frame.
+	 **/
+	protected int budget;
+
+	/**
+	 * The current level of detail.
+	 **/
+	protected int level;
+
+	/**
+	 * The total time of the frames in the current window.
+	 **/
+	protected float total;
+
+	/**
+	 * The number of frames in the current window.
+	 **/
+	protected int frames;
+
+	/**
+	 * The average frame time of the last complete window.
+	 **/
+	protected float average;
+
+	/**
+	 * The number of windows in a row that have had headroom.
+	 **/
+	protected int calm;
+
+	/*************************************************************************
+	 * Creates a QualityGovernor with the default budget, at full detail.
+	 *************************************************************************/
+	public QualityGovernor()
+	{
+		this(DEFAULT_BUDGET);
+	}
+
+	/*************************************************************************
+	 * Creates a QualityGovernor at full detail.
+	 * 
+	 * @param budget
+	 * 			  The budget, in clock ticks, for each frame.
+	 *************************************************************************/
+	public QualityGovernor(int budget)
+	{
+		this.budget = budget;
+		level = MAX_LEVEL;
+	}
+
+	/*************************************************************************
+	 * Records how long a frame took, and adjusts the level of detail at the
+	 * end of each window.
+	 * 
+	 * @param time
+	 * 			  The time, in clock ticks, spent updating and rendering the
+	 * 			  frame.
+	 *************************************************************************/
+	public void frame(float time)
+	{
+		total += time;
+		if(++frames < WINDOW)
+			return;
+		average = total / frames;
+		total = 0;
+		frames = 0;
+		if(average > budget)
+		{
+			level = Math.max(level - 1, MIN_LEVEL);
+			calm = 0;
+		}
+		else if(average < budget * HEADROOM)
+		{
+			if(++calm >= RECOVERY_WINDOWS)
+			{
+				level = Math.min(level + 1, MAX_LEVEL);
+				calm = 0;
+			}
+		}
+		else
+			calm = 0;
+	}
+
+	/*************************************************************************
+	 * Learns the current level of detail.
+	 * 
+	 * @return A level between MIN_LEVEL and MAX_LEVEL.
+	 *************************************************************************/
+	public int level() { return level; }
+
+	/*************************************************************************
+	 * Learns the fraction of cosmetic detail that should be drawn.
+	 * 
+	 * @return A value between MIN_LEVEL / MAX_LEVEL and 1.
+	 *************************************************************************/
+	public float detail() { return (float) level / MAX_LEVEL; }
+
+	/*************************************************************************
+	 * Scales down a number of cosmetic objects by the current detail. As long
+	 * as any were asked for, at least one is kept.
+	 * 
+	 * @param number
+	 * 			  The number of objects that would be drawn at full detail.
+	 * 
+	 * @return The number that should be drawn.
+	 *************************************************************************/
+	public int scale(int number)
+	{
+		if(number <= 0 || level == MAX_LEVEL)
+			return number;
+		return Math.max(Math.round(number * detail()), 1);
+	}
+
+	/*************************************************************************
+	 * Learns whether or not purely cosmetic animations should be shown.
+	 * 
+	 * @return True if the level is high enough for cosmetic animations.
+	 *************************************************************************/
+	public boolean cosmetics() { return level >= COSMETIC_LEVEL; }
+
+	/*************************************************************************
+	 * Learns the average frame time of the last complete window.
+	 * 
+	 * @return The average time, in clock ticks, of a recent frame.
+	 *************************************************************************/
+	public float averageFrameTime() { return average; }
+
+	/*************************************************************************
+	 * Learns the frame budget.
+	 * 
+	 * @return The budget, in clock ticks, for each frame.
+	 *************************************************************************/
+	public int budget() { return budget; }
+
+	/*************************************************************************
+	 * Redefines the frame budget.
+	 * 
+	 * @param budget
+	 * 			  The budget, in clock ticks, for each frame.
+	 *************************************************************************/
+	public void setBudget(int budget)
+	{
+		this.budget = budget;
+	}
+
+	/*************************************************************************
+	 * Restores full detail and forgets any frames that have been recorded.
+	 *************************************************************************/
+	public void reset()
+	{
+		level = MAX_LEVEL;
+		total = 0;
+		frames = 0;
+		average = 0;
+		calm = 0;
+	}
+}
\ No newline at end of file
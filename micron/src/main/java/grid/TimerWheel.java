@@ -0,0 +1,377 @@
+package grid;
+
+/*****************************************************************************
+ * A TimerWheel keeps track of Timers that need to fire at some point in the
+ * future, so that objects that only act every few seconds don't each need to
+ * count down every update.
+ * 
+ * Timers are sorted into a hierarchy of circular lists of slots. The first
+ * level has one slot per tick, the next has one slot per full turn of the
+ * first, and so on. Advancing the wheel only looks at the slots for the ticks
+ * that passed; whenever a level completes a turn, the next slot of the level
+ * above is emptied down into it. Scheduling and cancelling a Timer are both
+ * constant-time, and a Timer that won't fire for a long while costs nothing
+ * until it is close.
+ * 
+ * A Timer that fires may schedule itself again; if its new deadline has also
+ * passed, it fires again during the same advance, so that a long update is
+ * caught up on in full.
+ * 
+ * A TimerWheel is not thread-safe; it should only be used from the thread
+ * that advances it.
+ *****************************************************************************/
+public class TimerWheel
+{
+	/**
+	 * The number of bits of time that make up one tick.
+	 **/
+	private static final int TICK_SHIFT = 4;
+
+	/**
+	 * The number of bits of the tick count used by each level.
+	 **/
+	private static final int LEVEL_BITS = 6;
+
+	/**
+	 * The number of slots in each level.
+	 **/
+	private static final int SLOTS = 1 << LEVEL_BITS;
+
+	/**
+	 * Used to find a slot index within a level.
+	 **/
+	private static final int SLOT_MASK = SLOTS - 1;
+
+	/**
+	 * The number of levels in the wheel.
+	 **/
+	private static final int LEVELS = 4;
+
+	/**
+	 * The furthest ahead, in ticks, that a Timer can be placed. Timers further
+	 * ahead are placed in the last slot and moved down once it comes around.
+	 **/
+	private static final long MAX_TICKS = (1L << (LEVEL_BITS * LEVELS)) - 1;
+
+	/**
+	 * The sentinels of the circular lists of Timers in each slot.
+	 **/
+	protected Timer[][] slots;
+
+	/**
+	 * Holds the Timers taken from a slot while they are being fired.
+	 **/
+	protected Timer due;
+
+	/**
+	 * The current time.
+	 **/
+	protected long now;
+
+	/**
+	 * The tick currently being processed.
+	 **/
+	protected long tick;
+
+	/*************************************************************************
+	 * Creates an empty TimerWheel, starting at time 0.
+	 *************************************************************************/
+	public TimerWheel()
+	{
+		slots = new Timer[LEVELS][SLOTS];
+		for(int level = 0; level < LEVELS; level++)
+			for(int i = 0; i < SLOTS; i++)
+				slots[level][i] = new Sentinel();
+		due = new Sentinel();
+	}
+
+	/*************************************************************************
+	 * Learns the current time.
+	 * 
+	 * @return The total amount of time the TimerWheel has been advanced by.
+	 *************************************************************************/
+	public long now() { return now; }
+
+	/*************************************************************************
+	 * Schedules a Timer to fire at the indicated time. If the Timer was
+	 * already scheduled, it is moved.
+	 * 
+	 * @param timer
+	 * 			  The Timer to schedule.
+	 * @param deadline
+	 * 			  The time at which the Timer should fire. If this has already
+	 * 			  passed, the Timer fires on the next advance.
+	 *************************************************************************/
+	public void schedule(Timer timer, long deadline)
+	{
+		timer.cancel();
+		timer.wheel = this;
+		timer.deadline = deadline;
+		insert(timer);
+	}
+
+	/*************************************************************************
+	 * Schedules a Timer to fire after the indicated delay.
+	 * 
+	 * @param timer
+	 * 			  The Timer to schedule.
+	 * @param delay
+	 * 			  The amount of time from now until the Timer should fire.
+	 *************************************************************************/
+	public void scheduleIn(Timer timer, int delay)
+	{
+		schedule(timer, now + delay);
+	}
+
+	/*************************************************************************
+	 * Schedules a Timer to fire one interval after its last deadline. If that
+	 * has also passed, it fires again during the current advance.
+	 * 
+	 * @param timer
+	 * 			  The Timer to schedule.
+	 * @param interval
+	 * 			  The time between firings.
+	 *************************************************************************/
+	public void repeat(Timer timer, int interval)
+	{
+		schedule(timer, timer.deadline + interval);
+	}
+
+	/*************************************************************************
+	 * Schedules a Timer to fire at the first multiple of an interval after 
+	 * its last deadline that is still in the future, skipping any firings 
+	 * that were missed.
+	 * 
+	 * @param timer
+	 * 			  The Timer to schedule.
+	 * @param interval
+	 * 			  The time between firings.
+	 *************************************************************************/
+	public void skip(Timer timer, int interval)
+	{
+		long missed = Math.max(now - timer.deadline, 0) / interval;
+		schedule(timer, timer.deadline + (missed + 1) * interval);
+	}
+
+	/*************************************************************************
+	 * Moves time forward, firing every Timer whose deadline passes.
+	 * 
+	 * @param delta
+	 * 			  The amount of time to advance by.
+	 *************************************************************************/
+	public void advance(int delta)
+	{
+		now += delta;
+		long target = now >> TICK_SHIFT;
+		fireDue();
+		while(tick < target)
+		{
+			tick++;
+			if((tick & SLOT_MASK) == 0)
+				cascade();
+			fireDue();
+		}
+	}
+
+	/*************************************************************************
+	 * Fires every Timer in the current tick's slot whose deadline has passed.
+	 * Since fired Timers may schedule themselves again in the same slot, this
+	 * repeats until a pass fires nothing.
+	 *************************************************************************/
+	private void fireDue()
+	{
+		Timer slot = slots[0][(int) (tick & SLOT_MASK)];
+		boolean fired = true;
+		while(fired && slot.next != slot)
+		{
+			fired = false;
+			due.splice(slot);
+			while(due.next != due)
+			{
+				Timer timer = due.next;
+				timer.unlink();
+				if(timer.deadline <= now)
+				{
+					timer.wheel = null;
+					timer.fire();
+					fired = true;
+				}
+				else
+					insert(timer);
+			}
+		}
+	}
+
+	/*************************************************************************
+	 * Moves the Timers in the next slot of each level down into the levels
+	 * below, for every level that has just completed a turn.
+	 *************************************************************************/
+	private void cascade()
+	{
+		for(int level = 1; level < LEVELS; level++)
+		{
+			long index = tick >> (LEVEL_BITS * level);
+			due.splice(slots[level][(int) (index & SLOT_MASK)]);
+			while(due.next != due)
+			{
+				Timer timer = due.next;
+				timer.unlink();
+				insert(timer);
+			}
+			if((index & SLOT_MASK) != 0)
+				return;
+		}
+	}
+
+	/*************************************************************************
+	 * Places a Timer in the slot for its deadline.
+	 * 
+	 * @param timer
+	 * 			  The Timer to place.
+	 *************************************************************************/
+	private void insert(Timer timer)
+	{
+		long expires = timer.deadline >> TICK_SHIFT;
+		long ticks = expires - tick;
+		if(ticks < 0)
+			expires = tick;
+		else if(ticks > MAX_TICKS)
+			expires = tick + MAX_TICKS;
+		int level = 0;
+		ticks = expires - tick;
+		while(level < LEVELS - 1 && ticks >= 1L << (LEVEL_BITS * (level + 1)))
+			level++;
+		int index = (int) ((expires >> (LEVEL_BITS * level)) & SLOT_MASK);
+		slots[level][index].append(timer);
+	}
+
+	/*************************************************************************
+	 * A Timer is something that is scheduled in a TimerWheel, and acts when
+	 * its deadline passes.
+	 *************************************************************************/
+	public static abstract class Timer
+	{
+		/**
+		 * The TimerWheel the Timer is scheduled in, or null if it isn't.
+		 **/
+		private TimerWheel wheel;
+
+		/**
+		 * The time at which the Timer should fire.
+		 **/
+		private long deadline;
+
+		/**
+		 * The neighbouring Timers in the list the Timer is in.
+		 **/
+		private Timer previous, next;
+
+		/*********************************************************************
+		 * Learns when the Timer fires, or last fired.
+		 * 
+		 * @return The deadline the Timer was last scheduled for.
+		 *********************************************************************/
+		public long deadline() { return deadline; }
+
+		/*********************************************************************
+		 * Learns whether or not the Timer is waiting to fire.
+		 * 
+		 * @return True if the Timer is scheduled in a TimerWheel.
+		 *********************************************************************/
+		public boolean isScheduled() { return wheel != null; }
+
+		/*********************************************************************
+		 * Learns how long it will be before the Timer fires.
+		 * 
+		 * @return The time left until the deadline, or 0 if the Timer is not
+		 * 		   scheduled.
+		 *********************************************************************/
+		public int remaining()
+		{
+			return wheel == null ? 0 : (int) (deadline - wheel.now);
+		}
+
+		/*********************************************************************
+		 * Removes the Timer from its TimerWheel, if it is scheduled.
+		 *********************************************************************/
+		public void cancel()
+		{
+			unlink();
+			wheel = null;
+		}
+
+		/*********************************************************************
+		 * Performs whatever the Timer is meant to do once its deadline has
+		 * passed. The Timer is no longer scheduled by the time this is
+		 * called, so it is free to schedule itself again.
+		 *********************************************************************/
+		protected abstract void fire();
+
+		/*********************************************************************
+		 * Adds a Timer to the end of the list this Timer is the sentinel of.
+		 * 
+		 * @param timer
+		 * 			  The Timer to add.
+		 *********************************************************************/
+		private void append(Timer timer)
+		{
+			timer.previous = previous;
+			timer.next = this;
+			previous.next = timer;
+			previous = timer;
+		}
+
+		/*********************************************************************
+		 * Moves every Timer in another list to the end of the list this Timer
+		 * is the sentinel of.
+		 * 
+		 * @param sentinel
+		 * 			  The sentinel of the list to empty.
+		 *********************************************************************/
+		private void splice(Timer sentinel)
+		{
+			if(sentinel.next == sentinel)
+				return;
+			Timer first = sentinel.next, last = sentinel.previous;
+			first.previous = previous;
+			previous.next = first;
+			last.next = this;
+			previous = last;
+			sentinel.next = sentinel.previous = sentinel;
+		}
+
+		/*********************************************************************
+		 * Takes the Timer out of whatever list it is in.
+		 *********************************************************************/
+		private void unlink()
+		{
+			if(next != null)
+			{
+				previous.next = next;
+				next.previous = previous;
+				previous = next = null;
+			}
+		}
+	}
+
+	/*************************************************************************
+	 * A Sentinel marks the beginning and end of a circular list of Timers. It
+	 * never fires.
+	 *************************************************************************/
+	private static class Sentinel extends Timer
+	{
+		/*********************************************************************
+		 * Creates a Sentinel for an empty list.
+		 *********************************************************************/
+		public Sentinel()
+		{
+			Timer sentinel = this;
+			sentinel.previous = sentinel.next = this;
+		}
+
+		/*********************************************************************
+		 * Does nothing.
+		 ***********************************************************/ @Override
+		protected void fire() { }
+	}
+}
\ No newline at end of file
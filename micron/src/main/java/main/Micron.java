@@ -34,6 +34,7 @@ public class Micron extends StandardGame
 	protected void setup()
 	{
 		profiler.setVisible(false);
+		MicronGameSettings.setProfiling(false);
 		new MicronLoader().run();
 		MicronGameSettings.startGame();
 	}
@@ -41,8 +42,9 @@ public class Micron extends StandardGame
 	/*************************************************************************
 	 * Determines if the game should fast escape (by holding left-shift and 
 	 * escape at the same time), handles toggling whether or not the Profiler is
-	 * displayed, manages toggling fullscreen mode from within an applet, and
-	 * handles switching input modes from between laptop and desktop.
+	 * displayed (and lets the game's own readouts know), manages toggling 
+	 * fullscreen mode from within an applet, and handles switching input 
+	 * modes from between laptop and desktop.
 	 * 
 	 * @param delta
 	 * 			  The number of clock ticks that have passed since the game was
@@ -63,7 +65,10 @@ public class Micron extends StandardGame
 				WindowManager.controller().setFullscreen();
 		}
 		if(KeyboardHandler.wasKeyPressed(Keyboard.KEY_F11))
+		{
 			profiler.setVisible(!profiler.visible());
+			MicronGameSettings.setProfiling(profiler.visible());
+		}
 		if(KeyboardHandler.wasKeyPressed(Keyboard.KEY_EQUALS))
 			MicronGameSettings.userData().toggleInputSetup();
 	}
@@ -51,6 +51,11 @@ public class MicronGameSettings
 	 **/
 	private static UserData userData;
 	
+	/**
+	 * Whether or not the Profiler is being displayed.
+	 **/
+	private static boolean profiling;
+	
 	/*************************************************************************
 	 * Learns whether or not the game is running in applet mode.
 	 * 
@@ -137,4 +142,23 @@ public class MicronGameSettings
 	 * @return The active UserData.
 	 *************************************************************************/
 	public static UserData userData() { return userData; }
+
+	/*************************************************************************
+	 * Learns whether or not the Profiler is being displayed. Anything that 
+	 * reports on the game's internals should only do so while it is.
+	 * 
+	 * @return True if the Profiler is visible, false otherwise.
+	 *************************************************************************/
+	public static boolean profiling() { return profiling; }
+
+	/*************************************************************************
+	 * Records whether or not the Profiler is being displayed.
+	 * 
+	 * @param visible
+	 * 			  Whether or not the Profiler is visible.
+	 *************************************************************************/
+	public static void setProfiling(boolean visible)
+	{
+		profiling = visible;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,161 @@
+package game.objects;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jrabbit.base.graphics.transforms.Vector2f;
+import org.junit.Before;
+import org.junit.Test;
+
+/*****************************************************************************
+ * Checks that KeyPoints follow their sprite as it moves, turns and is scaled,
+ * and that they are left alone while it sits still.
+ *****************************************************************************/
+public class KeyPointsTest
+{
+	/**
+	 * How far apart two coordinates may be and still count as equal.
+	 **/
+	private static final float EPSILON = 0.0001f;
+
+	/**
+	 * The sprite the points are attached to.
+	 **/
+	private Probe probe;
+
+	/**
+	 * The points being checked: one ahead of the sprite, and one to its side.
+	 **/
+	private KeyPoints points;
+
+	/*************************************************************************
+	 * Creates an unturned, unscaled sprite at the origin, and places its 
+	 * points.
+	 *************************************************************************/
+	@Before
+	public void setUp()
+	{
+		probe = new Probe();
+		points = new KeyPoints();
+		points.define(new float[][] { {10, 0}, {0, 5} });
+		assertTrue(points.refresh(probe));
+	}
+
+	/*************************************************************************
+	 * Checks that the points move with the sprite.
+	 *************************************************************************/
+	@Test
+	public void followsMoves()
+	{
+		probe.location().set(100, 50);
+		assertTrue(points.refresh(probe));
+		assertPoint(110, 50, points.get(0));
+		assertPoint(100, 55, points.get(1));
+	}
+
+	/*************************************************************************
+	 * Checks that the points turn with the sprite.
+	 *************************************************************************/
+	@Test
+	public void followsRotations()
+	{
+		probe.location().set(100, 50);
+		probe.rotation().set(90);
+		assertTrue(points.refresh(probe));
+		assertPoint(100, 60, points.get(0));
+		assertPoint(95, 50, points.get(1));
+	}
+
+	/*************************************************************************
+	 * Checks that the points are pushed outwards as the sprite is scaled.
+	 *************************************************************************/
+	@Test
+	public void followsScaling()
+	{
+		probe.scalar().setScale(3);
+		assertTrue(points.refresh(probe));
+		assertPoint(30, 0, points.get(0));
+		assertPoint(0, 15, points.get(1));
+	}
+
+	/*************************************************************************
+	 * Checks that a direction passed in is used in place of the sprite's own
+	 * rotation.
+	 *************************************************************************/
+	@Test
+	public void usesKnownDirection()
+	{
+		probe.location().set(-20, 0);
+		assertTrue(points.refresh(probe, 0, -1));
+		assertPoint(-20, -10, points.get(0));
+		assertPoint(-15, 0, points.get(1));
+	}
+
+	/*************************************************************************
+	 * Checks that the points are not recalculated while the sprite is still,
+	 * and that reading them never recalculates them.
+	 *************************************************************************/
+	@Test
+	public void stationarySpriteIsNotRecalculated()
+	{
+		probe.location().set(100, 50);
+		assertTrue(points.refresh(probe));
+		assertFalse(points.refresh(probe));
+		assertFalse(points.refresh(probe, 0, 1));
+		assertPoint(110, 50, points.get(0));
+
+		probe.location().set(0, 0);
+		assertPoint(110, 50, points.get(0));
+		assertTrue(points.refresh(probe));
+		assertPoint(10, 0, points.get(0));
+	}
+
+	/*************************************************************************
+	 * Checks that a point is where it should be.
+	 * 
+	 * @param x
+	 * 			  The expected x coordinate.
+	 * @param y
+	 * 			  The expected y coordinate.
+	 * @param point
+	 * 			  The point to check.
+	 *************************************************************************/
+	private void assertPoint(float x, float y, Vector2f point)
+	{
+		assertEquals(x, point.x(), EPSILON);
+		assertEquals(y, point.y(), EPSILON);
+	}
+
+	/*************************************************************************
+	 * A Probe is a PhysSprite with nothing to draw.
+	 *************************************************************************/
+	private static class Probe extends PhysSprite
+	{
+		/*********************************************************************
+		 * Learns how far the Probe may get from the camera; never culled.
+		 * 
+		 * @return 0.
+		 *********************************************************************/
+		public float cullDistance() { return 0; }
+
+		/*********************************************************************
+		 * Learns the width of the Probe.
+		 * 
+		 * @return The width of a typical enemy sprite.
+		 *********************************************************************/
+		public float width() { return 32; }
+
+		/*********************************************************************
+		 * Learns the height of the Probe.
+		 * 
+		 * @return The height of a typical enemy sprite.
+		 *********************************************************************/
+		public float height() { return 32; }
+
+		/*********************************************************************
+		 * Draws nothing.
+		 *********************************************************************/
+		public void draw() { }
+	}
+}
\ No newline at end of file
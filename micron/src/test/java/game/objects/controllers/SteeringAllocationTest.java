@@ -0,0 +1,243 @@
+package game.objects.controllers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+import game.objects.PhysSprite;
+import game.objects.controllers.movement.AnchoredController;
+import game.objects.controllers.movement.FollowController;
+import game.objects.controllers.movement.HomingController;
+import game.objects.controllers.movement.PropellingController;
+import game.objects.controllers.movement.StrafeController;
+import game.objects.controllers.movement.WanderingController;
+import game.objects.controllers.rotation.CrazySpinController;
+import game.objects.controllers.rotation.RotateTowardsController;
+import game.objects.controllers.rotation.RotatingController;
+import game.objects.controllers.rotation.VelocityRotationController;
+import game.world.MatrixRandom;
+
+import java.lang.management.ManagementFactory;
+
+import org.jrabbit.base.graphics.transforms.Vector2f;
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+
+/*****************************************************************************
+ * Checks that steering a scene full of PhysSprites creates no garbage once
+ * it has settled.
+ * 
+ * The scene is scripted: a stand-in for the Player circles the origin, while
+ * a crowd of drones chase, follow, strafe and turn towards it, with every
+ * movement and rotation Controller that doesn't need input or a Matrix. Each
+ * tick updates every Controller and then lets every drone drift, as a Matrix
+ * update would. The bytes this thread allocates are counted with the JVM's
+ * ThreadMXBean, which needs no graphics.
+ *****************************************************************************/
+public class SteeringAllocationTest
+{
+	/**
+	 * The number of drones in the scene.
+	 **/
+	private static final int DRONES = 64;
+
+	/**
+	 * The number of ticks run before measuring, so that every method has been
+	 * compiled.
+	 **/
+	private static final int WARMUP = 20000;
+
+	/**
+	 * The number of ticks measured.
+	 **/
+	private static final int TICKS = 5000;
+
+	/**
+	 * The time that passes in each tick.
+	 **/
+	private static final int DELTA = 16;
+
+	/**
+	 * Counts the bytes allocated by each thread.
+	 **/
+	private ThreadMXBean threads;
+
+	/**
+	 * The ID of the thread running the test.
+	 **/
+	private long thread;
+
+	/**
+	 * The stand-in for the Player, which every drone targets.
+	 **/
+	private Drone player;
+
+	/**
+	 * The angle the Player has circled through, in radians.
+	 **/
+	private double orbit;
+
+	/**
+	 * The drones being steered.
+	 **/
+	private Drone[] drones;
+
+	/**
+	 * The Controllers steering the drones.
+	 **/
+	private Controller[] controllers;
+
+	/*************************************************************************
+	 * Checks that a steady-state tick allocates nothing at all.
+	 *************************************************************************/
+	@Test
+	public void steadyStateTickAllocatesNothing()
+	{
+		threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+		thread = Thread.currentThread().getId();
+
+		buildScene(7);
+		for(int i = 0; i < WARMUP; i++)
+			tick();
+
+		long overhead = overhead();
+		long start = allocatedBytes();
+		for(int i = 0; i < TICKS; i++)
+			tick();
+		long allocated = allocatedBytes() - start - overhead;
+		assertEquals("bytes allocated over " + TICKS + " ticks", 0,
+				allocated);
+	}
+
+	/*************************************************************************
+	 * Creates the Player and the drones, and gives each drone a pair of
+	 * Controllers that target the Player.
+	 * 
+	 * @param seed
+	 * 			  The seed to place the drones and vary their Controllers with.
+	 *************************************************************************/
+	private void buildScene(long seed)
+	{
+		MatrixRandom previous = MatrixRandom.use(new MatrixRandom(seed));
+		MatrixRandom random = MatrixRandom.random();
+		Vector2f target = (player = new Drone()).location();
+		Vector2f anchor = new Vector2f(100, -50);
+		drones = new Drone[DRONES];
+		controllers = new Controller[DRONES * 2];
+		for(int i = 0; i < DRONES; i++)
+		{
+			Drone drone = drones[i] = new Drone();
+			drone.location().set((random.nextFloat() - 0.5f) * 2000,
+					(random.nextFloat() - 0.5f) * 2000);
+			Controller movement, rotation;
+			switch(i % 5)
+			{
+				case 0:
+					movement = new HomingController(drone, target, 0.01f, 0.2f);
+					rotation = new RotateTowardsController(drone, target, 0.2f);
+					break;
+				case 1:
+					movement = new FollowController(drone, target, 150, 400,
+							2f, 0.2f);
+					rotation = new VelocityRotationController(drone);
+					break;
+				case 2:
+					movement = new StrafeController(drone, target, 0.5f);
+					rotation = new RotatingController(drone, 0.1f, 0.5f, true);
+					break;
+				case 3:
+					movement = new PropellingController(drone, 0.01f, 0.2f);
+					rotation = new RotateTowardsController(drone, target, 0.1f,
+							0.2f);
+					break;
+				default:
+					if(i % 10 == 4)
+						movement = new AnchoredController(drone, anchor);
+					else
+						movement = new WanderingController(drone, 0.5f, 500,
+								500);
+					rotation = new CrazySpinController(drone);
+					break;
+			}
+			controllers[i * 2] = movement;
+			controllers[i * 2 + 1] = rotation;
+		}
+		MatrixRandom.use(previous);
+	}
+
+	/*************************************************************************
+	 * Moves the Player along its orbit, updates every Controller, and lets
+	 * every drone drift.
+	 *************************************************************************/
+	private void tick()
+	{
+		orbit += DELTA * 0.001;
+		player.location().set((float) Math.cos(orbit) * 300,
+				(float) Math.sin(orbit) * 300);
+		for(int i = 0; i < controllers.length; i++)
+			controllers[i].update(DELTA);
+		for(int i = 0; i < drones.length; i++)
+			drones[i].update(DELTA);
+	}
+
+	/*************************************************************************
+	 * Learns how many bytes this thread has allocated so far.
+	 * 
+	 * @return The number of bytes.
+	 *************************************************************************/
+	private long allocatedBytes()
+	{
+		return threads.getThreadAllocatedBytes(thread);
+	}
+
+	/*************************************************************************
+	 * Finds how many bytes reading the allocation counter allocates by
+	 * itself, so that it can be left out of the measurement. Some JVMs build
+	 * an array for each call.
+	 * 
+	 * @return The smallest number of bytes one reading was seen to allocate.
+	 *************************************************************************/
+	private long overhead()
+	{
+		long overhead = Long.MAX_VALUE;
+		for(int i = 0; i < 100; i++)
+		{
+			long start = allocatedBytes();
+			overhead = Math.min(overhead, allocatedBytes() - start);
+		}
+		return overhead;
+	}
+
+	/*************************************************************************
+	 * A Drone is a PhysSprite with nothing to draw.
+	 *************************************************************************/
+	private static class Drone extends PhysSprite
+	{
+		/*********************************************************************
+		 * Learns how far the Drone may get from the camera; never culled.
+		 * 
+		 * @return 0.
+		 *********************************************************************/
+		public float cullDistance() { return 0; }
+
+		/*********************************************************************
+		 * Learns the width of the Drone.
+		 * 
+		 * @return The width of a typical enemy sprite.
+		 *********************************************************************/
+		public float width() { return 32; }
+
+		/*********************************************************************
+		 * Learns the height of the Drone.
+		 * 
+		 * @return The height of a typical enemy sprite.
+		 *********************************************************************/
+		public float height() { return 32; }
+
+		/*********************************************************************
+		 * Draws nothing.
+		 *********************************************************************/
+		public void draw() { }
+	}
+}
\ No newline at end of file
@@ -0,0 +1,391 @@
+package game.objects.entities.hostile;
+
+import static org.junit.Assert.assertEquals;
+import game.world.MatrixRandom;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+/*****************************************************************************
+ * Checks the estimates a WormChain solves with against exact math, and 
+ * measures the cost of updating a whole Worm before and after its segments 
+ * were tended by their chain.
+ * 
+ * Each modelled segment does the arithmetic its update would: before, every 
+ * segment healed and colored itself and its gun through Controllers, drifted,
+ * transformed both of its keypoints, and was then placed with a square root 
+ * and an arctangent; after, only the head drifts, the chain heals and 
+ * colors a segment only when its health has changed, and each tail is placed
+ * with the chain's estimates and reuses its direction for its one remaining
+ * keypoint. The gun's own keypoint is transformed in both.
+ *****************************************************************************/
+public class WormChainBenchmark
+{
+	/**
+	 * How far behind a segment's center the next one is linked, once scaled.
+	 **/
+	private static final float LINK_POINT = WormSegment.LINK_POINT * 3;
+
+	/**
+	 * The number of segments in a Worm, about the middle of what is spawned.
+	 **/
+	private static final int SEGMENTS = 60;
+
+	/**
+	 * The number of Worms updated at once.
+	 **/
+	private static final int WORMS = 16;
+
+	/**
+	 * The length of each update, as the Matrix uses.
+	 **/
+	private static final int DELTA = 100;
+
+	/**
+	 * The number of untimed updates run before measuring.
+	 **/
+	private static final int WARMUP = 20000;
+
+	/**
+	 * The number of timed updates.
+	 **/
+	private static final int RUNS = 20000;
+
+	/**
+	 * The number of random samples checked against exact math.
+	 **/
+	private static final int SAMPLES = 100000;
+
+	/**
+	 * Keeps the results of the modelled updates alive, so that none of the 
+	 * work can be optimized away.
+	 **/
+	private float sink;
+
+	/*************************************************************************
+	 * Checks that the chain's arctangent is within 0.001 degrees of 
+	 * Math.atan2() in every direction, and that its inverse distance is within
+	 * 0.7% of the exact value near the spacing and exact further away.
+	 *************************************************************************/
+	@Test
+	public void estimatesMatchExactMath()
+	{
+		MatrixRandom random = new MatrixRandom(3);
+		for(int i = 0; i < SAMPLES; i++)
+		{
+			float x = (random.nextFloat() - 0.5f) * 200;
+			float y = (random.nextFloat() - 0.5f) * 200;
+			if(x == 0 && y == 0)
+				continue;
+			assertEquals(Math.toDegrees(Math.atan2(y, x)), 
+					WormChain.degrees(x, y), 0.001);
+			float distanceSquared = x * x + y * y;
+			double exact = 1 / Math.sqrt(distanceSquared);
+			double ratio = Math.sqrt(distanceSquared) / WormSegment.SPACING;
+			double tolerance = ratio > 0.79 && ratio < 1.21 ? 0.007 : 1e-6;
+			assertEquals(exact, WormChain.inverseLength(distanceSquared), 
+					exact * tolerance);
+		}
+	}
+
+	/*************************************************************************
+	 * Times updating a group of Worms both ways, and prints the cost per Worm.
+	 *************************************************************************/
+	@Test
+	@Ignore("Benchmark; run by hand")
+	public void timeWormUpdate()
+	{
+		Segment[][] before = worms(), after = worms();
+		for(int i = 0; i < WARMUP; i++)
+		{
+			updateBefore(before, i);
+			updateAfter(after, i);
+		}
+		long beforeTime = 0, afterTime = 0;
+		for(int i = 0; i < RUNS; i++)
+		{
+			long start = System.nanoTime();
+			updateBefore(before, WARMUP + i);
+			long middle = System.nanoTime();
+			updateAfter(after, WARMUP + i);
+			afterTime += System.nanoTime() - middle;
+			beforeTime += middle - start;
+		}
+		double perWorm = 1000.0 * RUNS * WORMS;
+		System.out.printf("%d segments: before %.2f us, after %.2f us per " +
+				"Worm (%.2fx)%n", SEGMENTS, beforeTime / perWorm, 
+				afterTime / perWorm, (double) beforeTime / afterTime);
+	}
+
+	/*************************************************************************
+	 * Updates every Worm as each segment did before the chain tended them.
+	 * 
+	 * @param worms
+	 * 			  The Worms to update.
+	 * @param tick
+	 * 			  The number of updates that have come before.
+	 *************************************************************************/
+	private void updateBefore(Segment[][] worms, int tick)
+	{
+		for(int w = 0; w < worms.length; w++)
+		{
+			Segment[] worm = worms[w];
+			steer(worm[0], tick);
+			for(int i = 0; i < SEGMENTS; i++)
+			{
+				Segment segment = worm[i];
+				segment.health = Math.min(segment.health + 
+						WormChain.HEAL_RATE * DELTA, segment.maxHealth);
+				float percent = segment.health / segment.maxHealth;
+				segment.color(percent);
+				segment.gunColor(segment.health / segment.maxHealth);
+				segment.drift();
+				segment.transformKeyPoints(2);
+				segment.transformGun();
+			}
+			for(int i = 1; i < SEGMENTS; i++)
+			{
+				Segment ahead = worm[i - 1], segment = worm[i];
+				float anchorX = ahead.x - ahead.facingX * LINK_POINT;
+				float anchorY = ahead.y - ahead.facingY * LINK_POINT;
+				float dx = anchorX - segment.x, dy = anchorY - segment.y;
+				float scale = 1f / (float) Math.sqrt(dx * dx + dy * dy);
+				segment.facingX = dx * scale;
+				segment.facingY = dy * scale;
+				segment.degrees = (float) Math.toDegrees(Math.atan2(dy, dx));
+				segment.x = anchorX - segment.facingX * WormSegment.SPACING;
+				segment.y = anchorY - segment.facingY * WormSegment.SPACING;
+				float speed = (float) Math.sqrt(segment.vx * segment.vx + 
+						segment.vy * segment.vy);
+				if(speed > 0)
+				{
+					float slowed = Math.max(speed - DELTA * 0.00001f, 0);
+					slowed /= speed;
+					segment.vx *= slowed;
+					segment.vy *= slowed;
+				}
+			}
+		}
+	}
+
+	/*************************************************************************
+	 * Updates every Worm as its chain now does.
+	 * 
+	 * @param worms
+	 * 			  The Worms to update.
+	 * @param tick
+	 * 			  The number of updates that have come before.
+	 *************************************************************************/
+	private void updateAfter(Segment[][] worms, int tick)
+	{
+		float inverseDelta = 1f / DELTA;
+		for(int w = 0; w < worms.length; w++)
+		{
+			Segment[] worm = worms[w];
+			steer(worm[0], tick);
+			worm[0].drift();
+			worm[0].transformKeyPoints(1);
+			for(int i = 0; i < SEGMENTS; i++)
+				worm[i].transformGun();
+			tend(worm[0]);
+			for(int i = 1; i < SEGMENTS; i++)
+			{
+				Segment ahead = worm[i - 1], segment = worm[i];
+				float anchorX = ahead.x - ahead.facingX * LINK_POINT;
+				float anchorY = ahead.y - ahead.facingY * LINK_POINT;
+				float dx = anchorX - segment.x, dy = anchorY - segment.y;
+				float scale = WormChain.inverseLength(dx * dx + dy * dy);
+				segment.facingX = dx * scale;
+				segment.facingY = dy * scale;
+				segment.degrees = WormChain.degrees(dx, dy);
+				float newX = anchorX - segment.facingX * WormSegment.SPACING;
+				float newY = anchorY - segment.facingY * WormSegment.SPACING;
+				segment.vx = (newX - segment.x) * inverseDelta;
+				segment.vy = (newY - segment.y) * inverseDelta;
+				segment.x = newX;
+				segment.y = newY;
+				segment.placeKeyPoints(1, segment.facingX, segment.facingY);
+				tend(segment);
+			}
+		}
+	}
+
+	/*************************************************************************
+	 * Heals a segment, and recolors it if its health has changed, as a 
+	 * WormChain does.
+	 * 
+	 * @param segment
+	 * 			  The segment to tend.
+	 *************************************************************************/
+	private void tend(Segment segment)
+	{
+		if(segment.health < segment.maxHealth)
+			segment.health = Math.min(segment.health + 
+					WormChain.HEAL_RATE * DELTA, segment.maxHealth);
+		float percent = segment.health / segment.maxHealth;
+		if(percent != segment.shownHealth)
+		{
+			segment.shownHealth = percent;
+			segment.color(percent);
+			segment.gunColor(percent);
+		}
+	}
+
+	/*************************************************************************
+	 * Pushes the head of a Worm around a wide circle, as its homing and 
+	 * wandering Controllers would.
+	 * 
+	 * @param head
+	 * 			  The head of the Worm.
+	 * @param tick
+	 * 			  The number of updates that have come before.
+	 *************************************************************************/
+	private void steer(Segment head, int tick)
+	{
+		double angle = tick * 0.01;
+		head.vx = (float) Math.cos(angle) * 0.08f;
+		head.vy = (float) Math.sin(angle) * 0.08f;
+		head.degrees = (float) Math.toDegrees(angle);
+		head.facingX = (float) Math.cos(angle);
+		head.facingY = (float) Math.sin(angle);
+	}
+
+	/*************************************************************************
+	 * Creates a group of Worms, stretched out along the x axis. A few of 
+	 * their segments are so badly wounded that they heal, and are recolored,
+	 * on every update.
+	 * 
+	 * @return The Worms.
+	 *************************************************************************/
+	private Segment[][] worms()
+	{
+		MatrixRandom random = new MatrixRandom(9);
+		Segment[][] worms = new Segment[WORMS][SEGMENTS];
+		for(int w = 0; w < WORMS; w++)
+			for(int i = 0; i < SEGMENTS; i++)
+			{
+				Segment segment = worms[w][i] = new Segment();
+				segment.x = -i * (LINK_POINT + WormSegment.SPACING);
+				segment.y = w * 500;
+				segment.facingX = 1;
+				if(random.nextFloat() < 0.1f)
+					segment.maxHealth = 1e7f;
+				else
+					segment.maxHealth = segment.health = 150;
+				segment.shownHealth = -1;
+			}
+		return worms;
+	}
+
+	/*************************************************************************
+	 * A Segment holds the state of a modelled WormSegment and its gun.
+	 *************************************************************************/
+	private class Segment
+	{
+		/**
+		 * The location, velocity, facing and angle of the segment.
+		 **/
+		private float x, y, vx, vy, facingX, facingY, degrees;
+
+		/**
+		 * The health of the segment, and the health it was last colored for.
+		 **/
+		private float health, maxHealth, shownHealth;
+
+		/**
+		 * The colors of the segment and its gun.
+		 **/
+		private float red, green, blue, gunRed, gunGreen, gunBlue;
+
+		/**
+		 * The angle of the gun, in degrees.
+		 **/
+		private float gunDegrees;
+
+		/*********************************************************************
+		 * Colors the segment by its health.
+		 * 
+		 * @param percent
+		 * 			  The percentage of its total health the segment has.
+		 *********************************************************************/
+		private void color(float percent)
+		{
+			red = 1f;
+			green = 0.1f + (percent * percent) * 0.9f;
+			blue = 0.5f + percent / 2f;
+		}
+
+		/*********************************************************************
+		 * Colors the gun by the segment's health.
+		 * 
+		 * @param percent
+		 * 			  The percentage of its total health the segment has.
+		 *********************************************************************/
+		private void gunColor(float percent)
+		{
+			gunRed = 1f;
+			gunGreen = 0.1f + (percent * percent) * 0.9f;
+			gunBlue = 0.5f + percent / 2f;
+		}
+
+		/*********************************************************************
+		 * Moves the segment by its velocity, capped at a typical top speed.
+		 *********************************************************************/
+		private void drift()
+		{
+			float speed = (float) Math.sqrt(vx * vx + vy * vy);
+			if(speed > 0.1f)
+			{
+				vx *= 0.1f / speed;
+				vy *= 0.1f / speed;
+			}
+			x += vx * DELTA;
+			y += vy * DELTA;
+		}
+
+		/*********************************************************************
+		 * Transforms the segment's keypoints, as a KeyPointEntity that has 
+		 * moved does.
+		 * 
+		 * @param count
+		 * 			  The number of keypoints the segment has.
+		 *********************************************************************/
+		private void transformKeyPoints(int count)
+		{
+			double theta = Math.toRadians(degrees);
+			placeKeyPoints(count, (float) Math.cos(theta), 
+					(float) Math.sin(theta));
+		}
+
+		/*********************************************************************
+		 * Transforms the segment's keypoints in a direction that is already
+		 * known.
+		 * 
+		 * @param count
+		 * 			  The number of keypoints the segment has.
+		 * @param cos
+		 * 			  The cosine of the segment's rotation.
+		 * @param sin
+		 * 			  The sine of the segment's rotation.
+		 *********************************************************************/
+		private void placeKeyPoints(int count, float cos, float sin)
+		{
+			for(int i = 0; i < count; i++)
+			{
+				float offset = -11 - 15 * i;
+				sink += x + cos * offset * 3 + y + sin * offset * 3;
+			}
+		}
+
+		/*********************************************************************
+		 * Turns the gun a little and transforms its keypoint.
+		 *********************************************************************/
+		private void transformGun()
+		{
+			gunDegrees += 0.5f;
+			double theta = Math.toRadians(gunDegrees);
+			sink += (float) Math.cos(theta) * 24 + (float) Math.sin(theta) * 24 
+					+ gunRed + gunGreen + gunBlue + red + green + blue;
+		}
+	}
+}
\ No newline at end of file
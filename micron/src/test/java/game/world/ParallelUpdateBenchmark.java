@@ -0,0 +1,208 @@
+package game.world;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jrabbit.base.core.types.Updateable;
+import org.junit.Ignore;
+import org.junit.Test;
+
+/*****************************************************************************
+ * Measures how the parallel phase of a Matrix update scales with the number of
+ * worker threads, and checks that deferred actions are applied in batch order
+ * however the chunks were scheduled.
+ * 
+ * Each batched object stands in for an independent MatrixSprite tree: it does
+ * a fixed amount of steering math on its own state, and now and then defers
+ * an action, as a sprite that fires or dies would.
+ * 
+ * The timing is ignored by the normal test run, since its output depends on
+ * the machine; it is meant to be run by hand.
+ *****************************************************************************/
+public class ParallelUpdateBenchmark
+{
+	/**
+	 * The number of objects in each batch; about as many sprites as a Matrix
+	 * at MAX_COMPLEXITY holds, counting projectiles.
+	 **/
+	private static final int BATCH = 4096;
+
+	/**
+	 * One in this many objects defers an action on each update.
+	 **/
+	private static final int DEFER_RATE = 16;
+
+	/**
+	 * The number of steering steps each object takes per update.
+	 **/
+	private static final int STEPS = 20;
+
+	/**
+	 * The number of untimed updates run before measuring.
+	 **/
+	private static final int WARMUP = 50;
+
+	/**
+	 * The number of timed updates.
+	 **/
+	private static final int RUNS = 100;
+
+	/**
+	 * The order in which deferred actions were run.
+	 **/
+	private List<Integer> deferred = new ArrayList<Integer>();
+
+	/*************************************************************************
+	 * Checks that every object is updated exactly once per update, and that
+	 * the actions they defer run in the order the objects were batched.
+	 *************************************************************************/
+	@Test
+	public void deferredActionsRunInBatchOrder()
+	{
+		ForkJoinPool pool = new ForkJoinPool(4);
+		ParallelUpdate parallel = new ParallelUpdate(pool);
+		Steerer[] steerers = steerers();
+		for(int i = 0; i < steerers.length; i++)
+			parallel.add(steerers[i]);
+		parallel.update(10);
+		pool.shutdown();
+		for(int i = 0; i < steerers.length; i++)
+			assertEquals(1, steerers[i].updates);
+		assertEquals(BATCH / DEFER_RATE, deferred.size());
+		for(int i = 0; i < deferred.size(); i++)
+			assertEquals(i * DEFER_RATE, (int) deferred.get(i));
+	}
+
+	/*************************************************************************
+	 * Times the same batch with 1, 2, 4... worker threads, up to the number of
+	 * available cores, and prints the speedup over a single worker.
+	 *************************************************************************/
+	@Test
+	@Ignore("Benchmark; run by hand")
+	public void scalingWithCoreCount()
+	{
+		int cores = Runtime.getRuntime().availableProcessors();
+		Steerer[] steerers = steerers();
+		double single = 0;
+		int workers = 1;
+		while(true)
+		{
+			ForkJoinPool pool = new ForkJoinPool(workers);
+			ParallelUpdate parallel = new ParallelUpdate(pool);
+			for(int i = 0; i < WARMUP; i++)
+				update(parallel, steerers);
+			long start = System.nanoTime();
+			for(int i = 0; i < RUNS; i++)
+				update(parallel, steerers);
+			double time = (System.nanoTime() - start) / 1000.0 / RUNS;
+			pool.shutdown();
+			if(workers == 1)
+				single = time;
+			System.out.printf("%d of %d cores: %.1f us per update " +
+					"(%.2fx)%n", workers, cores, time, single / time);
+			if(workers == cores)
+				break;
+			workers = Math.min(workers * 2, cores);
+		}
+	}
+
+	/*************************************************************************
+	 * Batches every object and runs a single update.
+	 * 
+	 * @param parallel
+	 * 			  The ParallelUpdate to run.
+	 * @param steerers
+	 * 			  The objects to update.
+	 *************************************************************************/
+	private void update(ParallelUpdate parallel, Steerer[] steerers)
+	{
+		for(int i = 0; i < steerers.length; i++)
+			parallel.add(steerers[i]);
+		parallel.update(10);
+		deferred.clear();
+	}
+
+	/*************************************************************************
+	 * Creates a batch of objects, scattered around the origin.
+	 * 
+	 * @return The objects.
+	 *************************************************************************/
+	private Steerer[] steerers()
+	{
+		MatrixRandom random = new MatrixRandom(7);
+		Steerer[] steerers = new Steerer[BATCH];
+		for(int i = 0; i < BATCH; i++)
+			steerers[i] = new Steerer(i, (random.nextFloat() - 0.5f) * 4000,
+					(random.nextFloat() - 0.5f) * 4000);
+		return steerers;
+	}
+
+	/*************************************************************************
+	 * A Steerer homes in on the origin and turns to face it, which is about
+	 * the work a typical enemy's Controllers do in an update.
+	 *************************************************************************/
+	private class Steerer implements Updateable
+	{
+		/**
+		 * The position of the Steerer in the batch.
+		 **/
+		private final int id;
+
+		/**
+		 * The location, velocity and facing of the Steerer.
+		 **/
+		private float x, y, vx, vy, theta;
+
+		/**
+		 * The number of times the Steerer has been updated.
+		 **/
+		private int updates;
+
+		/*********************************************************************
+		 * Creates a Steerer.
+		 * 
+		 * @param id
+		 * 			  The position of the Steerer in the batch.
+		 * @param x
+		 * 			  The starting x coordinate.
+		 * @param y
+		 * 			  The starting y coordinate.
+		 *********************************************************************/
+		public Steerer(int id, float x, float y)
+		{
+			this.id = id;
+			this.x = x;
+			this.y = y;
+		}
+
+		/*********************************************************************
+		 * Steers the Steerer, and defers an action if it is its turn.
+		 * 
+		 * @param delta
+		 * 			  The amount of time that has passed.
+		 *****************************************************************/
+		public void update(int delta)
+		{
+			float step = delta / (float) STEPS;
+			for(int i = 0; i < STEPS; i++)
+			{
+				float length = (float) Math.sqrt(x * x + y * y) + 1;
+				vx -= x / length * 0.001f * step;
+				vy -= y / length * 0.001f * step;
+				x += vx * step;
+				y += vy * step;
+				theta += ((float) Math.atan2(-y, -x) - theta) * 0.05f;
+			}
+			updates++;
+			if(id % DEFER_RATE == 0)
+				ParallelUpdate.defer(new Runnable() {
+					public void run()
+					{
+						deferred.add(id);
+					}});
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,226 @@
+package game.world;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+/*****************************************************************************
+ * Measures the SpatialHash broad phase that Matrix.checkEffects() uses,
+ * against checking every effect against every entity, on a scene as busy as
+ * a Matrix at MAX_COMPLEXITY.
+ * 
+ * Entities and effects are represented by their bounding circles alone, and
+ * the exact test is a circle overlap, so that the scene can be built without
+ * any graphics. Both approaches must find the same pairs in the same order.
+ * Timing them is left to a separate, ignored test, which prints the time each
+ * takes per update when run by hand.
+ *****************************************************************************/
+public class SpatialHashBenchmark
+{
+	/**
+	 * The number of entities in the scene. Each entity counts for at least 1
+	 * complexity, so this is the most a Matrix can hold.
+	 **/
+	private static final int ENTITIES = Matrix.MAX_COMPLEXITY;
+
+	/**
+	 * The number of effects in the scene. Effects don't count towards
+	 * complexity, and late games have a few shots in flight per entity.
+	 **/
+	private static final int EFFECTS = ENTITIES * 3;
+
+	/**
+	 * The width and height of the area the scene is spread over, which is
+	 * about as far as objects get from the camera before being culled.
+	 **/
+	private static final float AREA = 4000;
+
+	/**
+	 * The number of untimed updates run before measuring.
+	 **/
+	private static final int WARMUP = 50;
+
+	/**
+	 * The number of timed updates.
+	 **/
+	private static final int RUNS = 200;
+
+	/**
+	 * The bounding circles of the entities: x, y and radius.
+	 **/
+	private float[] entityX, entityY, entityR;
+
+	/**
+	 * The bounding circles of the effects: x, y and radius.
+	 **/
+	private float[] effectX, effectY, effectR;
+
+	/**
+	 * The overlapping pairs found by the last update, as effect * ENTITIES +
+	 * entity, in the order they were found.
+	 **/
+	private int[] pairs;
+
+	/**
+	 * The number of pairs found, and the number of exact tests it took.
+	 **/
+	private int pairCount, tests;
+
+	/**
+	 * The SpatialHash the entities are sorted into.
+	 **/
+	private SpatialHash hash;
+
+	/*************************************************************************
+	 * Checks that the broad phase finds exactly the pairs the full pairing
+	 * does, in the same order and with far fewer exact tests.
+	 *************************************************************************/
+	@Test
+	public void broadPhaseAtMaxComplexity()
+	{
+		buildScene(42);
+
+		bruteForce();
+		int[] expected = Arrays.copyOf(pairs, pairCount);
+		int bruteTests = tests;
+		hashed();
+		int[] actual = Arrays.copyOf(pairs, pairCount);
+		int hashedTests = tests;
+
+		assertArrayEquals(expected, actual);
+		assertTrue("expected some overlaps", expected.length > 0);
+		assertTrue("broad phase made " + hashedTests + " of " + bruteTests +
+				" tests", hashedTests * 10 < bruteTests);
+	}
+
+	/*************************************************************************
+	 * Times the full pairing and the broad phase, and prints how long each
+	 * takes per update along with how many exact tests each makes.
+	 *************************************************************************/
+	@Test
+	@Ignore("Benchmark; run by hand")
+	public void timeBroadPhase()
+	{
+		buildScene(42);
+		bruteForce();
+		int bruteTests = tests;
+		hashed();
+		int hashedTests = tests;
+
+		for(int i = 0; i < WARMUP; i++)
+		{
+			bruteForce();
+			hashed();
+		}
+		long bruteTime = 0, hashedTime = 0;
+		for(int i = 0; i < RUNS; i++)
+		{
+			long start = System.nanoTime();
+			bruteForce();
+			long middle = System.nanoTime();
+			hashed();
+			hashedTime += System.nanoTime() - middle;
+			bruteTime += middle - start;
+		}
+		System.out.printf("%d entities x %d effects: every pair %.1f us, " +
+				"spatial hash %.1f us (%.1fx faster); exact tests %d -> %d%n",
+				ENTITIES, EFFECTS, bruteTime / 1000.0 / RUNS,
+				hashedTime / 1000.0 / RUNS, (double) bruteTime / hashedTime,
+				bruteTests, hashedTests);
+	}
+
+	/*************************************************************************
+	 * Scatters entities and effects randomly over the scene, and creates the
+	 * SpatialHash they are sorted into. Entities are the size of scaled enemy
+	 * sprites; effects are the size of bullets.
+	 * 
+	 * @param seed
+	 * 			  The seed to place them with.
+	 *************************************************************************/
+	private void buildScene(long seed)
+	{
+		MatrixRandom random = new MatrixRandom(seed);
+		hash = new SpatialHash(1024);
+		pairs = new int[256];
+		entityX = new float[ENTITIES];
+		entityY = new float[ENTITIES];
+		entityR = new float[ENTITIES];
+		for(int i = 0; i < ENTITIES; i++)
+		{
+			entityX[i] = random.nextFloat() * AREA;
+			entityY[i] = random.nextFloat() * AREA;
+			entityR[i] = 16 + random.nextFloat() * 48;
+		}
+		effectX = new float[EFFECTS];
+		effectY = new float[EFFECTS];
+		effectR = new float[EFFECTS];
+		for(int i = 0; i < EFFECTS; i++)
+		{
+			effectX[i] = random.nextFloat() * AREA;
+			effectY[i] = random.nextFloat() * AREA;
+			effectR[i] = 4 + random.nextFloat() * 12;
+		}
+	}
+
+	/*************************************************************************
+	 * Finds the overlapping pairs by testing every effect against every
+	 * entity.
+	 *************************************************************************/
+	private void bruteForce()
+	{
+		pairCount = tests = 0;
+		for(int e = 0; e < EFFECTS; e++)
+			for(int i = 0; i < ENTITIES; i++)
+				test(e, i);
+	}
+
+	/*************************************************************************
+	 * Finds the overlapping pairs the way Matrix.checkEffects() does: the
+	 * entities are sorted into a SpatialHash with cells as large as they are
+	 * on average, and each effect is only tested against those that share a
+	 * cell with it.
+	 *************************************************************************/
+	private void hashed()
+	{
+		pairCount = tests = 0;
+		float totalSize = 0;
+		for(int i = 0; i < ENTITIES; i++)
+			totalSize += entityR[i] * 2;
+		hash.clear(Math.max(Matrix.MIN_CELL_SIZE, totalSize / ENTITIES));
+		for(int i = 0; i < ENTITIES; i++)
+			hash.insert(i, entityX[i], entityY[i], entityR[i]);
+		for(int e = 0; e < EFFECTS; e++)
+		{
+			int found = hash.query(effectX[e], effectY[e], effectR[e]);
+			for(int j = 0; j < found; j++)
+				test(e, hash.found(j));
+		}
+	}
+
+	/*************************************************************************
+	 * Tests an effect against an entity, and records the pair if they
+	 * overlap.
+	 * 
+	 * @param effect
+	 * 			  The index of the effect.
+	 * @param entity
+	 * 			  The index of the entity.
+	 *************************************************************************/
+	private void test(int effect, int entity)
+	{
+		tests++;
+		float dx = effectX[effect] - entityX[entity];
+		float dy = effectY[effect] - entityY[entity];
+		float reach = effectR[effect] + entityR[entity];
+		if(dx * dx + dy * dy < reach * reach)
+		{
+			if(pairCount == pairs.length)
+				pairs = Arrays.copyOf(pairs, pairCount * 2);
+			pairs[pairCount++] = effect * ENTITIES + entity;
+		}
+	}
+}
\ No newline at end of file
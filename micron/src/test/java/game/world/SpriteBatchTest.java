@@ -0,0 +1,193 @@
+package game.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+/*****************************************************************************
+ * Checks the vertex and index streams a SpriteBatch builds: that quads keep
+ * their order and only consecutive ones are grouped, that each corner is
+ * placed correctly under rotation and scale, and that the index stream
+ * describes two triangles per quad however far it has grown.
+ *****************************************************************************/
+public class SpriteBatchTest
+{
+	/**
+	 * How far apart two coordinates may be and still count as equal.
+	 **/
+	private static final float EPSILON = 0.0001f;
+
+	/**
+	 * Stand-ins for textures and blend ops, which are only compared by
+	 * identity.
+	 **/
+	private final Object textureA = new Object(), textureB = new Object(),
+			additive = new Object();
+
+	/*************************************************************************
+	 * Checks that a run of quads sharing a texture and blend op is drawn as
+	 * one group, that a change of either starts a new group even when an
+	 * earlier group shares them, and that no quad is moved, so that
+	 * overlapping sprites stay in the order they were added.
+	 *************************************************************************/
+	@Test
+	public void groupsConsecutiveRuns()
+	{
+		SpriteBatch batch = new SpriteBatch();
+		add(batch, textureA, null, 0);
+		add(batch, textureA, null, 1);
+		add(batch, textureB, null, 2);
+		add(batch, textureA, null, 3);
+		add(batch, textureA, additive, 4);
+		add(batch, textureB, null, 5);
+		batch.build();
+
+		assertEquals(6, batch.quads());
+		assertEquals(5, batch.groups());
+		Object[] textures = { textureA, textureB, textureA, textureA,
+				textureB };
+		Object[] blends = { null, null, null, additive, null };
+		int[] starts = { 0, 2, 3, 4, 5 };
+		int[] lengths = { 2, 1, 1, 1, 1 };
+		int quad = SpriteBatch.QUAD_INDICES;
+		for(int g = 0; g < textures.length; g++)
+		{
+			assertSame(textures[g], batch.groupTexture(g));
+			assertSame(blends[g], batch.groupBlend(g));
+			assertEquals(starts[g] * quad, batch.groupStart(g));
+			assertEquals(lengths[g] * quad, batch.groupLength(g));
+		}
+
+		for(int q = 0; q < batch.quads(); q++)
+			assertEquals(q, centerX(batch, q), EPSILON);
+	}
+
+	/*************************************************************************
+	 * Checks that clearing a SpriteBatch forgets its groups, so that the
+	 * next batch is grouped from scratch.
+	 *************************************************************************/
+	@Test
+	public void clearForgetsGroups()
+	{
+		SpriteBatch batch = new SpriteBatch();
+		add(batch, textureA, null, 0);
+		add(batch, textureB, null, 1);
+		batch.build();
+		batch.clear();
+		add(batch, textureB, additive, 2);
+		batch.build();
+
+		assertEquals(1, batch.quads());
+		assertEquals(1, batch.groups());
+		assertSame(textureB, batch.groupTexture(0));
+		assertSame(additive, batch.groupBlend(0));
+		assertEquals(2, centerX(batch, 0), EPSILON);
+	}
+
+	/*************************************************************************
+	 * Checks the corners of quads at several rotations, scales and flips
+	 * against rotating each corner's offset from the center by hand, along
+	 * with their texture coordinates and colors.
+	 *************************************************************************/
+	@Test
+	public void cornersUnderRotationAndScale()
+	{
+		float[] thetas = { 0, (float) Math.PI / 2, 0.7f, -2.5f };
+		float[][] halves = { { 16, 8 }, { 4, 2 }, { -10, 6 }, { 3, -12 } };
+		SpriteBatch batch = new SpriteBatch();
+		for(int i = 0; i < thetas.length; i++)
+			batch.add(textureA, null, 10 * i, -5 * i, thetas[i], halves[i][0],
+					halves[i][1], 0.5f, 0.75f, 0.1f, 0.2f, 0.3f, 0.4f);
+		batch.build();
+
+		float[] cornerX = { -1, 1, 1, -1 };
+		float[] cornerY = { -1, -1, 1, 1 };
+		float[] vertices = batch.vertices();
+		for(int i = 0; i < thetas.length; i++)
+		{
+			float cos = (float) Math.cos(thetas[i]);
+			float sin = (float) Math.sin(thetas[i]);
+			for(int c = 0; c < 4; c++)
+			{
+				float dx = cornerX[c] * halves[i][0];
+				float dy = cornerY[c] * halves[i][1];
+				int v = (i * 4 + c) * SpriteBatch.VERTEX_SIZE;
+				assertEquals(10 * i + dx * cos - dy * sin, vertices[v],
+						EPSILON);
+				assertEquals(-5 * i + dx * sin + dy * cos, vertices[v + 1],
+						EPSILON);
+				assertEquals(cornerX[c] > 0 ? 0.5f : 0, vertices[v + 2],
+						EPSILON);
+				assertEquals(cornerY[c] > 0 ? 0.75f : 0, vertices[v + 3],
+						EPSILON);
+				assertEquals(0.1f, vertices[v + 4], EPSILON);
+				assertEquals(0.2f, vertices[v + 5], EPSILON);
+				assertEquals(0.3f, vertices[v + 6], EPSILON);
+				assertEquals(0.4f, vertices[v + 7], EPSILON);
+			}
+		}
+	}
+
+	/*************************************************************************
+	 * Checks that each quad is indexed as the triangles (0, 1, 2) and
+	 * (2, 3, 0) of its own four vertices, both before and after the index
+	 * stream has had to grow, and that a smaller batch reuses it as is.
+	 *************************************************************************/
+	@Test
+	public void indexLayout()
+	{
+		SpriteBatch batch = new SpriteBatch();
+		int[] sizes = { 3, 100, 2 };
+		for(int s = 0; s < sizes.length; s++)
+		{
+			batch.clear();
+			for(int q = 0; q < sizes[s]; q++)
+				add(batch, textureA, null, q);
+			batch.build();
+			int[] indices = batch.indices();
+			int[] pattern = { 0, 1, 2, 2, 3, 0 };
+			for(int q = 0; q < sizes[s]; q++)
+				for(int i = 0; i < pattern.length; i++)
+					assertEquals(q * 4 + pattern[i],
+							indices[q * SpriteBatch.QUAD_INDICES + i]);
+		}
+	}
+
+	/*************************************************************************
+	 * Adds an unrotated square quad, identified by the x coordinate of its
+	 * center.
+	 * 
+	 * @param batch
+	 * 			  The SpriteBatch to add to.
+	 * @param texture
+	 * 			  The texture of the quad.
+	 * @param blend
+	 * 			  The blend op of the quad.
+	 * @param id
+	 * 			  The x coordinate of the center of the quad.
+	 *************************************************************************/
+	private void add(SpriteBatch batch, Object texture, Object blend, int id)
+	{
+		batch.add(texture, blend, id, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1);
+	}
+
+	/*************************************************************************
+	 * Finds the x coordinate of the center of a quad in the built stream.
+	 * 
+	 * @param batch
+	 * 			  The SpriteBatch that was built.
+	 * @param quad
+	 * 			  The position of the quad in the vertex stream.
+	 * 
+	 * @return The average x coordinate of the quad's corners.
+	 *************************************************************************/
+	private float centerX(SpriteBatch batch, int quad)
+	{
+		float[] vertices = batch.vertices();
+		float sum = 0;
+		for(int c = 0; c < 4; c++)
+			sum += vertices[(quad * 4 + c) * SpriteBatch.VERTEX_SIZE];
+		return sum / 4;
+	}
+}
\ No newline at end of file